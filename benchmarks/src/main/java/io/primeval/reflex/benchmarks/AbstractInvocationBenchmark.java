@@ -0,0 +1,153 @@
+package io.primeval.reflex.benchmarks;
+
+import java.lang.reflect.InvocationHandler;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.primeval.reflex.proxy.Interceptor;
+import io.primeval.reflex.proxy.bytecode.InterceptorBinding;
+import io.primeval.reflex.proxy.bytecode.Proxy;
+import io.primeval.reflex.proxy.bytecode.ProxyBuilder;
+import io.primeval.reflex.proxy.bytecode.ProxyClass;
+import io.primeval.reflex.proxy.bytecode.ProxyClassLoader;
+
+/**
+ * One benchmark per return type and arity of {@link BenchService}; subclasses decide which {@link #service} is called.
+ * Arguments are read from fields so that they are not constant-folded.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public abstract class AbstractInvocationBenchmark {
+
+    protected BenchService service;
+
+    public int a = 1;
+    public long b = 2L;
+    public String c = "c";
+    public double d = 4d;
+    public boolean e = true;
+    public byte f = 6;
+    public char g = 'g';
+    public Object h = new Object();
+
+    @Benchmark
+    public void voidCall() {
+        service.voidCall();
+    }
+
+    @Benchmark
+    public Object objectCall() {
+        return service.objectCall();
+    }
+
+    @Benchmark
+    public boolean booleanCall() {
+        return service.booleanCall();
+    }
+
+    @Benchmark
+    public byte byteCall() {
+        return service.byteCall();
+    }
+
+    @Benchmark
+    public char charCall() {
+        return service.charCall();
+    }
+
+    @Benchmark
+    public short shortCall() {
+        return service.shortCall();
+    }
+
+    @Benchmark
+    public int intCall() {
+        return service.intCall();
+    }
+
+    @Benchmark
+    public long longCall() {
+        return service.longCall();
+    }
+
+    @Benchmark
+    public float floatCall() {
+        return service.floatCall();
+    }
+
+    @Benchmark
+    public double doubleCall() {
+        return service.doubleCall();
+    }
+
+    @Benchmark
+    public int args1() {
+        return service.args1(a);
+    }
+
+    @Benchmark
+    public int args4() {
+        return service.args4(a, b, c, d);
+    }
+
+    @Benchmark
+    public int args8() {
+        return service.args8(a, b, c, d, e, f, g, h);
+    }
+
+    protected static BenchService direct() {
+        return new BenchServiceImpl();
+    }
+
+    protected static BenchService jdkProxy() {
+        BenchServiceImpl target = new BenchServiceImpl();
+        InvocationHandler handler = (proxy, method, args) -> method.invoke(target, args);
+        return (BenchService) java.lang.reflect.Proxy.newProxyInstance(BenchService.class.getClassLoader(),
+                new Class<?>[] { BenchService.class }, handler);
+    }
+
+    protected static BenchService handWritten(Interceptor interceptor) {
+        HandWrittenProxy proxy = new HandWrittenProxy(new BenchServiceImpl());
+        proxy.setInterceptor(interceptor);
+        return proxy;
+    }
+
+    protected static BenchService reflex(Interceptor interceptor, InterceptorBinding binding) {
+        ProxyClassLoader classLoader = new ProxyClassLoader(BenchServiceImpl.class.getClassLoader());
+        ProxyClass<BenchServiceImpl> proxyClass = ProxyBuilder.build(classLoader, BenchServiceImpl.class,
+                new Class<?>[] { BenchService.class }, m -> true, binding);
+        Proxy proxy = proxyClass.newInstance(new BenchServiceImpl());
+        proxy.setInterceptor(interceptor);
+        return (BenchService) proxy;
+    }
+
+    protected static BenchService create(String impl, Interceptor interceptor) {
+        switch (impl) {
+        case "direct":
+            return direct();
+        case "jdk":
+            return jdkProxy();
+        case "theoretical":
+            return handWritten(interceptor);
+        case "reflex":
+            return reflex(interceptor, InterceptorBinding.FIELD);
+        case "reflex-constant":
+            return reflex(interceptor, InterceptorBinding.CONSTANT);
+        default:
+            throw new IllegalArgumentException("Unknown implementation " + impl);
+        }
+    }
+}
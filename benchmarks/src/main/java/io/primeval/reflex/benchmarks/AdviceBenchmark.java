@@ -0,0 +1,26 @@
+package io.primeval.reflex.benchmarks;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import io.primeval.reflex.proxy.Advice;
+
+/**
+ * Cost of a call through a counting {@link Advice}, either called inline by the generated proxy ({@code advice}) or
+ * run as a plain interceptor through the interception handlers ({@code interceptor}).
+ */
+public class AdviceBenchmark extends AbstractInvocationBenchmark {
+
+    @Param({ "reflex", "reflex-constant" })
+    public String impl;
+
+    @Param({ "advice", "interceptor" })
+    public String style;
+
+    @Setup
+    public void setup() {
+        CountingAdvice advice = new CountingAdvice();
+        service = create(impl, "advice".equals(style) ? advice : new AdviceInterceptor(advice));
+    }
+
+}
@@ -0,0 +1,79 @@
+package io.primeval.reflex.benchmarks;
+
+import io.primeval.reflex.proxy.Advice;
+import io.primeval.reflex.proxy.CallContext;
+import io.primeval.reflex.proxy.Interceptor;
+import io.primeval.reflex.proxy.handler.BooleanInterceptionHandler;
+import io.primeval.reflex.proxy.handler.ByteInterceptionHandler;
+import io.primeval.reflex.proxy.handler.CharInterceptionHandler;
+import io.primeval.reflex.proxy.handler.DoubleInterceptionHandler;
+import io.primeval.reflex.proxy.handler.FloatInterceptionHandler;
+import io.primeval.reflex.proxy.handler.IntInterceptionHandler;
+import io.primeval.reflex.proxy.handler.InterceptionHandler;
+import io.primeval.reflex.proxy.handler.LongInterceptionHandler;
+import io.primeval.reflex.proxy.handler.ShortInterceptionHandler;
+import io.primeval.reflex.proxy.handler.VoidInterceptionHandler;
+
+/**
+ * Runs an {@link Advice} as a plain interceptor, through the interception handlers. Used to compare with the inlined
+ * advice calls of generated proxies.
+ */
+final class AdviceInterceptor implements Interceptor {
+
+    private final Advice advice;
+
+    AdviceInterceptor(Advice advice) {
+        this.advice = advice;
+    }
+
+    @Override
+    public <T, E extends Throwable> T onCall(CallContext context, InterceptionHandler<T> handler) throws E {
+        return advice.onCall(context, handler);
+    }
+
+    @Override
+    public <E extends Throwable> void onCall(CallContext context, VoidInterceptionHandler handler) throws E {
+        advice.onCall(context, handler);
+    }
+
+    @Override
+    public <E extends Throwable> boolean onCall(CallContext context, BooleanInterceptionHandler handler) throws E {
+        return advice.onCall(context, handler);
+    }
+
+    @Override
+    public <E extends Throwable> byte onCall(CallContext context, ByteInterceptionHandler handler) throws E {
+        return advice.onCall(context, handler);
+    }
+
+    @Override
+    public <E extends Throwable> char onCall(CallContext context, CharInterceptionHandler handler) throws E {
+        return advice.onCall(context, handler);
+    }
+
+    @Override
+    public <E extends Throwable> short onCall(CallContext context, ShortInterceptionHandler handler) throws E {
+        return advice.onCall(context, handler);
+    }
+
+    @Override
+    public <E extends Throwable> int onCall(CallContext context, IntInterceptionHandler handler) throws E {
+        return advice.onCall(context, handler);
+    }
+
+    @Override
+    public <E extends Throwable> long onCall(CallContext context, LongInterceptionHandler handler) throws E {
+        return advice.onCall(context, handler);
+    }
+
+    @Override
+    public <E extends Throwable> float onCall(CallContext context, FloatInterceptionHandler handler) throws E {
+        return advice.onCall(context, handler);
+    }
+
+    @Override
+    public <E extends Throwable> double onCall(CallContext context, DoubleInterceptionHandler handler) throws E {
+        return advice.onCall(context, handler);
+    }
+
+}
@@ -0,0 +1,218 @@
+package io.primeval.reflex.benchmarks;
+
+import java.lang.reflect.Parameter;
+import java.util.List;
+
+import io.primeval.reflex.arguments.Arguments;
+import io.primeval.reflex.arguments.ArgumentsUpdater;
+
+/**
+ * Base class for the hand-written {@link Arguments} of {@link HandWrittenProxy}. Benchmarks only go through the
+ * {@code invoke()} fast path, so the name-based accessors and the updater work on boxed argument values.
+ */
+abstract class BenchArguments implements Arguments {
+
+    private final List<Parameter> parameters;
+
+    BenchArguments(List<Parameter> parameters) {
+        this.parameters = parameters;
+    }
+
+    /**
+     * The argument values, boxed, in parameter order.
+     */
+    abstract Object[] values();
+
+    /**
+     * Arguments of the same class with other values, in parameter order.
+     */
+    abstract Arguments with(Object[] values);
+
+    @Override
+    public List<Parameter> parameters() {
+        return parameters;
+    }
+
+    @Override
+    public ArgumentsUpdater updater() {
+        return new Updater(this);
+    }
+
+    @Override
+    public <T> T objectArg(String argName) {
+        @SuppressWarnings("unchecked")
+        T arg = (T) values()[indexOf(parameters, argName, Object.class)];
+        return arg;
+    }
+
+    @Override
+    public int intArg(String argName) {
+        return (Integer) values()[indexOf(parameters, argName, int.class)];
+    }
+
+    @Override
+    public short shortArg(String argName) {
+        return (Short) values()[indexOf(parameters, argName, short.class)];
+    }
+
+    @Override
+    public long longArg(String argName) {
+        return (Long) values()[indexOf(parameters, argName, long.class)];
+    }
+
+    @Override
+    public byte byteArg(String argName) {
+        return (Byte) values()[indexOf(parameters, argName, byte.class)];
+    }
+
+    @Override
+    public boolean booleanArg(String argName) {
+        return (Boolean) values()[indexOf(parameters, argName, boolean.class)];
+    }
+
+    @Override
+    public float floatArg(String argName) {
+        return (Float) values()[indexOf(parameters, argName, float.class)];
+    }
+
+    @Override
+    public double doubleArg(String argName) {
+        return (Double) values()[indexOf(parameters, argName, double.class)];
+    }
+
+    @Override
+    public char charArg(String argName) {
+        return (Character) values()[indexOf(parameters, argName, char.class)];
+    }
+
+    // Object.class stands for any reference type.
+    private static int indexOf(List<Parameter> parameters, String argName, Class<?> type) {
+        for (int i = 0; i < parameters.size(); i++) {
+            Parameter parameter = parameters.get(i);
+            Class<?> parameterType = parameter.getType();
+            if (parameter.getName().equals(argName)
+                    && (parameterType == type || type == Object.class && !parameterType.isPrimitive())) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("No " + type.getSimpleName() + " parameter named " + argName);
+    }
+
+    private static final class Updater implements ArgumentsUpdater {
+        private final BenchArguments arguments;
+        private final Object[] values;
+
+        Updater(BenchArguments arguments) {
+            this.arguments = arguments;
+            this.values = arguments.values();
+        }
+
+        @Override
+        public List<Parameter> parameters() {
+            return arguments.parameters;
+        }
+
+        @Override
+        public Arguments update() {
+            return arguments.with(values.clone());
+        }
+
+        private ArgumentsUpdater set(String argName, Class<?> type, Object newValue) {
+            values[indexOf(arguments.parameters, argName, type)] = newValue;
+            return this;
+        }
+
+        @Override
+        public <T> T objectArg(String argName) {
+            @SuppressWarnings("unchecked")
+            T arg = (T) values[indexOf(arguments.parameters, argName, Object.class)];
+            return arg;
+        }
+
+        @Override
+        public int intArg(String argName) {
+            return (Integer) values[indexOf(arguments.parameters, argName, int.class)];
+        }
+
+        @Override
+        public short shortArg(String argName) {
+            return (Short) values[indexOf(arguments.parameters, argName, short.class)];
+        }
+
+        @Override
+        public long longArg(String argName) {
+            return (Long) values[indexOf(arguments.parameters, argName, long.class)];
+        }
+
+        @Override
+        public byte byteArg(String argName) {
+            return (Byte) values[indexOf(arguments.parameters, argName, byte.class)];
+        }
+
+        @Override
+        public boolean booleanArg(String argName) {
+            return (Boolean) values[indexOf(arguments.parameters, argName, boolean.class)];
+        }
+
+        @Override
+        public float floatArg(String argName) {
+            return (Float) values[indexOf(arguments.parameters, argName, float.class)];
+        }
+
+        @Override
+        public double doubleArg(String argName) {
+            return (Double) values[indexOf(arguments.parameters, argName, double.class)];
+        }
+
+        @Override
+        public char charArg(String argName) {
+            return (Character) values[indexOf(arguments.parameters, argName, char.class)];
+        }
+
+        @Override
+        public <T> ArgumentsUpdater setObjectArg(String argName, T newValue) {
+            return set(argName, Object.class, newValue);
+        }
+
+        @Override
+        public ArgumentsUpdater setIntArg(String argName, int newValue) {
+            return set(argName, int.class, newValue);
+        }
+
+        @Override
+        public ArgumentsUpdater setShortArg(String argName, short newValue) {
+            return set(argName, short.class, newValue);
+        }
+
+        @Override
+        public ArgumentsUpdater setLongArg(String argName, long newValue) {
+            return set(argName, long.class, newValue);
+        }
+
+        @Override
+        public ArgumentsUpdater setByteArg(String argName, byte newValue) {
+            return set(argName, byte.class, newValue);
+        }
+
+        @Override
+        public ArgumentsUpdater setBooleanArg(String argName, boolean newValue) {
+            return set(argName, boolean.class, newValue);
+        }
+
+        @Override
+        public ArgumentsUpdater setFloatArg(String argName, float newValue) {
+            return set(argName, float.class, newValue);
+        }
+
+        @Override
+        public ArgumentsUpdater setDoubleArg(String argName, double newValue) {
+            return set(argName, double.class, newValue);
+        }
+
+        @Override
+        public ArgumentsUpdater setCharArg(String argName, char newValue) {
+            return set(argName, char.class, newValue);
+        }
+    }
+
+}
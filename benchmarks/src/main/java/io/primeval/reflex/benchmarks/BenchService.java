@@ -0,0 +1,35 @@
+package io.primeval.reflex.benchmarks;
+
+/**
+ * The proxied API: one method per return type handled by {@link io.primeval.reflex.proxy.Interceptor}, and methods
+ * with 1, 4 and 8 parameters ({@link #intCall()} is the 0-parameter case).
+ */
+public interface BenchService {
+
+    void voidCall();
+
+    Object objectCall();
+
+    boolean booleanCall();
+
+    byte byteCall();
+
+    char charCall();
+
+    short shortCall();
+
+    int intCall();
+
+    long longCall();
+
+    float floatCall();
+
+    double doubleCall();
+
+    int args1(int a);
+
+    int args4(int a, long b, String c, double d);
+
+    int args8(int a, long b, String c, double d, boolean e, byte f, char g, Object h);
+
+}
@@ -0,0 +1,74 @@
+package io.primeval.reflex.benchmarks;
+
+public final class BenchServiceImpl implements BenchService {
+
+    private final Object object = new Object();
+
+    private int counter;
+
+    @Override
+    public void voidCall() {
+        counter++;
+    }
+
+    @Override
+    public Object objectCall() {
+        return object;
+    }
+
+    @Override
+    public boolean booleanCall() {
+        return (counter & 1) == 0;
+    }
+
+    @Override
+    public byte byteCall() {
+        return (byte) counter;
+    }
+
+    @Override
+    public char charCall() {
+        return (char) counter;
+    }
+
+    @Override
+    public short shortCall() {
+        return (short) counter;
+    }
+
+    @Override
+    public int intCall() {
+        return counter;
+    }
+
+    @Override
+    public long longCall() {
+        return counter;
+    }
+
+    @Override
+    public float floatCall() {
+        return counter;
+    }
+
+    @Override
+    public double doubleCall() {
+        return counter;
+    }
+
+    @Override
+    public int args1(int a) {
+        return a;
+    }
+
+    @Override
+    public int args4(int a, long b, String c, double d) {
+        return a + (int) b + c.length() + (int) d;
+    }
+
+    @Override
+    public int args8(int a, long b, String c, double d, boolean e, byte f, char g, Object h) {
+        return a + (int) b + c.length() + (int) d + (e ? 1 : 0) + f + g + (h == null ? 0 : 1);
+    }
+
+}
@@ -0,0 +1,69 @@
+package io.primeval.reflex.benchmarks;
+
+import io.primeval.reflex.proxy.Advice;
+import io.primeval.reflex.proxy.CallContext;
+
+/**
+ * An advice counting calls before and after them, the kind of work a metrics advice does.
+ */
+final class CountingAdvice implements Advice {
+
+    long before;
+    long after;
+
+    @Override
+    public void before(CallContext context) {
+        before++;
+    }
+
+    @Override
+    public void afterReturning(CallContext context) {
+        after++;
+    }
+
+    @Override
+    public void afterReturning(CallContext context, Object result) {
+        after++;
+    }
+
+    @Override
+    public void afterReturning(CallContext context, boolean result) {
+        after++;
+    }
+
+    @Override
+    public void afterReturning(CallContext context, byte result) {
+        after++;
+    }
+
+    @Override
+    public void afterReturning(CallContext context, char result) {
+        after++;
+    }
+
+    @Override
+    public void afterReturning(CallContext context, short result) {
+        after++;
+    }
+
+    @Override
+    public void afterReturning(CallContext context, int result) {
+        after++;
+    }
+
+    @Override
+    public void afterReturning(CallContext context, long result) {
+        after++;
+    }
+
+    @Override
+    public void afterReturning(CallContext context, float result) {
+        after++;
+    }
+
+    @Override
+    public void afterReturning(CallContext context, double result) {
+        after++;
+    }
+
+}
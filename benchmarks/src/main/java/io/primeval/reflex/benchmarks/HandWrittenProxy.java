@@ -0,0 +1,534 @@
+package io.primeval.reflex.benchmarks;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Arrays;
+import java.util.List;
+
+import io.primeval.reflex.arguments.Arguments;
+import io.primeval.reflex.proxy.CallContext;
+import io.primeval.reflex.proxy.Interceptor;
+import io.primeval.reflex.proxy.bytecode.Proxy;
+import io.primeval.reflex.proxy.handler.BooleanInterceptionHandler;
+import io.primeval.reflex.proxy.handler.ByteInterceptionHandler;
+import io.primeval.reflex.proxy.handler.CharInterceptionHandler;
+import io.primeval.reflex.proxy.handler.DoubleInterceptionHandler;
+import io.primeval.reflex.proxy.handler.FloatInterceptionHandler;
+import io.primeval.reflex.proxy.handler.IntInterceptionHandler;
+import io.primeval.reflex.proxy.handler.InterceptionHandler;
+import io.primeval.reflex.proxy.handler.LongInterceptionHandler;
+import io.primeval.reflex.proxy.handler.ShortInterceptionHandler;
+import io.primeval.reflex.proxy.handler.VoidInterceptionHandler;
+import io.primeval.reflex.proxy.shared.SharedProxyUtils;
+
+/**
+ * A manually written proxy of {@link BenchServiceImpl}, following the shape of what {@code ProxyClassGenerator} emits
+ * (see {@code TheoreticalProxy} in the library tests). It is the baseline the generated proxies are compared to.
+ */
+public final class HandWrittenProxy extends Proxy implements BenchService {
+
+    private static final CallContext ccVoid = callContext("voidCall");
+    private static final CallContext ccObject = callContext("objectCall");
+    private static final CallContext ccBoolean = callContext("booleanCall");
+    private static final CallContext ccByte = callContext("byteCall");
+    private static final CallContext ccChar = callContext("charCall");
+    private static final CallContext ccShort = callContext("shortCall");
+    private static final CallContext ccInt = callContext("intCall");
+    private static final CallContext ccLong = callContext("longCall");
+    private static final CallContext ccFloat = callContext("floatCall");
+    private static final CallContext ccDouble = callContext("doubleCall");
+    private static final CallContext ccArgs1 = callContext("args1", int.class);
+    private static final CallContext ccArgs4 = callContext("args4", int.class, long.class, String.class,
+            double.class);
+    private static final CallContext ccArgs8 = callContext("args8", int.class, long.class, String.class,
+            double.class, boolean.class, byte.class, char.class, Object.class);
+
+    private static final CallContext[] callContexts = { ccVoid, ccObject, ccBoolean, ccByte, ccChar, ccShort, ccInt,
+            ccLong, ccFloat, ccDouble, ccArgs1, ccArgs4, ccArgs8 };
+
+    private final BenchServiceImpl delegate;
+    private final VoidHandler voidHandler;
+    private final ObjectHandler objectHandler;
+    private final BooleanHandler booleanHandler;
+    private final ByteHandler byteHandler;
+    private final CharHandler charHandler;
+    private final ShortHandler shortHandler;
+    private final IntHandler intHandler;
+    private final LongHandler longHandler;
+    private final FloatHandler floatHandler;
+    private final DoubleHandler doubleHandler;
+
+    public HandWrittenProxy(BenchServiceImpl delegate) {
+        super(callContexts);
+        this.delegate = delegate;
+        this.voidHandler = new VoidHandler(delegate);
+        this.objectHandler = new ObjectHandler(delegate);
+        this.booleanHandler = new BooleanHandler(delegate);
+        this.byteHandler = new ByteHandler(delegate);
+        this.charHandler = new CharHandler(delegate);
+        this.shortHandler = new ShortHandler(delegate);
+        this.intHandler = new IntHandler(delegate);
+        this.longHandler = new LongHandler(delegate);
+        this.floatHandler = new FloatHandler(delegate);
+        this.doubleHandler = new DoubleHandler(delegate);
+    }
+
+    private static CallContext callContext(String name, Class<?>... parameterTypes) {
+        Method method = SharedProxyUtils.getMethodUnchecked(BenchServiceImpl.class, name, parameterTypes);
+        return new CallContext(BenchServiceImpl.class, method, Arrays.asList(method.getParameters()));
+    }
+
+    @Override
+    public void voidCall() {
+        Interceptor interceptor = this.interceptors[0];
+        if (interceptor == Interceptor.DEFAULT) {
+            delegate.voidCall();
+            return;
+        }
+        interceptor.onCall(ccVoid, voidHandler);
+    }
+
+    @Override
+    public Object objectCall() {
+        Interceptor interceptor = this.interceptors[1];
+        if (interceptor == Interceptor.DEFAULT) {
+            return delegate.objectCall();
+        }
+        return interceptor.onCall(ccObject, objectHandler);
+    }
+
+    @Override
+    public boolean booleanCall() {
+        Interceptor interceptor = this.interceptors[2];
+        if (interceptor == Interceptor.DEFAULT) {
+            return delegate.booleanCall();
+        }
+        return interceptor.onCall(ccBoolean, booleanHandler);
+    }
+
+    @Override
+    public byte byteCall() {
+        Interceptor interceptor = this.interceptors[3];
+        if (interceptor == Interceptor.DEFAULT) {
+            return delegate.byteCall();
+        }
+        return interceptor.onCall(ccByte, byteHandler);
+    }
+
+    @Override
+    public char charCall() {
+        Interceptor interceptor = this.interceptors[4];
+        if (interceptor == Interceptor.DEFAULT) {
+            return delegate.charCall();
+        }
+        return interceptor.onCall(ccChar, charHandler);
+    }
+
+    @Override
+    public short shortCall() {
+        Interceptor interceptor = this.interceptors[5];
+        if (interceptor == Interceptor.DEFAULT) {
+            return delegate.shortCall();
+        }
+        return interceptor.onCall(ccShort, shortHandler);
+    }
+
+    @Override
+    public int intCall() {
+        Interceptor interceptor = this.interceptors[6];
+        if (interceptor == Interceptor.DEFAULT) {
+            return delegate.intCall();
+        }
+        return interceptor.onCall(ccInt, intHandler);
+    }
+
+    @Override
+    public long longCall() {
+        Interceptor interceptor = this.interceptors[7];
+        if (interceptor == Interceptor.DEFAULT) {
+            return delegate.longCall();
+        }
+        return interceptor.onCall(ccLong, longHandler);
+    }
+
+    @Override
+    public float floatCall() {
+        Interceptor interceptor = this.interceptors[8];
+        if (interceptor == Interceptor.DEFAULT) {
+            return delegate.floatCall();
+        }
+        return interceptor.onCall(ccFloat, floatHandler);
+    }
+
+    @Override
+    public double doubleCall() {
+        Interceptor interceptor = this.interceptors[9];
+        if (interceptor == Interceptor.DEFAULT) {
+            return delegate.doubleCall();
+        }
+        return interceptor.onCall(ccDouble, doubleHandler);
+    }
+
+    @Override
+    public int args1(int a) {
+        Interceptor interceptor = this.interceptors[10];
+        if (interceptor == Interceptor.DEFAULT) {
+            return delegate.args1(a);
+        }
+        return interceptor.onCall(ccArgs1, new Args1Handler(delegate, ccArgs1.parameters, a));
+    }
+
+    @Override
+    public int args4(int a, long b, String c, double d) {
+        Interceptor interceptor = this.interceptors[11];
+        if (interceptor == Interceptor.DEFAULT) {
+            return delegate.args4(a, b, c, d);
+        }
+        return interceptor.onCall(ccArgs4, new Args4Handler(delegate, ccArgs4.parameters, a, b, c, d));
+    }
+
+    @Override
+    public int args8(int a, long b, String c, double d, boolean e, byte f, char g, Object h) {
+        Interceptor interceptor = this.interceptors[12];
+        if (interceptor == Interceptor.DEFAULT) {
+            return delegate.args8(a, b, c, d, e, f, g, h);
+        }
+        return interceptor.onCall(ccArgs8,
+                new Args8Handler(delegate, ccArgs8.parameters, a, b, c, d, e, f, g, h));
+    }
+
+    private static final class VoidHandler implements VoidInterceptionHandler {
+        private final BenchServiceImpl delegate;
+
+        VoidHandler(BenchServiceImpl delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Arguments getArguments() {
+            return Arguments.EMPTY_ARGUMENTS;
+        }
+
+        @Override
+        public <E extends Throwable> void invoke(Arguments arguments) throws E {
+            delegate.voidCall();
+        }
+    }
+
+    private static final class ObjectHandler implements InterceptionHandler<Object> {
+        private final BenchServiceImpl delegate;
+
+        ObjectHandler(BenchServiceImpl delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Arguments getArguments() {
+            return Arguments.EMPTY_ARGUMENTS;
+        }
+
+        @Override
+        public <E extends Throwable> Object invoke(Arguments arguments) throws E {
+            return delegate.objectCall();
+        }
+    }
+
+    private static final class BooleanHandler implements BooleanInterceptionHandler {
+        private final BenchServiceImpl delegate;
+
+        BooleanHandler(BenchServiceImpl delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Arguments getArguments() {
+            return Arguments.EMPTY_ARGUMENTS;
+        }
+
+        @Override
+        public <E extends Throwable> boolean invoke(Arguments arguments) throws E {
+            return delegate.booleanCall();
+        }
+    }
+
+    private static final class ByteHandler implements ByteInterceptionHandler {
+        private final BenchServiceImpl delegate;
+
+        ByteHandler(BenchServiceImpl delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Arguments getArguments() {
+            return Arguments.EMPTY_ARGUMENTS;
+        }
+
+        @Override
+        public <E extends Throwable> byte invoke(Arguments arguments) throws E {
+            return delegate.byteCall();
+        }
+    }
+
+    private static final class CharHandler implements CharInterceptionHandler {
+        private final BenchServiceImpl delegate;
+
+        CharHandler(BenchServiceImpl delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Arguments getArguments() {
+            return Arguments.EMPTY_ARGUMENTS;
+        }
+
+        @Override
+        public <E extends Throwable> char invoke(Arguments arguments) throws E {
+            return delegate.charCall();
+        }
+    }
+
+    private static final class ShortHandler implements ShortInterceptionHandler {
+        private final BenchServiceImpl delegate;
+
+        ShortHandler(BenchServiceImpl delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Arguments getArguments() {
+            return Arguments.EMPTY_ARGUMENTS;
+        }
+
+        @Override
+        public <E extends Throwable> short invoke(Arguments arguments) throws E {
+            return delegate.shortCall();
+        }
+    }
+
+    private static final class IntHandler implements IntInterceptionHandler {
+        private final BenchServiceImpl delegate;
+
+        IntHandler(BenchServiceImpl delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Arguments getArguments() {
+            return Arguments.EMPTY_ARGUMENTS;
+        }
+
+        @Override
+        public <E extends Throwable> int invoke(Arguments arguments) throws E {
+            return delegate.intCall();
+        }
+    }
+
+    private static final class LongHandler implements LongInterceptionHandler {
+        private final BenchServiceImpl delegate;
+
+        LongHandler(BenchServiceImpl delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Arguments getArguments() {
+            return Arguments.EMPTY_ARGUMENTS;
+        }
+
+        @Override
+        public <E extends Throwable> long invoke(Arguments arguments) throws E {
+            return delegate.longCall();
+        }
+    }
+
+    private static final class FloatHandler implements FloatInterceptionHandler {
+        private final BenchServiceImpl delegate;
+
+        FloatHandler(BenchServiceImpl delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Arguments getArguments() {
+            return Arguments.EMPTY_ARGUMENTS;
+        }
+
+        @Override
+        public <E extends Throwable> float invoke(Arguments arguments) throws E {
+            return delegate.floatCall();
+        }
+    }
+
+    private static final class DoubleHandler implements DoubleInterceptionHandler {
+        private final BenchServiceImpl delegate;
+
+        DoubleHandler(BenchServiceImpl delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Arguments getArguments() {
+            return Arguments.EMPTY_ARGUMENTS;
+        }
+
+        @Override
+        public <E extends Throwable> double invoke(Arguments arguments) throws E {
+            return delegate.doubleCall();
+        }
+    }
+
+    private static class Args1 extends BenchArguments {
+        final int a;
+
+        Args1(List<Parameter> parameters, int a) {
+            super(parameters);
+            this.a = a;
+        }
+
+        @Override
+        Object[] values() {
+            return new Object[] { a };
+        }
+
+        @Override
+        Arguments with(Object[] values) {
+            return new Args1(parameters(), (Integer) values[0]);
+        }
+    }
+
+    private static final class Args1Handler extends Args1 implements IntInterceptionHandler {
+        private final BenchServiceImpl delegate;
+
+        Args1Handler(BenchServiceImpl delegate, List<Parameter> parameters, int a) {
+            super(parameters, a);
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Arguments getArguments() {
+            return this;
+        }
+
+        @Override
+        public <E extends Throwable> int invoke(Arguments arguments) throws E {
+            Args1 args = (Args1) arguments;
+            return delegate.args1(args.a);
+        }
+
+        @Override
+        public <E extends Throwable> int invoke() throws E {
+            return delegate.args1(a);
+        }
+    }
+
+    private static class Args4 extends BenchArguments {
+        final int a;
+        final long b;
+        final String c;
+        final double d;
+
+        Args4(List<Parameter> parameters, int a, long b, String c, double d) {
+            super(parameters);
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.d = d;
+        }
+
+        @Override
+        Object[] values() {
+            return new Object[] { a, b, c, d };
+        }
+
+        @Override
+        Arguments with(Object[] values) {
+            return new Args4(parameters(), (Integer) values[0], (Long) values[1], (String) values[2],
+                    (Double) values[3]);
+        }
+    }
+
+    private static final class Args4Handler extends Args4 implements IntInterceptionHandler {
+        private final BenchServiceImpl delegate;
+
+        Args4Handler(BenchServiceImpl delegate, List<Parameter> parameters, int a, long b, String c, double d) {
+            super(parameters, a, b, c, d);
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Arguments getArguments() {
+            return this;
+        }
+
+        @Override
+        public <E extends Throwable> int invoke(Arguments arguments) throws E {
+            Args4 args = (Args4) arguments;
+            return delegate.args4(args.a, args.b, args.c, args.d);
+        }
+
+        @Override
+        public <E extends Throwable> int invoke() throws E {
+            return delegate.args4(a, b, c, d);
+        }
+    }
+
+    private static class Args8 extends BenchArguments {
+        final int a;
+        final long b;
+        final String c;
+        final double d;
+        final boolean e;
+        final byte f;
+        final char g;
+        final Object h;
+
+        Args8(List<Parameter> parameters, int a, long b, String c, double d, boolean e, byte f, char g, Object h) {
+            super(parameters);
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.d = d;
+            this.e = e;
+            this.f = f;
+            this.g = g;
+            this.h = h;
+        }
+
+        @Override
+        Object[] values() {
+            return new Object[] { a, b, c, d, e, f, g, h };
+        }
+
+        @Override
+        Arguments with(Object[] values) {
+            return new Args8(parameters(), (Integer) values[0], (Long) values[1], (String) values[2],
+                    (Double) values[3], (Boolean) values[4], (Byte) values[5], (Character) values[6], values[7]);
+        }
+    }
+
+    private static final class Args8Handler extends Args8 implements IntInterceptionHandler {
+        private final BenchServiceImpl delegate;
+
+        Args8Handler(BenchServiceImpl delegate, List<Parameter> parameters, int a, long b, String c, double d,
+                boolean e, byte f, char g, Object h) {
+            super(parameters, a, b, c, d, e, f, g, h);
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Arguments getArguments() {
+            return this;
+        }
+
+        @Override
+        public <E extends Throwable> int invoke(Arguments arguments) throws E {
+            Args8 args = (Args8) arguments;
+            return delegate.args8(args.a, args.b, args.c, args.d, args.e, args.f, args.g, args.h);
+        }
+
+        @Override
+        public <E extends Throwable> int invoke() throws E {
+            return delegate.args8(a, b, c, d, e, f, g, h);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package io.primeval.reflex.benchmarks;
+
+import java.util.Arrays;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import io.primeval.reflex.proxy.Interceptor;
+import io.primeval.reflex.proxy.Interceptors;
+
+/**
+ * Cost of a call through a stack of pass-through interceptors of increasing depth, composed either with
+ * {@link Interceptors#stack(Interceptor...)} or {@link Interceptors#chain(Interceptor...)}.
+ */
+public class InterceptorStackBenchmark extends AbstractInvocationBenchmark {
+
+    @Param({ "theoretical", "reflex", "reflex-constant" })
+    public String impl;
+
+    @Param({ "1", "4", "16" })
+    public int depth;
+
+    @Param({ "stack", "chain" })
+    public String composition;
+
+    @Setup
+    public void setup() {
+        Interceptor[] interceptors = new Interceptor[depth];
+        Arrays.fill(interceptors, new PassThroughInterceptor());
+        // always go through the array overloads, so that even depth 1 measures a composed interceptor
+        Interceptor interceptor = "chain".equals(composition) ? Interceptors.chain(interceptors)
+                : Interceptors.stack(interceptors);
+        service = create(impl, interceptor);
+    }
+
+}
@@ -0,0 +1,220 @@
+package io.primeval.reflex.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.primeval.reflex.proxy.CallContext;
+import io.primeval.reflex.proxy.Interceptor;
+import io.primeval.reflex.proxy.Interceptors;
+import io.primeval.reflex.proxy.bytecode.InterceptorBinding;
+import io.primeval.reflex.proxy.bytecode.InterceptorDispatch;
+import io.primeval.reflex.proxy.bytecode.Proxy;
+import io.primeval.reflex.proxy.bytecode.ProxyBuilder;
+import io.primeval.reflex.proxy.bytecode.ProxyClass;
+import io.primeval.reflex.proxy.bytecode.ProxyClassLoader;
+import io.primeval.reflex.proxy.handler.IntInterceptionHandler;
+import io.primeval.reflex.proxy.handler.InterceptionHandler;
+
+/**
+ * Cost of a call through a stack of three interceptors of different types, shared by the proxies of {@code classes}
+ * distinct proxied classes that are all called before measuring the first one, with both
+ * {@link InterceptorDispatch} modes. With {@code direct}, the stack dispatches through call sites shared by every
+ * method of every proxy and its profiles are megamorphic; with {@code trampoline}, each method has its own. Inlining
+ * shows in {@code gc.alloc.rate.norm}: when the whole stack is inlined its handlers are scalar-replaced and the call
+ * does not allocate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MegamorphicBenchmark {
+
+    private static final Class<?>[] SERVICES = { Service0.class, Service1.class, Service2.class, Service3.class,
+            Service4.class, Service5.class, Service6.class, Service7.class, Service8.class, Service9.class,
+            Service10.class, Service11.class };
+
+    private static final int POLLUTION_CALLS = 20_000;
+
+    @Param({ "direct", "trampoline" })
+    public String dispatch;
+
+    @Param({ "1", "12" })
+    public int classes;
+
+    public int a = 1;
+
+    private CountingService service;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        InterceptorDispatch interceptorDispatch = InterceptorDispatch.valueOf(dispatch.toUpperCase());
+        Interceptor interceptor = Interceptors.stack(new PlusOne(), new PlusTwo(), new PlusThree());
+        CountingService[] services = new CountingService[classes];
+        for (int i = 0; i < classes; i++) {
+            services[i] = proxy(SERVICES[i], interceptor, interceptorDispatch);
+        }
+        // profile every proxy class before the measured one gets compiled
+        for (int n = 0; n < POLLUTION_CALLS; n++) {
+            for (CountingService s : services) {
+                a += s.count(n) & 1;
+            }
+        }
+        service = services[0];
+    }
+
+    @Benchmark
+    public int count() {
+        return service.count(a);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> CountingService proxy(Class<T> serviceClass, Interceptor interceptor,
+            InterceptorDispatch dispatch) throws ReflectiveOperationException {
+        ProxyClassLoader classLoader = new ProxyClassLoader(serviceClass.getClassLoader());
+        ProxyClass<T> proxyClass = ProxyBuilder.build(classLoader, serviceClass,
+                new Class<?>[] { CountingService.class }, m -> true, InterceptorBinding.FIELD, dispatch);
+        Proxy proxy = proxyClass.newInstance(serviceClass.getDeclaredConstructor().newInstance());
+        proxy.setInterceptor(interceptor);
+        return (CountingService) proxy;
+    }
+
+    public interface CountingService {
+        int count(int a);
+    }
+
+    public static class Service0 implements CountingService {
+        @Override
+        public int count(int a) {
+            return a;
+        }
+    }
+
+    public static class Service1 implements CountingService {
+        @Override
+        public int count(int a) {
+            return a + 1;
+        }
+    }
+
+    public static class Service2 implements CountingService {
+        @Override
+        public int count(int a) {
+            return a + 2;
+        }
+    }
+
+    public static class Service3 implements CountingService {
+        @Override
+        public int count(int a) {
+            return a + 3;
+        }
+    }
+
+    public static class Service4 implements CountingService {
+        @Override
+        public int count(int a) {
+            return a + 4;
+        }
+    }
+
+    public static class Service5 implements CountingService {
+        @Override
+        public int count(int a) {
+            return a + 5;
+        }
+    }
+
+    public static class Service6 implements CountingService {
+        @Override
+        public int count(int a) {
+            return a + 6;
+        }
+    }
+
+    public static class Service7 implements CountingService {
+        @Override
+        public int count(int a) {
+            return a + 7;
+        }
+    }
+
+    public static class Service8 implements CountingService {
+        @Override
+        public int count(int a) {
+            return a + 8;
+        }
+    }
+
+    public static class Service9 implements CountingService {
+        @Override
+        public int count(int a) {
+            return a + 9;
+        }
+    }
+
+    public static class Service10 implements CountingService {
+        @Override
+        public int count(int a) {
+            return a + 10;
+        }
+    }
+
+    public static class Service11 implements CountingService {
+        @Override
+        public int count(int a) {
+            return a + 11;
+        }
+    }
+
+    // Three interceptor types, more than a bimorphic call site inlines.
+
+    private static final class PlusOne implements Interceptor {
+        @Override
+        public <T, E extends Throwable> T onCall(CallContext context, InterceptionHandler<T> handler) throws E {
+            return handler.invoke();
+        }
+
+        @Override
+        public <E extends Throwable> int onCall(CallContext context, IntInterceptionHandler handler) throws E {
+            return handler.invoke() + 1;
+        }
+    }
+
+    private static final class PlusTwo implements Interceptor {
+        @Override
+        public <T, E extends Throwable> T onCall(CallContext context, InterceptionHandler<T> handler) throws E {
+            return handler.invoke();
+        }
+
+        @Override
+        public <E extends Throwable> int onCall(CallContext context, IntInterceptionHandler handler) throws E {
+            return handler.invoke() + 2;
+        }
+    }
+
+    private static final class PlusThree implements Interceptor {
+        @Override
+        public <T, E extends Throwable> T onCall(CallContext context, InterceptionHandler<T> handler) throws E {
+            return handler.invoke();
+        }
+
+        @Override
+        public <E extends Throwable> int onCall(CallContext context, IntInterceptionHandler handler) throws E {
+            return handler.invoke() + 3;
+        }
+    }
+
+}
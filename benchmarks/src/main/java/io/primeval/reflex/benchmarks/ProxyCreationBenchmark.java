@@ -0,0 +1,62 @@
+package io.primeval.reflex.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.primeval.reflex.proxy.bytecode.Proxy;
+import io.primeval.reflex.proxy.bytecode.ProxyBuilder;
+import io.primeval.reflex.proxy.bytecode.ProxyClass;
+import io.primeval.reflex.proxy.bytecode.ProxyClassLoader;
+
+/**
+ * Cost of wrapping targets in proxies of an already generated proxy class, one at a time and in batches of
+ * {@link #BATCH_SIZE}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ProxyCreationBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    private ProxyClass<BenchServiceImpl> proxyClass;
+    private BenchServiceImpl target;
+    private List<BenchServiceImpl> targets;
+
+    @Setup
+    public void setup() {
+        proxyClass = ProxyBuilder.build(new ProxyClassLoader(BenchServiceImpl.class.getClassLoader()),
+                BenchServiceImpl.class, new Class<?>[] { BenchService.class });
+        target = new BenchServiceImpl();
+        targets = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            targets.add(new BenchServiceImpl());
+        }
+    }
+
+    @Benchmark
+    public Proxy newInstance() {
+        return proxyClass.newInstance(target);
+    }
+
+    @Benchmark
+    public List<Proxy> newInstances() {
+        return proxyClass.newInstances(targets);
+    }
+
+}
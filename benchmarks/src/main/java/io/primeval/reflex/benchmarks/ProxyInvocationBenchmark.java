@@ -0,0 +1,21 @@
+package io.primeval.reflex.benchmarks;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import io.primeval.reflex.proxy.Interceptor;
+
+/**
+ * Cost of a call through each proxy implementation with {@link Interceptor#DEFAULT}, compared to a direct call.
+ */
+public class ProxyInvocationBenchmark extends AbstractInvocationBenchmark {
+
+    @Param({ "direct", "jdk", "theoretical", "reflex", "reflex-constant" })
+    public String impl;
+
+    @Setup
+    public void setup() {
+        service = create(impl, Interceptor.DEFAULT);
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.acme;
+
+@Proxied
+public class Counter implements Runnable {
+
+    private int count;
+
+    @Override
+    public void run() {
+        count++;
+    }
+
+    public int count() {
+        return count;
+    }
+
+}
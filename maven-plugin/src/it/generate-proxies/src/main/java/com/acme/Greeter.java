@@ -0,0 +1,10 @@
+package com.acme;
+
+public class Greeter implements Greeting {
+
+    @Override
+    public String greet(String name) {
+        return "Hello " + name;
+    }
+
+}
@@ -0,0 +1,7 @@
+package com.acme;
+
+public interface Greeting {
+
+    String greet(String name);
+
+}
@@ -0,0 +1,56 @@
+package com.acme;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import io.primeval.reflex.proxy.CallContext;
+import io.primeval.reflex.proxy.Interceptor;
+import io.primeval.reflex.proxy.bytecode.BytecodeCache;
+import io.primeval.reflex.proxy.bytecode.Proxy;
+import io.primeval.reflex.proxy.bytecode.ProxyBuilder;
+import io.primeval.reflex.proxy.bytecode.ProxyClassLoader;
+import io.primeval.reflex.proxy.handler.InterceptionHandler;
+
+public class GeneratedProxiesTest {
+
+    @Test
+    public void shouldDefineTheClassesGeneratedAtBuildTime() throws Exception {
+        // anything not generated at build time would be stored here
+        Path directory = Files.createTempDirectory("reflex-cache");
+        ProxyClassLoader classLoader = new ProxyClassLoader(GeneratedProxiesTest.class.getClassLoader(),
+                new BytecodeCache(directory));
+
+        Proxy greeter = ProxyBuilder.build(classLoader, Greeter.class, new Class[] { Greeting.class })
+                .newInstance(new Greeter());
+        greeter.setInterceptor(new Interceptor() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T, E extends Throwable> T onCall(CallContext context, InterceptionHandler<T> handler) throws E {
+                return (T) (handler.invoke() + "!");
+            }
+        });
+        assertEquals("Hello World!", ((Greeting) greeter).greet("World"));
+
+        Counter counter = new Counter();
+        Proxy proxy = ProxyBuilder.build(classLoader, Counter.class, new Class[] { Runnable.class })
+                .newInstance(counter);
+        ((Runnable) proxy).run();
+        assertEquals(1, counter.count());
+
+        assertArrayEquals(new Object[0], list(directory));
+    }
+
+    private static Object[] list(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(Path::getFileName).toArray();
+        }
+    }
+
+}
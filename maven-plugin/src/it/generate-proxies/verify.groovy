@@ -0,0 +1,11 @@
+def bytecode = new File(basedir, 'target/classes/META-INF/primeval-reflex/bytecode')
+assert bytecode.isDirectory()
+
+def classes = bytecode.list() as List
+// configured by target class
+assert classes.any { it.startsWith('com.acme.Greeter$Proxy$') }
+assert classes.any { it.startsWith('com.acme.Greeter$ProxyFactory$') }
+// found by annotation
+assert classes.any { it.startsWith('com.acme.Counter$Proxy$') }
+
+return true
@@ -0,0 +1,178 @@
+package io.primeval.reflex.maven;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+
+import io.primeval.reflex.proxy.bytecode.BytecodeCache;
+import io.primeval.reflex.proxy.bytecode.InterceptorBinding;
+import io.primeval.reflex.proxy.bytecode.InterceptorDispatch;
+import io.primeval.reflex.proxy.bytecode.ProxyBuilder;
+import io.primeval.reflex.proxy.bytecode.ProxyClassLoader;
+
+/**
+ * Generates proxy classes at build time, into the {@link BytecodeCache#RESOURCE_DIRECTORY} of the output directory,
+ * so that they are packaged with the classes they proxy.
+ * <p>
+ * At runtime, a {@link ProxyClassLoader} whose parent sees them defines them instead of generating them, as long as
+ * they were generated from the same target class and configuration, and by the same version of Primeval Reflex.
+ * Otherwise they are generated again, as without this plugin. All the methods of the target classes are intercepted.
+ */
+@Mojo(name = "generate-proxies", defaultPhase = LifecyclePhase.PROCESS_CLASSES, requiresDependencyResolution = ResolutionScope.RUNTIME, threadSafe = true)
+public final class GenerateProxiesMojo extends AbstractMojo {
+
+    @Parameter(defaultValue = "${project}", readonly = true, required = true)
+    private MavenProject project;
+
+    /**
+     * The classes to proxy.
+     */
+    @Parameter
+    private ProxyDefinition[] proxies = {};
+
+    /**
+     * The fully qualified names of annotations: the classes of the output directory annotated with any of them are
+     * proxied, with all their interfaces. The annotations must be retained at runtime.
+     */
+    @Parameter
+    private String[] annotations = {};
+
+    @Parameter(property = "primeval-reflex.binding", defaultValue = "FIELD")
+    private InterceptorBinding binding;
+
+    @Parameter(property = "primeval-reflex.dispatch", defaultValue = "DIRECT")
+    private InterceptorDispatch dispatch;
+
+    @Parameter(property = "primeval-reflex.skip", defaultValue = "false")
+    private boolean skip;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (skip) {
+            getLog().info("Skipping proxy generation");
+            return;
+        }
+        Path outputDirectory = Paths.get(project.getBuild().getOutputDirectory());
+        Path resourceDirectory = outputDirectory.resolve(BytecodeCache.RESOURCE_DIRECTORY);
+        try {
+            // classes of a previous build, possibly no longer proxied
+            deleteDirectory(resourceDirectory);
+
+            try (URLClassLoader classLoader = newClassLoader()) {
+                Map<Class<?>, Class<?>[]> classesToProxy = new LinkedHashMap<>();
+                for (ProxyDefinition proxy : proxies) {
+                    Class<?> targetClass = loadClass(classLoader, proxy.targetClass);
+                    classesToProxy.put(targetClass, proxy.interfaces == null || proxy.interfaces.length == 0
+                            ? targetClass.getInterfaces() : loadClasses(classLoader, proxy.interfaces));
+                }
+                for (Class<?> targetClass : findAnnotatedClasses(classLoader, outputDirectory)) {
+                    classesToProxy.putIfAbsent(targetClass, targetClass.getInterfaces());
+                }
+
+                ProxyClassLoader proxyClassLoader = new ProxyClassLoader(classLoader,
+                        new BytecodeCache(resourceDirectory));
+                for (Map.Entry<Class<?>, Class<?>[]> classToProxy : classesToProxy.entrySet()) {
+                    String targetName = classToProxy.getKey().getName();
+                    ProxyBuilder.build(proxyClassLoader, classToProxy.getKey(), classToProxy.getValue(), m -> true,
+                            binding, dispatch, ForkJoinPool.commonPool(),
+                            report -> getLog().info("Generated proxy class of " + targetName + ": " + report));
+                }
+            }
+        } catch (IOException | DependencyResolutionRequiredException | RuntimeException e) {
+            throw new MojoExecutionException("Could not generate proxy classes", e);
+        }
+    }
+
+    // Parent-first, so that project classes see the Primeval Reflex classes the generators were loaded with.
+    private URLClassLoader newClassLoader() throws DependencyResolutionRequiredException, MalformedURLException {
+        List<String> elements = project.getRuntimeClasspathElements();
+        URL[] urls = new URL[elements.size()];
+        for (int i = 0; i < urls.length; i++) {
+            urls[i] = Paths.get(elements.get(i)).toUri().toURL();
+        }
+        return new URLClassLoader(urls, getClass().getClassLoader());
+    }
+
+    private List<Class<?>> findAnnotatedClasses(ClassLoader classLoader, Path outputDirectory)
+            throws MojoExecutionException, IOException {
+        if (annotations.length == 0 || !Files.isDirectory(outputDirectory)) {
+            return new ArrayList<>();
+        }
+        List<Class<? extends Annotation>> annotationClasses = new ArrayList<>();
+        for (String annotation : annotations) {
+            annotationClasses.add(loadClass(classLoader, annotation).asSubclass(Annotation.class));
+        }
+
+        List<String> classNames;
+        try (Stream<Path> files = Files.walk(outputDirectory)) {
+            classNames = files.map(f -> outputDirectory.relativize(f).toString())
+                    .filter(f -> f.endsWith(".class") && !f.endsWith("-info.class"))
+                    .map(f -> f.substring(0, f.length() - ".class".length()).replace('\\', '/').replace('/', '.'))
+                    .collect(Collectors.toList());
+        }
+        List<Class<?>> annotatedClasses = new ArrayList<>();
+        for (String className : classNames) {
+            Class<?> clazz;
+            try {
+                clazz = Class.forName(className, false, classLoader);
+            } catch (ClassNotFoundException | LinkageError e) {
+                getLog().debug("Skipping " + className + ": " + e);
+                continue;
+            }
+            if (!clazz.isInterface() && annotationClasses.stream().anyMatch(clazz::isAnnotationPresent)) {
+                annotatedClasses.add(clazz);
+            }
+        }
+        return annotatedClasses;
+    }
+
+    private static Class<?>[] loadClasses(ClassLoader classLoader, String[] classNames)
+            throws MojoExecutionException {
+        Class<?>[] classes = new Class<?>[classNames.length];
+        for (int i = 0; i < classes.length; i++) {
+            classes[i] = loadClass(classLoader, classNames[i]);
+        }
+        return classes;
+    }
+
+    private static Class<?> loadClass(ClassLoader classLoader, String className) throws MojoExecutionException {
+        try {
+            return Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            throw new MojoExecutionException("Could not load class " + className, e);
+        }
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        if (Files.isDirectory(directory)) {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,24 @@
+package io.primeval.reflex.maven;
+
+/**
+ * A class to proxy, as configured in a {@code <proxy>} element of {@link GenerateProxiesMojo}.
+ */
+public final class ProxyDefinition {
+
+    /**
+     * The fully qualified name of the class to proxy.
+     */
+    String targetClass;
+
+    /**
+     * The fully qualified names of the interfaces of the proxy class, all the interfaces of the target class if none
+     * are given.
+     */
+    String[] interfaces;
+
+    @Override
+    public String toString() {
+        return targetClass;
+    }
+
+}
@@ -167,4 +167,143 @@ public interface ArgumentsTrait {
      */
     char charArg(String argName);
 
-}
\ No newline at end of file
+    /**
+     * <p>
+     * The object parameter at position {@code index} in {@code parameters()}. Resolve the index once, for instance with
+     * {@link io.primeval.reflex.proxy.CallContext#parameterIndex(String)}, to avoid looking arguments up by name on
+     * each call.
+     * </p>
+     * 
+     * @param <T>
+     *            The type of the parameter at {@code index}
+     * @param index
+     *            The argument index, as in the {@code parameters()} list.
+     * @throws IllegalArgumentException
+     *             if there is no Object parameter at {@code index} in this method.
+     * @return The value of the argument, for this specific method interception.
+     */
+    default <T> T objectArg(int index) {
+        return objectArg(ParameterIndexes.nameAt(parameters(), index, "Object"));
+    }
+
+    /**
+     * <p>
+     * The int parameter at position {@code index} in {@code parameters()}.
+     * </p>
+     * 
+     * @param index
+     *            The argument index, as in the {@code parameters()} list.
+     * @throws IllegalArgumentException
+     *             if there is no int parameter at {@code index} in this method.
+     * @return The value of the argument, for this specific method interception.
+     */
+    default int intArg(int index) {
+        return intArg(ParameterIndexes.nameAt(parameters(), index, "int"));
+    }
+
+    /**
+     * <p>
+     * The short parameter at position {@code index} in {@code parameters()}.
+     * </p>
+     * 
+     * @param index
+     *            The argument index, as in the {@code parameters()} list.
+     * @throws IllegalArgumentException
+     *             if there is no short parameter at {@code index} in this method.
+     * @return The value of the argument, for this specific method interception.
+     */
+    default short shortArg(int index) {
+        return shortArg(ParameterIndexes.nameAt(parameters(), index, "short"));
+    }
+
+    /**
+     * <p>
+     * The long parameter at position {@code index} in {@code parameters()}.
+     * </p>
+     * 
+     * @param index
+     *            The argument index, as in the {@code parameters()} list.
+     * @throws IllegalArgumentException
+     *             if there is no long parameter at {@code index} in this method.
+     * @return The value of the argument, for this specific method interception.
+     */
+    default long longArg(int index) {
+        return longArg(ParameterIndexes.nameAt(parameters(), index, "long"));
+    }
+
+    /**
+     * <p>
+     * The byte parameter at position {@code index} in {@code parameters()}.
+     * </p>
+     * 
+     * @param index
+     *            The argument index, as in the {@code parameters()} list.
+     * @throws IllegalArgumentException
+     *             if there is no byte parameter at {@code index} in this method.
+     * @return The value of the argument, for this specific method interception.
+     */
+    default byte byteArg(int index) {
+        return byteArg(ParameterIndexes.nameAt(parameters(), index, "byte"));
+    }
+
+    /**
+     * <p>
+     * The boolean parameter at position {@code index} in {@code parameters()}.
+     * </p>
+     * 
+     * @param index
+     *            The argument index, as in the {@code parameters()} list.
+     * @throws IllegalArgumentException
+     *             if there is no boolean parameter at {@code index} in this method.
+     * @return The value of the argument, for this specific method interception.
+     */
+    default boolean booleanArg(int index) {
+        return booleanArg(ParameterIndexes.nameAt(parameters(), index, "boolean"));
+    }
+
+    /**
+     * <p>
+     * The float parameter at position {@code index} in {@code parameters()}.
+     * </p>
+     * 
+     * @param index
+     *            The argument index, as in the {@code parameters()} list.
+     * @throws IllegalArgumentException
+     *             if there is no float parameter at {@code index} in this method.
+     * @return The value of the argument, for this specific method interception.
+     */
+    default float floatArg(int index) {
+        return floatArg(ParameterIndexes.nameAt(parameters(), index, "float"));
+    }
+
+    /**
+     * <p>
+     * The double parameter at position {@code index} in {@code parameters()}.
+     * </p>
+     * 
+     * @param index
+     *            The argument index, as in the {@code parameters()} list.
+     * @throws IllegalArgumentException
+     *             if there is no double parameter at {@code index} in this method.
+     * @return The value of the argument, for this specific method interception.
+     */
+    default double doubleArg(int index) {
+        return doubleArg(ParameterIndexes.nameAt(parameters(), index, "double"));
+    }
+
+    /**
+     * <p>
+     * The char parameter at position {@code index} in {@code parameters()}.
+     * </p>
+     * 
+     * @param index
+     *            The argument index, as in the {@code parameters()} list.
+     * @throws IllegalArgumentException
+     *             if there is no char parameter at {@code index} in this method.
+     * @return The value of the argument, for this specific method interception.
+     */
+    default char charArg(int index) {
+        return charArg(ParameterIndexes.nameAt(parameters(), index, "char"));
+    }
+
+}
@@ -255,4 +255,160 @@ public interface ArgumentsUpdater extends ArgumentsTrait {
      */
     ArgumentsUpdater setCharArg(String argName, char newValue);
 
-}
\ No newline at end of file
+    /**
+     * <p>
+     * Set the object parameter at position {@code index} in {@code parameters()}. It is up to the aspect writer to make
+     * sure the object is assignable to type {@code T}.
+     * </p>
+     * 
+     * @param <T>
+     *            The type of the parameter at {@code index}
+     * @param index
+     *            The argument index, as in the {@code parameters()} list.
+     * @param newValue
+     *            The new value, must be of a type assignable to the parameter at {@literal index}
+     * @throws IllegalArgumentException
+     *             if there is no Object parameter at {@code index} in this method.
+     * @return This updated {@link ArgumentsUpdater} instance, for method chaining.
+     */
+    default <T> ArgumentsUpdater setObjectArg(int index, T newValue) {
+        return setObjectArg(ParameterIndexes.nameAt(parameters(), index, "Object"), newValue);
+    }
+
+    /**
+     * <p>
+     * Set the int parameter at position {@code index} in {@code parameters()}.
+     * </p>
+     * 
+     * @param index
+     *            The argument index, as in the {@code parameters()} list.
+     * @param newValue
+     *            The new value
+     * @throws IllegalArgumentException
+     *             if there is no int parameter at {@code index} in this method.
+     * @return This updated {@link ArgumentsUpdater} instance, for method chaining.
+     */
+    default ArgumentsUpdater setIntArg(int index, int newValue) {
+        return setIntArg(ParameterIndexes.nameAt(parameters(), index, "int"), newValue);
+    }
+
+    /**
+     * <p>
+     * Set the short parameter at position {@code index} in {@code parameters()}.
+     * </p>
+     * 
+     * @param index
+     *            The argument index, as in the {@code parameters()} list.
+     * @param newValue
+     *            The new value
+     * @throws IllegalArgumentException
+     *             if there is no short parameter at {@code index} in this method.
+     * @return This updated {@link ArgumentsUpdater} instance, for method chaining.
+     */
+    default ArgumentsUpdater setShortArg(int index, short newValue) {
+        return setShortArg(ParameterIndexes.nameAt(parameters(), index, "short"), newValue);
+    }
+
+    /**
+     * <p>
+     * Set the long parameter at position {@code index} in {@code parameters()}.
+     * </p>
+     * 
+     * @param index
+     *            The argument index, as in the {@code parameters()} list.
+     * @param newValue
+     *            The new value
+     * @throws IllegalArgumentException
+     *             if there is no long parameter at {@code index} in this method.
+     * @return This updated {@link ArgumentsUpdater} instance, for method chaining.
+     */
+    default ArgumentsUpdater setLongArg(int index, long newValue) {
+        return setLongArg(ParameterIndexes.nameAt(parameters(), index, "long"), newValue);
+    }
+
+    /**
+     * <p>
+     * Set the byte parameter at position {@code index} in {@code parameters()}.
+     * </p>
+     * 
+     * @param index
+     *            The argument index, as in the {@code parameters()} list.
+     * @param newValue
+     *            The new value
+     * @throws IllegalArgumentException
+     *             if there is no byte parameter at {@code index} in this method.
+     * @return This updated {@link ArgumentsUpdater} instance, for method chaining.
+     */
+    default ArgumentsUpdater setByteArg(int index, byte newValue) {
+        return setByteArg(ParameterIndexes.nameAt(parameters(), index, "byte"), newValue);
+    }
+
+    /**
+     * <p>
+     * Set the boolean parameter at position {@code index} in {@code parameters()}.
+     * </p>
+     * 
+     * @param index
+     *            The argument index, as in the {@code parameters()} list.
+     * @param newValue
+     *            The new value
+     * @throws IllegalArgumentException
+     *             if there is no boolean parameter at {@code index} in this method.
+     * @return This updated {@link ArgumentsUpdater} instance, for method chaining.
+     */
+    default ArgumentsUpdater setBooleanArg(int index, boolean newValue) {
+        return setBooleanArg(ParameterIndexes.nameAt(parameters(), index, "boolean"), newValue);
+    }
+
+    /**
+     * <p>
+     * Set the float parameter at position {@code index} in {@code parameters()}.
+     * </p>
+     * 
+     * @param index
+     *            The argument index, as in the {@code parameters()} list.
+     * @param newValue
+     *            The new value
+     * @throws IllegalArgumentException
+     *             if there is no float parameter at {@code index} in this method.
+     * @return This updated {@link ArgumentsUpdater} instance, for method chaining.
+     */
+    default ArgumentsUpdater setFloatArg(int index, float newValue) {
+        return setFloatArg(ParameterIndexes.nameAt(parameters(), index, "float"), newValue);
+    }
+
+    /**
+     * <p>
+     * Set the double parameter at position {@code index} in {@code parameters()}.
+     * </p>
+     * 
+     * @param index
+     *            The argument index, as in the {@code parameters()} list.
+     * @param newValue
+     *            The new value
+     * @throws IllegalArgumentException
+     *             if there is no double parameter at {@code index} in this method.
+     * @return This updated {@link ArgumentsUpdater} instance, for method chaining.
+     */
+    default ArgumentsUpdater setDoubleArg(int index, double newValue) {
+        return setDoubleArg(ParameterIndexes.nameAt(parameters(), index, "double"), newValue);
+    }
+
+    /**
+     * <p>
+     * Set the char parameter at position {@code index} in {@code parameters()}.
+     * </p>
+     * 
+     * @param index
+     *            The argument index, as in the {@code parameters()} list.
+     * @param newValue
+     *            The new value
+     * @throws IllegalArgumentException
+     *             if there is no char parameter at {@code index} in this method.
+     * @return This updated {@link ArgumentsUpdater} instance, for method chaining.
+     */
+    default ArgumentsUpdater setCharArg(int index, char newValue) {
+        return setCharArg(ParameterIndexes.nameAt(parameters(), index, "char"), newValue);
+    }
+
+}
@@ -0,0 +1,21 @@
+package io.primeval.reflex.arguments;
+
+import java.lang.reflect.Parameter;
+import java.util.List;
+
+/**
+ * Fallback for the index-based accessors of {@link ArgumentsTrait} and {@link ArgumentsUpdater}, for implementations
+ * that only support names. Generated arguments override them with direct field access.
+ */
+final class ParameterIndexes {
+
+    private ParameterIndexes() {
+    }
+
+    static String nameAt(List<Parameter> parameters, int index, String paramType) {
+        if (index < 0 || index >= parameters.size()) {
+            throw new IllegalArgumentException("No " + paramType + " parameter at index " + index);
+        }
+        return parameters.get(index).getName();
+    }
+}
@@ -0,0 +1,205 @@
+package io.primeval.reflex.proxy;
+
+import io.primeval.reflex.proxy.handler.BooleanInterceptionHandler;
+import io.primeval.reflex.proxy.handler.ByteInterceptionHandler;
+import io.primeval.reflex.proxy.handler.CharInterceptionHandler;
+import io.primeval.reflex.proxy.handler.DoubleInterceptionHandler;
+import io.primeval.reflex.proxy.handler.FloatInterceptionHandler;
+import io.primeval.reflex.proxy.handler.IntInterceptionHandler;
+import io.primeval.reflex.proxy.handler.InterceptionHandler;
+import io.primeval.reflex.proxy.handler.LongInterceptionHandler;
+import io.primeval.reflex.proxy.handler.ShortInterceptionHandler;
+import io.primeval.reflex.proxy.handler.VoidInterceptionHandler;
+
+/**
+ * <p>
+ * An {@link Interceptor} that runs code before a call, after it returns or after it throws, but never controls whether
+ * or how the call proceeds.
+ * </p>
+ * <p>
+ * Generated proxies recognize advices and call them directly around the delegate call: no
+ * {@link InterceptionHandler} is allocated and primitive results are passed unboxed. Advices do not see the call
+ * arguments; use a plain {@link Interceptor} to read or replace them. Anywhere else, for instance when stacked with
+ * other interceptors, an advice behaves as the {@code onCall} methods below describe.
+ * </p>
+ */
+public interface Advice extends Interceptor {
+
+    default void before(CallContext context) {
+    }
+
+    default void afterReturning(CallContext context) {
+    }
+
+    default void afterReturning(CallContext context, Object result) {
+    }
+
+    default void afterReturning(CallContext context, boolean result) {
+    }
+
+    default void afterReturning(CallContext context, byte result) {
+    }
+
+    default void afterReturning(CallContext context, char result) {
+    }
+
+    default void afterReturning(CallContext context, short result) {
+    }
+
+    default void afterReturning(CallContext context, int result) {
+    }
+
+    default void afterReturning(CallContext context, long result) {
+    }
+
+    default void afterReturning(CallContext context, float result) {
+    }
+
+    default void afterReturning(CallContext context, double result) {
+    }
+
+    /**
+     * Called when the call throws, before {@code exception} is rethrown.
+     */
+    default void afterThrowing(CallContext context, Throwable exception) {
+    }
+
+    @Override
+    default <E extends Throwable> void onCall(CallContext context, VoidInterceptionHandler handler) throws E {
+        before(context);
+        try {
+            handler.invoke();
+        } catch (Throwable t) {
+            afterThrowing(context, t);
+            throw t;
+        }
+        afterReturning(context);
+    }
+
+    @Override
+    default <T, E extends Throwable> T onCall(CallContext context, InterceptionHandler<T> handler) throws E {
+        before(context);
+        T result;
+        try {
+            result = handler.invoke();
+        } catch (Throwable t) {
+            afterThrowing(context, t);
+            throw t;
+        }
+        afterReturning(context, result);
+        return result;
+    }
+
+    @Override
+    default <E extends Throwable> boolean onCall(CallContext context, BooleanInterceptionHandler handler) throws E {
+        before(context);
+        boolean result;
+        try {
+            result = handler.invoke();
+        } catch (Throwable t) {
+            afterThrowing(context, t);
+            throw t;
+        }
+        afterReturning(context, result);
+        return result;
+    }
+
+    @Override
+    default <E extends Throwable> byte onCall(CallContext context, ByteInterceptionHandler handler) throws E {
+        before(context);
+        byte result;
+        try {
+            result = handler.invoke();
+        } catch (Throwable t) {
+            afterThrowing(context, t);
+            throw t;
+        }
+        afterReturning(context, result);
+        return result;
+    }
+
+    @Override
+    default <E extends Throwable> char onCall(CallContext context, CharInterceptionHandler handler) throws E {
+        before(context);
+        char result;
+        try {
+            result = handler.invoke();
+        } catch (Throwable t) {
+            afterThrowing(context, t);
+            throw t;
+        }
+        afterReturning(context, result);
+        return result;
+    }
+
+    @Override
+    default <E extends Throwable> short onCall(CallContext context, ShortInterceptionHandler handler) throws E {
+        before(context);
+        short result;
+        try {
+            result = handler.invoke();
+        } catch (Throwable t) {
+            afterThrowing(context, t);
+            throw t;
+        }
+        afterReturning(context, result);
+        return result;
+    }
+
+    @Override
+    default <E extends Throwable> int onCall(CallContext context, IntInterceptionHandler handler) throws E {
+        before(context);
+        int result;
+        try {
+            result = handler.invoke();
+        } catch (Throwable t) {
+            afterThrowing(context, t);
+            throw t;
+        }
+        afterReturning(context, result);
+        return result;
+    }
+
+    @Override
+    default <E extends Throwable> long onCall(CallContext context, LongInterceptionHandler handler) throws E {
+        before(context);
+        long result;
+        try {
+            result = handler.invoke();
+        } catch (Throwable t) {
+            afterThrowing(context, t);
+            throw t;
+        }
+        afterReturning(context, result);
+        return result;
+    }
+
+    @Override
+    default <E extends Throwable> float onCall(CallContext context, FloatInterceptionHandler handler) throws E {
+        before(context);
+        float result;
+        try {
+            result = handler.invoke();
+        } catch (Throwable t) {
+            afterThrowing(context, t);
+            throw t;
+        }
+        afterReturning(context, result);
+        return result;
+    }
+
+    @Override
+    default <E extends Throwable> double onCall(CallContext context, DoubleInterceptionHandler handler) throws E {
+        before(context);
+        double result;
+        try {
+            result = handler.invoke();
+        } catch (Throwable t) {
+            afterThrowing(context, t);
+            throw t;
+        }
+        afterReturning(context, result);
+        return result;
+    }
+
+}
@@ -1,9 +1,12 @@
 package io.primeval.reflex.proxy;
 
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * <p>
@@ -27,6 +30,8 @@ public final class CallContext {
 
     public final List<Parameter> parameters;
 
+    private final ConcurrentMap<Class<?>, Annotation[]> annotationsByType = new ConcurrentHashMap<>(4);
+
     public CallContext(Class<?> target, Method method, List<Parameter> parameters) {
         super();
         this.target = target;
@@ -34,4 +39,45 @@ public final class CallContext {
         this.parameters = Collections.unmodifiableList(parameters);
     }
 
+    /**
+     * The index of the parameter named {@code parameterName} in {@link #parameters}. Resolve it once and use the
+     * index-based accessors of {@link io.primeval.reflex.arguments.Arguments} to avoid a lookup by name on each call.
+     * 
+     * @param parameterName
+     *            the parameter name.
+     * @return the parameter index.
+     * @throws IllegalArgumentException
+     *             if the method has no parameter named {@code parameterName}.
+     */
+    public int parameterIndex(String parameterName) {
+        for (int i = 0; i < parameters.size(); i++) {
+            if (parameters.get(i).getName().equals(parameterName)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("No parameter named " + parameterName);
+    }
+
+    /**
+     * Same as {@link Method#getAnnotationsByType(Class)} on {@link #method}, but only resolved once per annotation
+     * type. The returned array is shared and must not be modified.
+     * 
+     * @param annotationType
+     *            the annotation type to look for.
+     * @return the annotations of that type on the method, possibly an empty array.
+     */
+    @SuppressWarnings("unchecked")
+    public <A extends Annotation> A[] getAnnotationsByType(Class<A> annotationType) {
+        Annotation[] annotations = annotationsByType.get(annotationType);
+        if (annotations == null) {
+            annotations = method.getAnnotationsByType(annotationType);
+            // ConcurrentHashMap#computeIfAbsent locks even when the value is present in Java 8.
+            Annotation[] previous = annotationsByType.putIfAbsent(annotationType, annotations);
+            if (previous != null) {
+                annotations = previous;
+            }
+        }
+        return (A[]) annotations;
+    }
+
 }
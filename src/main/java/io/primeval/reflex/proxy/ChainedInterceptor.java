@@ -0,0 +1,436 @@
+package io.primeval.reflex.proxy;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import io.primeval.reflex.arguments.Arguments;
+import io.primeval.reflex.proxy.handler.BooleanInterceptionHandler;
+import io.primeval.reflex.proxy.handler.ByteInterceptionHandler;
+import io.primeval.reflex.proxy.handler.CharInterceptionHandler;
+import io.primeval.reflex.proxy.handler.DoubleInterceptionHandler;
+import io.primeval.reflex.proxy.handler.FloatInterceptionHandler;
+import io.primeval.reflex.proxy.handler.IntInterceptionHandler;
+import io.primeval.reflex.proxy.handler.InterceptionHandler;
+import io.primeval.reflex.proxy.handler.LongInterceptionHandler;
+import io.primeval.reflex.proxy.handler.ShortInterceptionHandler;
+import io.primeval.reflex.proxy.handler.VoidInterceptionHandler;
+
+/**
+ * An Interceptor composed of several Interceptors, like {@link StackedInterceptor}, but which only allocates one
+ * handler per call whatever the number of interceptors. Build with {@link Interceptors#chain(Interceptor...)}.
+ * <p>
+ * The handler carries the current position in the chain and the current {@link Arguments}; it is updated before
+ * calling the next interceptor and restored when that call returns or throws. Each interceptor can therefore replace
+ * the arguments and invoke the handler several times, but must not use the handler once its {@code onCall} method has
+ * returned, nor from another thread.
+ */
+final class ChainedInterceptor implements Interceptor {
+
+    private final Interceptor[] interceptors;
+    private String repr;
+
+    public ChainedInterceptor(Interceptor[] interceptors) {
+        if (interceptors == null || interceptors.length == 0) {
+            throw new IllegalArgumentException("interceptors must be non-empty");
+        }
+        this.interceptors = interceptors;
+    }
+
+    @Override
+    public String toString() {
+        if (repr == null) {
+            repr = new StringBuilder().append("Chain{").append(String.join(",", new Iterable<String>() {
+                public Iterator<String> iterator() {
+                    return Stream.of(interceptors).map(Object::toString).iterator();
+                }
+            })).append('}').toString();
+        }
+        return repr;
+
+    }
+
+    // Only keeps the interceptors that apply to the method.
+    @Override
+    public Interceptor specialize(CallContext context) {
+        return Interceptors.chain(Interceptors.specializeAll(interceptors, context));
+    }
+
+    @Override
+    public <E extends Throwable> void onCall(CallContext context, VoidInterceptionHandler handler) throws E {
+        new VoidChain(interceptors, context, handler).proceed();
+    }
+
+    @Override
+    public <T, E extends Throwable> T onCall(CallContext context, InterceptionHandler<T> handler) throws E {
+        return new ObjectChain<>(interceptors, context, handler).proceed();
+    }
+
+    @Override
+    public <E extends Throwable> boolean onCall(CallContext context, BooleanInterceptionHandler handler) throws E {
+        return new BooleanChain(interceptors, context, handler).proceed();
+    }
+
+    @Override
+    public <E extends Throwable> byte onCall(CallContext context, ByteInterceptionHandler handler) throws E {
+        return new ByteChain(interceptors, context, handler).proceed();
+    }
+
+    @Override
+    public <E extends Throwable> char onCall(CallContext context, CharInterceptionHandler handler) throws E {
+        return new CharChain(interceptors, context, handler).proceed();
+    }
+
+    @Override
+    public <E extends Throwable> short onCall(CallContext context, ShortInterceptionHandler handler) throws E {
+        return new ShortChain(interceptors, context, handler).proceed();
+    }
+
+    @Override
+    public <E extends Throwable> int onCall(CallContext context, IntInterceptionHandler handler) throws E {
+        return new IntChain(interceptors, context, handler).proceed();
+    }
+
+    @Override
+    public <E extends Throwable> long onCall(CallContext context, LongInterceptionHandler handler) throws E {
+        return new LongChain(interceptors, context, handler).proceed();
+    }
+
+    @Override
+    public <E extends Throwable> float onCall(CallContext context, FloatInterceptionHandler handler) throws E {
+        return new FloatChain(interceptors, context, handler).proceed();
+    }
+
+    @Override
+    public <E extends Throwable> double onCall(CallContext context, DoubleInterceptionHandler handler) throws E {
+        return new DoubleChain(interceptors, context, handler).proceed();
+    }
+
+    private static abstract class Chain {
+        final Interceptor[] interceptors;
+        final CallContext context;
+        int position;
+        Arguments arguments;
+
+        Chain(Interceptor[] interceptors, CallContext context, Arguments arguments) {
+            this.interceptors = interceptors;
+            this.context = context;
+            this.arguments = arguments;
+        }
+
+        public final Arguments getArguments() {
+            return arguments;
+        }
+    }
+
+    private static final class VoidChain extends Chain implements VoidInterceptionHandler {
+        private final VoidInterceptionHandler terminal;
+
+        VoidChain(Interceptor[] interceptors, CallContext context, VoidInterceptionHandler terminal) {
+            super(interceptors, context, terminal.getArguments());
+            this.terminal = terminal;
+        }
+
+        void proceed() {
+            interceptors[0].onCall(context, this);
+        }
+
+        @Override
+        public <E extends Throwable> void invoke(Arguments arguments) throws E {
+            int next = position + 1;
+            if (next == interceptors.length) {
+                terminal.invoke(arguments);
+                return;
+            }
+            int current = position;
+            Arguments currentArguments = this.arguments;
+            position = next;
+            this.arguments = arguments;
+            try {
+                interceptors[next].onCall(context, this);
+            } finally {
+                position = current;
+                this.arguments = currentArguments;
+            }
+        }
+    }
+
+    private static final class ObjectChain<T> extends Chain implements InterceptionHandler<T> {
+        private final InterceptionHandler<T> terminal;
+
+        ObjectChain(Interceptor[] interceptors, CallContext context, InterceptionHandler<T> terminal) {
+            super(interceptors, context, terminal.getArguments());
+            this.terminal = terminal;
+        }
+
+        T proceed() {
+            return interceptors[0].onCall(context, this);
+        }
+
+        @Override
+        public <E extends Throwable> T invoke(Arguments arguments) throws E {
+            int next = position + 1;
+            if (next == interceptors.length) {
+                return terminal.invoke(arguments);
+            }
+            int current = position;
+            Arguments currentArguments = this.arguments;
+            position = next;
+            this.arguments = arguments;
+            try {
+                return interceptors[next].onCall(context, this);
+            } finally {
+                position = current;
+                this.arguments = currentArguments;
+            }
+        }
+    }
+
+    private static final class BooleanChain extends Chain implements BooleanInterceptionHandler {
+        private final BooleanInterceptionHandler terminal;
+
+        BooleanChain(Interceptor[] interceptors, CallContext context, BooleanInterceptionHandler terminal) {
+            super(interceptors, context, terminal.getArguments());
+            this.terminal = terminal;
+        }
+
+        boolean proceed() {
+            return interceptors[0].onCall(context, this);
+        }
+
+        @Override
+        public <E extends Throwable> boolean invoke(Arguments arguments) throws E {
+            int next = position + 1;
+            if (next == interceptors.length) {
+                return terminal.invoke(arguments);
+            }
+            int current = position;
+            Arguments currentArguments = this.arguments;
+            position = next;
+            this.arguments = arguments;
+            try {
+                return interceptors[next].onCall(context, this);
+            } finally {
+                position = current;
+                this.arguments = currentArguments;
+            }
+        }
+    }
+
+    private static final class ByteChain extends Chain implements ByteInterceptionHandler {
+        private final ByteInterceptionHandler terminal;
+
+        ByteChain(Interceptor[] interceptors, CallContext context, ByteInterceptionHandler terminal) {
+            super(interceptors, context, terminal.getArguments());
+            this.terminal = terminal;
+        }
+
+        byte proceed() {
+            return interceptors[0].onCall(context, this);
+        }
+
+        @Override
+        public <E extends Throwable> byte invoke(Arguments arguments) throws E {
+            int next = position + 1;
+            if (next == interceptors.length) {
+                return terminal.invoke(arguments);
+            }
+            int current = position;
+            Arguments currentArguments = this.arguments;
+            position = next;
+            this.arguments = arguments;
+            try {
+                return interceptors[next].onCall(context, this);
+            } finally {
+                position = current;
+                this.arguments = currentArguments;
+            }
+        }
+    }
+
+    private static final class CharChain extends Chain implements CharInterceptionHandler {
+        private final CharInterceptionHandler terminal;
+
+        CharChain(Interceptor[] interceptors, CallContext context, CharInterceptionHandler terminal) {
+            super(interceptors, context, terminal.getArguments());
+            this.terminal = terminal;
+        }
+
+        char proceed() {
+            return interceptors[0].onCall(context, this);
+        }
+
+        @Override
+        public <E extends Throwable> char invoke(Arguments arguments) throws E {
+            int next = position + 1;
+            if (next == interceptors.length) {
+                return terminal.invoke(arguments);
+            }
+            int current = position;
+            Arguments currentArguments = this.arguments;
+            position = next;
+            this.arguments = arguments;
+            try {
+                return interceptors[next].onCall(context, this);
+            } finally {
+                position = current;
+                this.arguments = currentArguments;
+            }
+        }
+    }
+
+    private static final class ShortChain extends Chain implements ShortInterceptionHandler {
+        private final ShortInterceptionHandler terminal;
+
+        ShortChain(Interceptor[] interceptors, CallContext context, ShortInterceptionHandler terminal) {
+            super(interceptors, context, terminal.getArguments());
+            this.terminal = terminal;
+        }
+
+        short proceed() {
+            return interceptors[0].onCall(context, this);
+        }
+
+        @Override
+        public <E extends Throwable> short invoke(Arguments arguments) throws E {
+            int next = position + 1;
+            if (next == interceptors.length) {
+                return terminal.invoke(arguments);
+            }
+            int current = position;
+            Arguments currentArguments = this.arguments;
+            position = next;
+            this.arguments = arguments;
+            try {
+                return interceptors[next].onCall(context, this);
+            } finally {
+                position = current;
+                this.arguments = currentArguments;
+            }
+        }
+    }
+
+    private static final class IntChain extends Chain implements IntInterceptionHandler {
+        private final IntInterceptionHandler terminal;
+
+        IntChain(Interceptor[] interceptors, CallContext context, IntInterceptionHandler terminal) {
+            super(interceptors, context, terminal.getArguments());
+            this.terminal = terminal;
+        }
+
+        int proceed() {
+            return interceptors[0].onCall(context, this);
+        }
+
+        @Override
+        public <E extends Throwable> int invoke(Arguments arguments) throws E {
+            int next = position + 1;
+            if (next == interceptors.length) {
+                return terminal.invoke(arguments);
+            }
+            int current = position;
+            Arguments currentArguments = this.arguments;
+            position = next;
+            this.arguments = arguments;
+            try {
+                return interceptors[next].onCall(context, this);
+            } finally {
+                position = current;
+                this.arguments = currentArguments;
+            }
+        }
+    }
+
+    private static final class LongChain extends Chain implements LongInterceptionHandler {
+        private final LongInterceptionHandler terminal;
+
+        LongChain(Interceptor[] interceptors, CallContext context, LongInterceptionHandler terminal) {
+            super(interceptors, context, terminal.getArguments());
+            this.terminal = terminal;
+        }
+
+        long proceed() {
+            return interceptors[0].onCall(context, this);
+        }
+
+        @Override
+        public <E extends Throwable> long invoke(Arguments arguments) throws E {
+            int next = position + 1;
+            if (next == interceptors.length) {
+                return terminal.invoke(arguments);
+            }
+            int current = position;
+            Arguments currentArguments = this.arguments;
+            position = next;
+            this.arguments = arguments;
+            try {
+                return interceptors[next].onCall(context, this);
+            } finally {
+                position = current;
+                this.arguments = currentArguments;
+            }
+        }
+    }
+
+    private static final class FloatChain extends Chain implements FloatInterceptionHandler {
+        private final FloatInterceptionHandler terminal;
+
+        FloatChain(Interceptor[] interceptors, CallContext context, FloatInterceptionHandler terminal) {
+            super(interceptors, context, terminal.getArguments());
+            this.terminal = terminal;
+        }
+
+        float proceed() {
+            return interceptors[0].onCall(context, this);
+        }
+
+        @Override
+        public <E extends Throwable> float invoke(Arguments arguments) throws E {
+            int next = position + 1;
+            if (next == interceptors.length) {
+                return terminal.invoke(arguments);
+            }
+            int current = position;
+            Arguments currentArguments = this.arguments;
+            position = next;
+            this.arguments = arguments;
+            try {
+                return interceptors[next].onCall(context, this);
+            } finally {
+                position = current;
+                this.arguments = currentArguments;
+            }
+        }
+    }
+
+    private static final class DoubleChain extends Chain implements DoubleInterceptionHandler {
+        private final DoubleInterceptionHandler terminal;
+
+        DoubleChain(Interceptor[] interceptors, CallContext context, DoubleInterceptionHandler terminal) {
+            super(interceptors, context, terminal.getArguments());
+            this.terminal = terminal;
+        }
+
+        double proceed() {
+            return interceptors[0].onCall(context, this);
+        }
+
+        @Override
+        public <E extends Throwable> double invoke(Arguments arguments) throws E {
+            int next = position + 1;
+            if (next == interceptors.length) {
+                return terminal.invoke(arguments);
+            }
+            int current = position;
+            Arguments currentArguments = this.arguments;
+            position = next;
+            this.arguments = arguments;
+            try {
+                return interceptors[next].onCall(context, this);
+            } finally {
+                position = current;
+                this.arguments = currentArguments;
+            }
+        }
+    }
+
+}
@@ -13,6 +13,20 @@ import io.primeval.reflex.proxy.handler.VoidInterceptionHandler;
 
 public interface Interceptor {
 
+    /**
+     * Called once per intercepted method when this interceptor is set on a proxy, before any call. The proxy keeps the
+     * result for that method, so what does not change between calls (annotation values, argument indexes, metrics...)
+     * can be computed here rather than on each call.
+     * 
+     * @param context
+     *            the call context of the method.
+     * @return the interceptor to use for the method, or {@code null} or {@link #DEFAULT} if this interceptor does not
+     *         apply to it, in which case the proxy calls the method directly. Returns {@code this} by default.
+     */
+    default Interceptor specialize(CallContext context) {
+        return this;
+    }
+
     <T, E extends Throwable> T onCall(CallContext context, InterceptionHandler<T> handler) throws E;
 
     default <E extends Throwable> void onCall(CallContext context, VoidInterceptionHandler handler) throws E {
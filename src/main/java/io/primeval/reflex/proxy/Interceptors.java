@@ -12,6 +12,27 @@ public final class Interceptors {
     private Interceptors() {
     }
 
+    /**
+     * @return {@code interceptor} specialized for {@code context} with {@link Interceptor#specialize(CallContext)},
+     *         or {@link Interceptor#DEFAULT} if it does not apply.
+     */
+    public static Interceptor specialize(Interceptor interceptor, CallContext context) {
+        Interceptor specialized = interceptor.specialize(context);
+        return specialized != null ? specialized : Interceptor.DEFAULT;
+    }
+
+    // The specializations of interceptors that apply to context, in order.
+    static List<Interceptor> specializeAll(Interceptor[] interceptors, CallContext context) {
+        List<Interceptor> specialized = new ArrayList<>(interceptors.length);
+        for (Interceptor interceptor : interceptors) {
+            Interceptor s = specialize(interceptor, context);
+            if (s != Interceptor.DEFAULT) {
+                specialized.add(s);
+            }
+        }
+        return specialized;
+    }
+
     public static Interceptor stack(Interceptor interceptor) {
         return interceptor;
     }
@@ -59,4 +80,45 @@ public final class Interceptors {
         }
     }
 
+    /**
+     * @return a copy of the interceptors composed by {@code interceptor}, in order, if it was built with one of the
+     *         {@code stack} methods, {@code null} otherwise.
+     */
+    public static Interceptor[] unstack(Interceptor interceptor) {
+        if (interceptor instanceof StackedInterceptor) {
+            return ((StackedInterceptor) interceptor).interceptors().clone();
+        }
+        return null;
+    }
+
+    /**
+     * Composes interceptors like {@link #stack(Interceptor...)}, but with a single handler per call carrying the
+     * position in the chain, instead of one handler per interceptor. Interceptors can replace arguments and invoke
+     * the handler several times, but must not keep the handler once their {@code onCall} method returned.
+     */
+    public static Interceptor chain(Interceptor... interceptors) {
+        if (interceptors.length == 0) {
+            return Interceptor.DEFAULT;
+        }
+        // no defensive copy, trust the client not to share or mutate this
+        // array.
+        return new ChainedInterceptor(interceptors);
+    }
+
+    public static Interceptor chain(Iterable<Interceptor> interceptors) {
+        List<Interceptor> list = new ArrayList<>();
+        interceptors.forEach(list::add);
+        return chain(list);
+    }
+
+    public static Interceptor chain(List<Interceptor> interceptors) {
+        if (interceptors.isEmpty()) {
+            return Interceptor.DEFAULT;
+        } else if (interceptors.size() == 1) {
+            return interceptors.get(0);
+        } else {
+            return new ChainedInterceptor(interceptors.toArray(new Interceptor[0]));
+        }
+    }
+
 }
@@ -50,6 +50,10 @@ final class StackedInterceptor implements Interceptor {
         this.interceptors = interceptors;
     }
 
+    Interceptor[] interceptors() {
+        return interceptors;
+    }
+
     @Override
     public String toString() {
         if (repr == null) {
@@ -63,6 +67,12 @@ final class StackedInterceptor implements Interceptor {
 
     }
 
+    // Only keeps the interceptors that apply to the method.
+    @Override
+    public Interceptor specialize(CallContext context) {
+        return Interceptors.stack(Interceptors.specializeAll(interceptors, context));
+    }
+
     @Override
     public <T, E extends Throwable> T onCall(CallContext context, InterceptionHandler<T> handler) throws E {
         return StackedInterceptor.<T, RuntimeException> callObject(0, interceptors, context, handler.getArguments(),
@@ -26,6 +26,10 @@ import io.primeval.reflex.proxy.handler.VoidInterceptionHandler;
  * <p>
  * If the annotation {@literal A} is {@link Repeatable}, then the Advice will be called for each instance of that annotation on the intercepted method.
  * </p>
+ * <p>
+ * Annotations are looked up with {@link CallContext#getAnnotationsByType(Class)}, so they are only resolved once per
+ * intercepted method.
+ * </p>
  * 
  * @param <A>
  *            the runtime annotation to intercept.
@@ -81,11 +85,19 @@ public interface AnnotationInterceptor<A extends Annotation> extends Interceptor
 
     Class<A> intercept();
 
+    /**
+     * Does not apply to methods without the annotation {@literal A}.
+     */
+    @Override
+    default Interceptor specialize(CallContext context) {
+        return context.getAnnotationsByType(intercept()).length == 0 ? null : this;
+    }
+
     @Override
     default <T, E extends Throwable> T onCall(CallContext context, InterceptionHandler<T> handler) throws E {
         Class<A> annClass = intercept();
 
-        A[] annotations = context.method.getAnnotationsByType(annClass);
+        A[] annotations = context.getAnnotationsByType(annClass);
         if (annotations.length == 0) {
             return handler.invoke();
         } else if (annotations.length == 1) {
@@ -99,7 +111,7 @@ public interface AnnotationInterceptor<A extends Annotation> extends Interceptor
     default <E extends Throwable> boolean onCall(CallContext context, BooleanInterceptionHandler handler) throws E {
         Class<A> annClass = intercept();
 
-        A[] annotations = context.method.getAnnotationsByType(annClass);
+        A[] annotations = context.getAnnotationsByType(annClass);
         if (annotations.length == 0) {
             return handler.invoke();
         } else if (annotations.length == 1) {
@@ -113,7 +125,7 @@ public interface AnnotationInterceptor<A extends Annotation> extends Interceptor
     default <E extends Throwable> byte onCall(CallContext context, ByteInterceptionHandler handler) throws E {
         Class<A> annClass = intercept();
 
-        A[] annotations = context.method.getAnnotationsByType(annClass);
+        A[] annotations = context.getAnnotationsByType(annClass);
         if (annotations.length == 0) {
             return handler.invoke();
         } else if (annotations.length == 1) {
@@ -127,7 +139,7 @@ public interface AnnotationInterceptor<A extends Annotation> extends Interceptor
     default <E extends Throwable> char onCall(CallContext context, CharInterceptionHandler handler) throws E {
         Class<A> annClass = intercept();
 
-        A[] annotations = context.method.getAnnotationsByType(annClass);
+        A[] annotations = context.getAnnotationsByType(annClass);
         if (annotations.length == 0) {
             return handler.invoke();
         } else if (annotations.length == 1) {
@@ -141,7 +153,7 @@ public interface AnnotationInterceptor<A extends Annotation> extends Interceptor
     default <E extends Throwable> double onCall(CallContext context, DoubleInterceptionHandler handler) throws E {
         Class<A> annClass = intercept();
 
-        A[] annotations = context.method.getAnnotationsByType(annClass);
+        A[] annotations = context.getAnnotationsByType(annClass);
         if (annotations.length == 0) {
             return handler.invoke();
         } else if (annotations.length == 1) {
@@ -155,7 +167,7 @@ public interface AnnotationInterceptor<A extends Annotation> extends Interceptor
     default <E extends Throwable> float onCall(CallContext context, FloatInterceptionHandler handler) throws E {
         Class<A> annClass = intercept();
 
-        A[] annotations = context.method.getAnnotationsByType(annClass);
+        A[] annotations = context.getAnnotationsByType(annClass);
         if (annotations.length == 0) {
             return handler.invoke();
         } else if (annotations.length == 1) {
@@ -169,7 +181,7 @@ public interface AnnotationInterceptor<A extends Annotation> extends Interceptor
     default <E extends Throwable> int onCall(CallContext context, IntInterceptionHandler handler) throws E {
         Class<A> annClass = intercept();
 
-        A[] annotations = context.method.getAnnotationsByType(annClass);
+        A[] annotations = context.getAnnotationsByType(annClass);
         if (annotations.length == 0) {
             return handler.invoke();
         } else if (annotations.length == 1) {
@@ -183,7 +195,7 @@ public interface AnnotationInterceptor<A extends Annotation> extends Interceptor
     default <E extends Throwable> long onCall(CallContext context, LongInterceptionHandler handler) throws E {
         Class<A> annClass = intercept();
 
-        A[] annotations = context.method.getAnnotationsByType(annClass);
+        A[] annotations = context.getAnnotationsByType(annClass);
         if (annotations.length == 0) {
             return handler.invoke();
         } else if (annotations.length == 1) {
@@ -197,7 +209,7 @@ public interface AnnotationInterceptor<A extends Annotation> extends Interceptor
     default <E extends Throwable> short onCall(CallContext context, ShortInterceptionHandler handler) throws E {
         Class<A> annClass = intercept();
 
-        A[] annotations = context.method.getAnnotationsByType(annClass);
+        A[] annotations = context.getAnnotationsByType(annClass);
         if (annotations.length == 0) {
             return handler.invoke();
         } else if (annotations.length == 1) {
@@ -211,7 +223,7 @@ public interface AnnotationInterceptor<A extends Annotation> extends Interceptor
     default <E extends Throwable> void onCall(CallContext context, VoidInterceptionHandler handler) throws E {
         Class<A> annClass = intercept();
 
-        A[] annotations = context.method.getAnnotationsByType(annClass);
+        A[] annotations = context.getAnnotationsByType(annClass);
         if (annotations.length == 0) {
             handler.invoke();
         } else if (annotations.length == 1) {
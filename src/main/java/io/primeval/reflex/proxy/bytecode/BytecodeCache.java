@@ -0,0 +1,315 @@
+package io.primeval.reflex.proxy.bytecode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.ProtectionDomain;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.primeval.reflex.arguments.Arguments;
+import io.primeval.reflex.arguments.ArgumentsUpdater;
+import io.primeval.reflex.proxy.Advice;
+import io.primeval.reflex.proxy.CallContext;
+import io.primeval.reflex.proxy.Interceptor;
+import io.primeval.reflex.proxy.bytecode.gen.BytecodeGenUtils;
+import io.primeval.reflex.proxy.bytecode.gen.HiddenClassHostGenerator;
+import io.primeval.reflex.proxy.bytecode.gen.InterceptionHandlerGenerator;
+import io.primeval.reflex.proxy.bytecode.gen.MethodArgumentsGenerator;
+import io.primeval.reflex.proxy.bytecode.gen.MethodArgumentssUpdaterGenerator;
+import io.primeval.reflex.proxy.bytecode.gen.ProxyClassGenerator;
+import io.primeval.reflex.proxy.bytecode.gen.ProxyFactoryGenerator;
+import io.primeval.reflex.proxy.bytecode.gen.TrampolineGenerator;
+import io.primeval.reflex.proxy.handler.BooleanInterceptionHandler;
+import io.primeval.reflex.proxy.handler.ByteInterceptionHandler;
+import io.primeval.reflex.proxy.handler.CharInterceptionHandler;
+import io.primeval.reflex.proxy.handler.DoubleInterceptionHandler;
+import io.primeval.reflex.proxy.handler.FloatInterceptionHandler;
+import io.primeval.reflex.proxy.handler.IntInterceptionHandler;
+import io.primeval.reflex.proxy.handler.InterceptionHandler;
+import io.primeval.reflex.proxy.handler.LongInterceptionHandler;
+import io.primeval.reflex.proxy.handler.ShortInterceptionHandler;
+import io.primeval.reflex.proxy.handler.VoidInterceptionHandler;
+import io.primeval.reflex.proxy.shared.InterceptorCallSites;
+import io.primeval.reflex.proxy.shared.SharedProxyUtils;
+import io.primeval.reflex.proxy.shared.Trampoline;
+
+/**
+ * A directory holding the bytecode of generated classes, so that later runs define them without generating them
+ * again. Set it with {@link ProxyClassLoader#ProxyClassLoader(ClassLoader, BytecodeCache)}.
+ * <p>
+ * Each class is stored in a file of its own, starting with a hash of what the class was generated from: the methods of
+ * the target class with their generic signatures, parameters and annotations, the configuration of the proxy class, and
+ * the bytecode of the generators and of the runtime classes generated code links against. A file whose hash does not
+ * match is stale: the class is generated again and the file replaced. Files are memory-mapped when read, and replaced
+ * atomically when written, so that a directory can be shared by several JVMs. Errors reading or writing the directory
+ * are logged, and classes are then generated as without a cache.
+ * <p>
+ * Classes generated at build time are stored in the same format, as resources under {@link #RESOURCE_DIRECTORY}:
+ * {@link ProxyClassLoader} looks them up in its parent class loader before generating a class, with or without a cache
+ * directory.
+ * <p>
+ * The classes of a cache can also be written to a jar with {@link #writeJar(Path)}. Put on the class path, its classes
+ * are loaded by the application class loader, which the JVM can archive with class data sharing
+ * ({@code -XX:ArchiveClassesAtExit} and {@code -XX:SharedArchiveFile}).
+ */
+public final class BytecodeCache {
+
+    /**
+     * The resource directory where classes generated at build time are looked up.
+     */
+    public static final String RESOURCE_DIRECTORY = "META-INF/primeval-reflex/bytecode/";
+
+    /**
+     * The resource directory of the hashes of the classes of a jar written by {@link #writeJar(Path)}.
+     */
+    public static final String SHARED_DIRECTORY = "META-INF/primeval-reflex/shared/";
+
+    // Fixed, so that the same classes always give the same jar.
+    private static final long JAR_ENTRY_TIME = new GregorianCalendar(1980, Calendar.FEBRUARY, 1).getTimeInMillis();
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BytecodeCache.class);
+
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final int HASH_LENGTH = 32;
+
+    private final Path directory;
+
+    /**
+     * @param directory
+     *            the cache directory, created when the first class is stored.
+     */
+    public BytecodeCache(Path directory) {
+        this.directory = directory;
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    /**
+     * Returns the class named {@code className} from the cache if it was stored for the same {@code structure}, or
+     * generates it and stores it.
+     */
+    ClassDef get(String className, String structure, ProtectionDomain pd, Supplier<ClassDef> generator) {
+        byte[] hash = hash(className, structure);
+        Path file = directory.resolve(className + ".class");
+        ByteBuffer cached = read(file, hash);
+        if (cached != null) {
+            return ClassDef.from(cached, pd);
+        }
+        ClassDef classDef = generator.get();
+        write(file, hash, classDef.bytecode.duplicate());
+        return classDef;
+    }
+
+    /**
+     * Returns the class named {@code className} generated at build time for the same {@code structure}, or
+     * {@code null} if {@code classLoader} has none. The structure is only computed if there is such a class.
+     */
+    static ClassDef getResource(ClassLoader classLoader, String className, Supplier<String> structure,
+            ProtectionDomain pd) {
+        if (classLoader == null) {
+            return null;
+        }
+        String resource = RESOURCE_DIRECTORY + className + ".class";
+        try (InputStream in = classLoader.getResourceAsStream(resource)) {
+            if (in == null) {
+                return null;
+            }
+            ByteBuffer bytecode = checked(ByteBuffer.wrap(readAll(in)), hash(className, structure.get()));
+            return bytecode != null ? ClassDef.from(bytecode, pd) : null;
+        } catch (IOException e) {
+            LOGGER.warn("Could not read pregenerated bytecode from {}", resource, e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns whether {@code classLoader} loads the class named {@code className}, generated for the same
+     * {@code structure}, from a jar written by {@link #writeJar(Path)}. The structure is only computed if the jar has
+     * such a class.
+     */
+    static boolean isShared(ClassLoader classLoader, String className, Supplier<String> structure) {
+        if (classLoader == null) {
+            return false;
+        }
+        String resource = SHARED_DIRECTORY + className;
+        try (InputStream in = classLoader.getResourceAsStream(resource)) {
+            return in != null && Arrays.equals(readAll(in), hash(className, structure.get()));
+        } catch (IOException e) {
+            LOGGER.warn("Could not read shared class hash from {}", resource, e);
+            return false;
+        }
+    }
+
+    /**
+     * Writes the classes of this cache to {@code jar}, along with their hashes. Entries are sorted and have a fixed
+     * time, so that the same classes always give the same jar. On the class path, its classes are loaded by the
+     * application class loader, in place of the classes a {@link ProxyClassLoader} would generate for the same
+     * structure. Their target classes must be visible to that class loader.
+     * <p>
+     * A proxy class is only loaded from the jar with all the classes generated for it, so the cache should be filled by
+     * building proxy classes eagerly: classes that a run did not load, such as the handlers of methods never
+     * intercepted, are not in the cache, and their proxy classes are generated again.
+     */
+    public void writeJar(Path jar) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (Files.isDirectory(directory)) {
+            try (Stream<Path> list = Files.list(directory)) {
+                list.filter(f -> f.getFileName().toString().endsWith(".class")).sorted().forEach(files::add);
+            }
+        }
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            for (Path file : files) {
+                byte[] content = Files.readAllBytes(file);
+                if (content.length < HASH_LENGTH) {
+                    continue;
+                }
+                String fileName = file.getFileName().toString();
+                String className = fileName.substring(0, fileName.length() - ".class".length());
+                writeJarEntry(out, className.replace('.', '/') + ".class", content, HASH_LENGTH,
+                        content.length - HASH_LENGTH);
+                writeJarEntry(out, SHARED_DIRECTORY + className, content, 0, HASH_LENGTH);
+            }
+        }
+    }
+
+    private static void writeJarEntry(JarOutputStream out, String name, byte[] content, int offset, int length)
+            throws IOException {
+        JarEntry entry = new JarEntry(name);
+        entry.setTime(JAR_ENTRY_TIME);
+        out.putNextEntry(entry);
+        out.write(content, offset, length);
+        out.closeEntry();
+    }
+
+    private static ByteBuffer read(Path file, byte[] hash) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return checked(buffer, hash);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            LOGGER.warn("Could not read cached bytecode from {}", file, e);
+            return null;
+        }
+    }
+
+    // The bytecode following the hash, if it is the expected one.
+    private static ByteBuffer checked(ByteBuffer content, byte[] hash) {
+        if (content.remaining() < HASH_LENGTH) {
+            return null;
+        }
+        for (int i = 0; i < HASH_LENGTH; i++) {
+            if (content.get(i) != hash[i]) {
+                return null;
+            }
+        }
+        content.position(HASH_LENGTH);
+        return content.slice();
+    }
+
+    private void write(Path file, byte[] hash, ByteBuffer bytecode) {
+        Path tempFile = null;
+        try {
+            Files.createDirectories(directory);
+            tempFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                channel.write(new ByteBuffer[] { ByteBuffer.wrap(hash), bytecode });
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.warn("Could not write cached bytecode to {}", file, e);
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException ignored) {
+                    // nothing more to do
+                }
+            }
+        }
+    }
+
+    private static byte[] hash(String className, String structure) {
+        MessageDigest digest = newDigest();
+        digest.update(GeneratorVersion.HASH);
+        digest.update(className.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(structure.getBytes(StandardCharsets.UTF_8));
+        return digest.digest();
+    }
+
+    // Computed on first use, as most class loaders never hash a class.
+    private static final class GeneratorVersion {
+
+        // The bytecode of the generators, and of the classes generated code links against, so that any change to
+        // them invalidates the cache.
+        static final byte[] HASH = hash(BytecodeGenUtils.class, HiddenClassHostGenerator.class,
+                InterceptionHandlerGenerator.class, MethodArgumentsGenerator.class,
+                MethodArgumentssUpdaterGenerator.class, ProxyClassGenerator.class, ProxyFactoryGenerator.class,
+                TrampolineGenerator.class,
+                // linked against
+                Proxy.class, ProxyClass.class, CallContext.class, Interceptor.class, Advice.class,
+                Arguments.class, ArgumentsUpdater.class, InterceptionHandler.class, VoidInterceptionHandler.class,
+                BooleanInterceptionHandler.class, ByteInterceptionHandler.class, CharInterceptionHandler.class,
+                ShortInterceptionHandler.class, IntInterceptionHandler.class, LongInterceptionHandler.class,
+                FloatInterceptionHandler.class, DoubleInterceptionHandler.class, Trampoline.class,
+                InterceptorCallSites.class, SharedProxyUtils.class);
+
+        private static byte[] hash(Class<?>... classes) {
+            MessageDigest digest = newDigest();
+            for (Class<?> clazz : classes) {
+                digest.update(clazz.getName().getBytes(StandardCharsets.UTF_8));
+                try (InputStream in = clazz.getResourceAsStream(clazz.getSimpleName() + ".class")) {
+                    if (in != null) {
+                        digest.update(readAll(in));
+                    }
+                } catch (IOException e) {
+                    throw new IllegalStateException("Could not read the bytecode of " + clazz.getName(), e);
+                }
+            }
+            return digest.digest();
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buf = new byte[8192];
+        for (int n; (n = in.read(buf)) != -1;) {
+            out.write(buf, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,27 @@
+package io.primeval.reflex.proxy.bytecode;
+
+import java.nio.ByteBuffer;
+import java.security.ProtectionDomain;
+
+/**
+ * The bytecode of a class to define, with its protection domain.
+ */
+final class ClassDef {
+    public final ByteBuffer bytecode;
+    public final ProtectionDomain pd;
+
+    private ClassDef(ByteBuffer bytecode, ProtectionDomain pd) {
+        super();
+        this.bytecode = bytecode;
+        this.pd = pd;
+    }
+
+    public static ClassDef from(byte[] bytecode, ProtectionDomain pd) {
+        return new ClassDef(ByteBuffer.wrap(bytecode), pd);
+    }
+
+    public static ClassDef from(ByteBuffer bytecode, ProtectionDomain pd) {
+        return new ClassDef(bytecode, pd);
+    }
+
+}
@@ -0,0 +1,24 @@
+package io.primeval.reflex.proxy.bytecode;
+
+/**
+ * How a {@link ProxyClassLoader} defines proxy classes.
+ */
+public enum ClassDefinition {
+
+    /**
+     * Proxy classes are classes of the {@link ProxyClassLoader}, defined once and kept as long as it is reachable. This
+     * is the default.
+     */
+    NAMED,
+
+    /**
+     * Proxy classes are hidden classes, nestmates of a host class defined in the {@link ProxyClassLoader}. Each one can
+     * be unloaded as soon as its {@link ProxyClass} and its proxies are unreachable, and is defined again if it is
+     * built again. The classes generated for intercepted methods are shared by the proxy classes of a target class, and
+     * remain classes of the {@link ProxyClassLoader}.
+     * <p>
+     * Requires Java 15 or later.
+     */
+    HIDDEN;
+
+}
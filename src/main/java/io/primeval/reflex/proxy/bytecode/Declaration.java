@@ -0,0 +1,18 @@
+package io.primeval.reflex.proxy.bytecode;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * The classes declared for a variant of a proxy class, by name.
+ */
+final class Declaration {
+    public final String variant;
+    public final Map<String, Supplier<ClassDef>> classes;
+
+    Declaration(String variant, Map<String, Supplier<ClassDef>> classes) {
+        this.variant = variant;
+        this.classes = classes;
+    }
+
+}
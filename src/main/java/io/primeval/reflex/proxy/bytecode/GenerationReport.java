@@ -0,0 +1,46 @@
+package io.primeval.reflex.proxy.bytecode;
+
+/**
+ * Timing of the eager generation of a proxy class, see
+ * {@link ProxyClassLoader#defineClassToProxy(Class, Class[], java.lang.reflect.Method[], java.util.function.Predicate, InterceptorBinding, InterceptorDispatch, java.util.concurrent.ForkJoinPool)}.
+ * <p>
+ * It is <b>immutable</b> and thus <b>thread-safe</b>.
+ */
+public final class GenerationReport {
+
+    /**
+     * The variant of the proxy class, as returned by
+     * {@link ProxyClassLoader#declareClassToProxy(Class, Class[], java.lang.reflect.Method[], java.util.function.Predicate, InterceptorBinding, InterceptorDispatch)}.
+     */
+    public final String variant;
+
+    /**
+     * The number of classes generated and defined, {@code 0} if the proxy class was already declared.
+     */
+    public final int classCount;
+
+    /**
+     * Wall-clock time spent generating the bytecode of the classes, in parallel.
+     */
+    public final long generationNanos;
+
+    /**
+     * Wall-clock time spent defining the classes, one after the other.
+     */
+    public final long definitionNanos;
+
+    public GenerationReport(String variant, int classCount, long generationNanos, long definitionNanos) {
+        super();
+        this.variant = variant;
+        this.classCount = classCount;
+        this.generationNanos = generationNanos;
+        this.definitionNanos = definitionNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "GenerationReport [variant=" + variant + ", classCount=" + classCount + ", generationNanos="
+                + generationNanos + ", definitionNanos=" + definitionNanos + "]";
+    }
+
+}
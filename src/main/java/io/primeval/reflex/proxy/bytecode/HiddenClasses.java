@@ -0,0 +1,56 @@
+package io.primeval.reflex.proxy.bytecode;
+
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+
+/**
+ * Defines hidden classes, through reflection since the API appeared in Java 15. A multi-release jar replaces this
+ * class with one calling the API directly on Java 15 and later.
+ */
+final class HiddenClasses {
+
+    private static final Method DEFINE_HIDDEN_CLASS;
+    private static final Object NESTMATE;
+
+    static {
+        Method defineHiddenClass = null;
+        Object nestmate = null;
+        try {
+            Class<?> classOption = Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+            Object options = Array.newInstance(classOption, 1);
+            for (Object option : classOption.getEnumConstants()) {
+                if ("NESTMATE".equals(((Enum<?>) option).name())) {
+                    Array.set(options, 0, option);
+                }
+            }
+            defineHiddenClass = Lookup.class.getMethod("defineHiddenClass", byte[].class, boolean.class,
+                    options.getClass());
+            nestmate = options;
+        } catch (ReflectiveOperationException e) {
+            // before Java 15
+        }
+        DEFINE_HIDDEN_CLASS = defineHiddenClass;
+        NESTMATE = nestmate;
+    }
+
+    private HiddenClasses() {
+    }
+
+    static boolean isSupported() {
+        return DEFINE_HIDDEN_CLASS != null;
+    }
+
+    /**
+     * Defines a hidden class, nestmate of the lookup class of {@code host} and unloadable on its own.
+     *
+     * @return a lookup on the hidden class.
+     */
+    static Lookup defineHiddenClass(Lookup host, byte[] bytecode) throws ReflectiveOperationException {
+        if (DEFINE_HIDDEN_CLASS == null) {
+            throw new UnsupportedOperationException("Hidden classes require Java 15 or later");
+        }
+        return (Lookup) DEFINE_HIDDEN_CLASS.invoke(host, bytecode, true, NESTMATE);
+    }
+
+}
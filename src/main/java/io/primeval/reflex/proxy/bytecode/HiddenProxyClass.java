@@ -0,0 +1,42 @@
+package io.primeval.reflex.proxy.bytecode;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+
+/**
+ * The {@link ProxyClass} of a hidden proxy class. A generated factory cannot name a hidden class, so proxies are
+ * created through a method handle on its constructor.
+ */
+final class HiddenProxyClass<T> implements ProxyClass<T> {
+
+    private final Class<T> proxyClass;
+    private final MethodHandle constructor;
+
+    /**
+     * @param hostLookup
+     *            a lookup on the host class of the proxy class, its nestmate.
+     */
+    @SuppressWarnings("unchecked")
+    HiddenProxyClass(Class<?> targetClass, Lookup hostLookup, Class<?> proxyClass) throws ReflectiveOperationException {
+        this.proxyClass = (Class<T>) proxyClass;
+        this.constructor = hostLookup
+                .findConstructor(proxyClass, MethodType.methodType(void.class, targetClass))
+                .asType(MethodType.methodType(Proxy.class, Object.class));
+    }
+
+    @Override
+    public Class<T> targetClass() {
+        return proxyClass;
+    }
+
+    @Override
+    public Proxy newInstance(Object target) {
+        try {
+            return (Proxy) constructor.invokeExact(target);
+        } catch (Throwable t) {
+            throw ProxyUtils.sneakyThrow(t);
+        }
+    }
+
+}
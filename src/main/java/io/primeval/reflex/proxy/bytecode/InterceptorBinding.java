@@ -0,0 +1,27 @@
+package io.primeval.reflex.proxy.bytecode;
+
+import io.primeval.reflex.proxy.Interceptor;
+
+/**
+ * How a generated proxy class reads its {@link Interceptor} on each intercepted call.
+ */
+public enum InterceptorBinding {
+
+    /**
+     * Each proxy instance holds its own interceptor slots in a volatile field, read on every call. This is the
+     * default.
+     */
+    FIELD,
+
+    /**
+     * The interceptor of each method is bound to the proxy class through a {@link java.lang.invoke.MutableCallSite},
+     * which the JIT treats as a constant and can inline through. Setting an interceptor on the proxy retargets the call
+     * sites of the methods that changed, deoptimizing the code compiled against the previous interceptors.
+     * <p>
+     * The binding is shared by all instances of the proxy class: setting an interceptor on one instance sets it for
+     * every other instance, including the ones created afterwards. Swapping interceptors is expensive; use this mode
+     * when interceptors rarely change.
+     */
+    CONSTANT;
+
+}
@@ -0,0 +1,27 @@
+package io.primeval.reflex.proxy.bytecode;
+
+import io.primeval.reflex.proxy.Interceptor;
+import io.primeval.reflex.proxy.Interceptors;
+
+/**
+ * How a generated proxy class calls the interceptors stacked with {@link Interceptors#stack(Interceptor...)}.
+ */
+public enum InterceptorDispatch {
+
+    /**
+     * The stack calls its interceptors itself. Its code is shared by all the proxies it is set on, and so are the
+     * profiles the JIT collects on it: once it has seen a few interceptor and handler types, it stops inlining them.
+     * This is the default.
+     */
+    DIRECT,
+
+    /**
+     * Each intercepted method gets its own trampoline class, which calls the interceptors of a stack from a different
+     * call site for each of its first levels. Every call site only sees the interceptor at its level, so the JIT can
+     * inline the whole stack into the proxy method, whatever the number of proxy classes the stack is set on.
+     * <p>
+     * Trampolines cost one more generated class per intercepted method, loaded when a stack is first set on it.
+     */
+    TRAMPOLINE;
+
+}
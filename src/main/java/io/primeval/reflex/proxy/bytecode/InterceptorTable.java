@@ -0,0 +1,61 @@
+package io.primeval.reflex.proxy.bytecode;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import io.primeval.reflex.proxy.Interceptor;
+
+/**
+ * An immutable binding of interceptors to methods, to install on a proxy at once with
+ * {@link Proxy#setInterceptors(InterceptorTable)}.
+ * <p>
+ * Methods are matched by name and parameter types, so a method of the proxied class and the method it implements in
+ * an interface are the same entry. Methods with no interceptor bound get {@link Interceptor#DEFAULT}, and the proxy
+ * calls their delegate directly.
+ */
+public final class InterceptorTable {
+
+    public static final InterceptorTable EMPTY = new InterceptorTable(Collections.emptyMap());
+
+    private final Map<MethodIdentifier, Interceptor> interceptors;
+
+    private InterceptorTable(Map<MethodIdentifier, Interceptor> interceptors) {
+        this.interceptors = interceptors;
+    }
+
+    public static InterceptorTable of(Map<Method, ? extends Interceptor> interceptors) {
+        Map<MethodIdentifier, Interceptor> table = new HashMap<>();
+        for (Entry<Method, ? extends Interceptor> entry : interceptors.entrySet()) {
+            table.put(identify(entry.getKey()), entry.getValue());
+        }
+        return new InterceptorTable(table);
+    }
+
+    /**
+     * @return a new table, binding {@code interceptor} to {@code method} in addition to the methods of this table.
+     */
+    public InterceptorTable with(Method method, Interceptor interceptor) {
+        Map<MethodIdentifier, Interceptor> table = new HashMap<>(interceptors);
+        table.put(identify(method), interceptor);
+        return new InterceptorTable(table);
+    }
+
+    /**
+     * @return the interceptor bound to {@code method}, or {@link Interceptor#DEFAULT} if there is none.
+     */
+    public Interceptor get(Method method) {
+        return interceptors.getOrDefault(identify(method), Interceptor.DEFAULT);
+    }
+
+    static boolean sameDispatch(Method method, Method other) {
+        return identify(method).equals(identify(other));
+    }
+
+    private static MethodIdentifier identify(Method method) {
+        return new MethodIdentifier(method.getName(), method.getParameterTypes());
+    }
+
+}
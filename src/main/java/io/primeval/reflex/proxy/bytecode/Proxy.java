@@ -1,13 +1,242 @@
 package io.primeval.reflex.proxy.bytecode;
 
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+import io.primeval.reflex.proxy.CallContext;
 import io.primeval.reflex.proxy.Interceptor;
+import io.primeval.reflex.proxy.Interceptors;
 
+/**
+ * Base class of proxies.
+ * <p>
+ * A proxy has one interceptor slot per method, read by the method on each call. Slots of methods with no interceptor
+ * hold {@link Interceptor#DEFAULT}, and these methods call the delegate directly.
+ * <p>
+ * Interceptors are specialized for each method with {@link Interceptor#specialize(CallContext)} when they are set, and
+ * slots hold the result. Proxies generated with {@link InterceptorDispatch#TRAMPOLINE} then replace stacks of
+ * interceptors with the trampoline of each method.
+ * <p>
+ * The call context of a method is only looked up when it is first needed, by {@link #callContext(int)}.
+ */
 public abstract class Proxy {
 
-    protected volatile Interceptor interceptor = Interceptor.DEFAULT;
+    private static final CallContext[] NO_CALL_CONTEXTS = new CallContext[0];
+
+    // The slots of the proxies of each subclass passing call contexts, computed for its first proxy and reused while
+    // its proxies pass the same call contexts.
+    private static final ClassValue<AtomicReference<Slots>> SLOTS = new ClassValue<AtomicReference<Slots>>() {
+        @Override
+        protected AtomicReference<Slots> computeValue(Class<?> type) {
+            return new AtomicReference<>();
+        }
+    };
+
+    // The name of the method in each slot, null for slots of methods that are not intercepted.
+    private final String[] methodNames;
+
+    // Shared by the proxies of a class, filled on first use.
+    private final CallContext[] callContexts;
+
+    // Copy-on-write: never modified once published.
+    protected volatile Interceptor[] interceptors;
 
+    /**
+     * The interceptor last set with {@link #setInterceptor(Interceptor)}, for subclasses written before interceptor
+     * slots, which read it on each call.
+     *
+     * @deprecated read the slot of each method in {@link #interceptors}, see {@link #Proxy(CallContext[])}.
+     */
+    @Deprecated
+    protected volatile Interceptor interceptor;
+
+    /**
+     * A proxy without interceptor slots, for subclasses written before interceptor slots: they read
+     * {@link #interceptor} on each call, and are neither specialized nor bound per method.
+     *
+     * @deprecated pass the call context of each method to {@link #Proxy(CallContext[])}, and read the interceptor of
+     *             each method from its slot in {@link #interceptors}.
+     */
+    @Deprecated
+    protected Proxy() {
+        this(NO_CALL_CONTEXTS);
+        this.interceptor = Interceptor.DEFAULT;
+    }
+
+    /**
+     * @param callContexts
+     *            the call context of the method in each slot, {@code null} for slots of methods that are not
+     *            intercepted.
+     */
+    protected Proxy(CallContext[] callContexts) {
+        AtomicReference<Slots> classSlots = SLOTS.get(getClass());
+        Slots slots = classSlots.get();
+        if (slots == null || slots.callContexts != callContexts) {
+            slots = new Slots(callContexts);
+            classSlots.set(slots);
+        }
+        this.methodNames = slots.methodNames;
+        this.callContexts = callContexts;
+        this.interceptors = slots.interceptors;
+    }
+
+    /**
+     * @param methodNames
+     *            the name of the method in each slot, {@code null} for slots of methods that are not intercepted.
+     * @param callContexts
+     *            the call context of the method in each slot, shared by the proxies of a class: missing ones are
+     *            created by {@link #newCallContext(int)} on first use.
+     * @param interceptors
+     *            the initial interceptor slots, shared by the proxies of a class, see
+     *            {@link #defaultInterceptors(int)}. Slots are copied on write, so it is never modified.
+     */
+    protected Proxy(String[] methodNames, CallContext[] callContexts, Interceptor[] interceptors) {
+        this.methodNames = methodNames;
+        this.callContexts = callContexts;
+        this.interceptors = interceptors;
+    }
+
+    /**
+     * Returns {@code slots} interceptor slots holding {@link Interceptor#DEFAULT}, to be shared by the proxies of a
+     * class.
+     */
+    protected static Interceptor[] defaultInterceptors(int slots) {
+        Interceptor[] interceptors = new Interceptor[slots];
+        Arrays.fill(interceptors, Interceptor.DEFAULT);
+        return interceptors;
+    }
+
+    /**
+     * Sets the interceptor of all intercepted methods.
+     */
     public void setInterceptor(Interceptor interceptor) {
+        Interceptor[] specialized = new Interceptor[methodNames.length];
+        for (int i = 0; i < specialized.length; i++) {
+            specialized[i] = methodNames[i] != null ? bind(i, interceptor) : Interceptor.DEFAULT;
+        }
+        updateInterceptors(interceptors -> specialized);
         this.interceptor = interceptor;
     }
 
+    /**
+     * Sets the interceptor of one method, leaving the other methods unchanged.
+     *
+     * @param method
+     *            the method, matched by name and parameter types: it can be declared by the proxied class or by one of
+     *            the interfaces of the proxy.
+     * @throws IllegalArgumentException
+     *             if {@code method} is not intercepted by this proxy.
+     */
+    public void setInterceptor(Method method, Interceptor interceptor) {
+        int slot = slotOf(method);
+        Interceptor specialized = bind(slot, interceptor);
+        updateInterceptors(interceptors -> {
+            interceptors[slot] = specialized;
+            return interceptors;
+        });
+    }
+
+    /**
+     * Sets the interceptors of all intercepted methods from {@code table}. Methods the table does not bind are
+     * delegated directly.
+     */
+    public void setInterceptors(InterceptorTable table) {
+        Interceptor[] specialized = new Interceptor[methodNames.length];
+        for (int i = 0; i < specialized.length; i++) {
+            specialized[i] = methodNames[i] != null ? bind(i, table.get(callContext(i).method))
+                    : Interceptor.DEFAULT;
+        }
+        updateInterceptors(interceptors -> specialized);
+    }
+
+    /**
+     * Returns the call context of the method in {@code slot}, or {@code null} if it is not intercepted.
+     */
+    protected final CallContext callContext(int slot) {
+        // CallContext is immutable: safely published through its final fields
+        CallContext callContext = callContexts[slot];
+        if (callContext == null && methodNames[slot] != null) {
+            synchronized (callContexts) {
+                callContext = callContexts[slot];
+                if (callContext == null) {
+                    callContext = newCallContext(slot);
+                    callContexts[slot] = callContext;
+                }
+            }
+        }
+        return callContext;
+    }
+
+    /**
+     * Creates the call context of the method in {@code slot}, when it is first needed. Overridden by generated proxy
+     * classes, which look up their methods on first use rather than when they are initialized.
+     */
+    protected CallContext newCallContext(int slot) {
+        return null;
+    }
+
+    /**
+     * Returns the trampoline of the method in {@code slot}, calling the {@code interceptors} of a stack in order, or
+     * {@code null} if this proxy has no trampolines. Overridden by proxy classes generated with
+     * {@link InterceptorDispatch#TRAMPOLINE}.
+     */
+    protected Interceptor newTrampoline(int slot, Interceptor[] interceptors) {
+        return null;
+    }
+
+    /**
+     * Applies {@code update} to a copy of the current interceptor slots, and publishes the result.
+     */
+    protected void updateInterceptors(UnaryOperator<Interceptor[]> update) {
+        synchronized (this) {
+            this.interceptors = update.apply(interceptors.clone());
+        }
+    }
+
+    private Interceptor bind(int slot, Interceptor interceptor) {
+        if (interceptor == Interceptor.DEFAULT) {
+            // nothing to specialize, nor any call context to look up
+            return Interceptor.DEFAULT;
+        }
+        Interceptor specialized = Interceptors.specialize(interceptor, callContext(slot));
+        Interceptor[] stacked = Interceptors.unstack(specialized);
+        if (stacked != null) {
+            Interceptor trampoline = newTrampoline(slot, stacked);
+            if (trampoline != null) {
+                return trampoline;
+            }
+        }
+        return specialized;
+    }
+
+    private int slotOf(Method method) {
+        // by name first, not to look up the call contexts of other methods
+        for (int i = 0; i < methodNames.length; i++) {
+            if (method.getName().equals(methodNames[i])
+                    && InterceptorTable.sameDispatch(callContext(i).method, method)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Method " + method + " is not intercepted by this proxy");
+    }
+
+    private static final class Slots {
+        final CallContext[] callContexts;
+        final String[] methodNames;
+        final Interceptor[] interceptors;
+
+        Slots(CallContext[] callContexts) {
+            this.callContexts = callContexts;
+            this.methodNames = new String[callContexts.length];
+            for (int i = 0; i < callContexts.length; i++) {
+                if (callContexts[i] != null) {
+                    methodNames[i] = callContexts[i].method.getName();
+                }
+            }
+            this.interceptors = defaultInterceptors(callContexts.length);
+        }
+    }
+
 }
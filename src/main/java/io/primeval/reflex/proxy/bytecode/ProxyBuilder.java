@@ -1,8 +1,12 @@
 package io.primeval.reflex.proxy.bytecode;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -10,7 +14,7 @@ import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import io.primeval.reflex.proxy.bytecode.gen.ProxyClassGenerator;
+import io.primeval.reflex.proxy.bytecode.gen.ProxyFactoryGenerator;
 
 /**
  * Entry point to proxy a class and specify which interfaces to implement
@@ -21,44 +25,110 @@ import io.primeval.reflex.proxy.bytecode.gen.ProxyClassGenerator;
 public final class ProxyBuilder {
     private static final Logger LOGGER = LoggerFactory.getLogger(ProxyBuilder.class);
 
+    private static final Predicate<Method> ALL_METHODS = m -> true;
+    private static final Comparator<Method> METHOD_ORDER = Comparator.comparing(Method::getName)
+            .thenComparing(m -> Arrays.toString(m.getParameterTypes()));
+
     public static <T> ProxyClass<T> build(Class<T> targetClass, Class<?>[] interfaces) {
-        return build(new ProxyClassLoader(targetClass.getClassLoader()), targetClass, interfaces);
+        return build(targetClass, interfaces, ALL_METHODS);
+    }
+
+    /**
+     * Builds a proxy class in a {@link ProxyClassLoader} of its own, or returns the proxy class already built for the
+     * same target class, interfaces and {@code shouldIntercept} predicate.
+     * <p>
+     * Predicates are compared with {@link Object#equals(Object)}: callers building the same proxy class repeatedly
+     * should pass the same predicate instance. The proxy classes are held as long as their target class is reachable.
+     */
+    public static <T> ProxyClass<T> build(Class<T> targetClass, Class<?>[] interfaces,
+            Predicate<Method> shouldIntercept) {
+        return ProxyClassCache.get(targetClass, interfaces, shouldIntercept, () -> build(
+                new ProxyClassLoader(targetClass.getClassLoader()), targetClass, interfaces, shouldIntercept));
     }
 
     public static <T> ProxyClass<T> build(ProxyClassLoader dynamicClassLoader, Class<T> targetClass,
             Class<?>[] interfaces) {
-        return build(dynamicClassLoader, targetClass, interfaces, m -> true);
+        return build(dynamicClassLoader, targetClass, interfaces, ALL_METHODS);
     }
 
     public static <T> ProxyClass<T> build(ProxyClassLoader dynamicClassLoader, Class<T> targetClass,
             Class<?>[] interfaces, Predicate<Method> shouldIntercept) {
+        return build(dynamicClassLoader, targetClass, interfaces, shouldIntercept, InterceptorBinding.FIELD);
+    }
+
+    /**
+     * Builds a proxy class whose generated code reads the interceptor as specified by {@code binding}.
+     * <p>
+     * The binding is chosen when the proxy class is generated, and is part of its configuration: a
+     * {@link ProxyClassLoader} holds one proxy class per configuration of {@code targetClass}.
+     */
+    public static <T> ProxyClass<T> build(ProxyClassLoader dynamicClassLoader, Class<T> targetClass,
+            Class<?>[] interfaces, Predicate<Method> shouldIntercept, InterceptorBinding binding) {
+        return build(dynamicClassLoader, targetClass, interfaces, shouldIntercept, binding,
+                InterceptorDispatch.DIRECT);
+    }
+
+    /**
+     * Builds a proxy class whose generated code reads the interceptor as specified by {@code binding}, and calls
+     * stacks of interceptors as specified by {@code dispatch}.
+     * <p>
+     * Both are chosen when the proxy class is generated, and are part of its configuration along with the
+     * interfaces and the intercepted methods: a {@link ProxyClassLoader} holds one proxy class per configuration of
+     * {@code targetClass}, and returns it when the same configuration is built again.
+     */
+    public static <T> ProxyClass<T> build(ProxyClassLoader dynamicClassLoader, Class<T> targetClass,
+            Class<?>[] interfaces, Predicate<Method> shouldIntercept, InterceptorBinding binding,
+            InterceptorDispatch dispatch) {
         try {
             Method[] methods = getMethods(targetClass);
 
-            dynamicClassLoader.declareClassToProxy(targetClass, interfaces, methods, shouldIntercept);
+            String variant = dynamicClassLoader.declareClassToProxy(targetClass, interfaces, methods,
+                    shouldIntercept, binding, dispatch);
 
-            String className = ProxyClassGenerator.getName(targetClass);
-            Class<?> proxyClass = dynamicClassLoader.loadClass(className);
+            return newProxyClass(dynamicClassLoader, targetClass, variant);
+        } catch (Exception e) {
+            LOGGER.error("Could not proxy class {}", targetClass.getName());
+            throw new RuntimeException(e);
+        }
+    }
 
-            return new ProxyClass<T>() {
+    /**
+     * Builds a proxy class like
+     * {@link #build(ProxyClassLoader, Class, Class[], Predicate, InterceptorBinding, InterceptorDispatch)}, but
+     * generates all its classes right away instead of when they are first loaded: their bytecode is generated in
+     * parallel on {@code pool}.
+     *
+     * @param report
+     *            called with the time spent generating and defining the classes.
+     */
+    public static <T> ProxyClass<T> build(ProxyClassLoader dynamicClassLoader, Class<T> targetClass,
+            Class<?>[] interfaces, Predicate<Method> shouldIntercept, InterceptorBinding binding,
+            InterceptorDispatch dispatch, ForkJoinPool pool, Consumer<GenerationReport> report) {
+        try {
+            Method[] methods = getMethods(targetClass);
 
-                @SuppressWarnings("unchecked")
-                @Override
-                public Class<T> targetClass() {
-                    return (Class<T>) proxyClass;
-                }
+            GenerationReport generationReport = dynamicClassLoader.defineClassToProxy(targetClass, interfaces,
+                    methods, shouldIntercept, binding, dispatch, pool);
+            report.accept(generationReport);
 
-                @Override
-                public Proxy newInstance(Object target) {
-                    return ProxyUtils.trust(() -> (Proxy) proxyClass.getConstructor(targetClass).newInstance(target));
-                }
-            };
+            return newProxyClass(dynamicClassLoader, targetClass, generationReport.variant);
         } catch (Exception e) {
             LOGGER.error("Could not proxy class {}", targetClass.getName());
             throw new RuntimeException(e);
         }
     }
 
+    private static <T> ProxyClass<T> newProxyClass(ProxyClassLoader dynamicClassLoader, Class<T> targetClass,
+            String variant) throws ReflectiveOperationException {
+        if (dynamicClassLoader.definition() == ClassDefinition.HIDDEN) {
+            return dynamicClassLoader.hiddenProxyClass(targetClass, variant);
+        }
+        @SuppressWarnings("unchecked")
+        Class<? extends ProxyClass<T>> factoryClass = (Class<? extends ProxyClass<T>>) dynamicClassLoader
+                .loadClass(ProxyFactoryGenerator.getName(targetClass, variant));
+        return factoryClass.getDeclaredConstructor().newInstance();
+    }
+
     /* @VisibleForTesting */
     static Method[] getMethods(Class<?> clazzToProxy) {
         Method[] methods = clazzToProxy.getMethods();
@@ -72,7 +142,10 @@ public final class ProxyBuilder {
                 // Get array of return types for each unique method
                 .map(lm -> lm.toArray(new Method[0]))
                 // Choose the narrowest each time
-                .map(ProxyBuilder::getNarrowest).toArray(Method[]::new);
+                .map(ProxyBuilder::getNarrowest)
+                // Method ids name generated classes, shared by all the proxy classes of a class loader
+                .sorted(METHOD_ORDER)
+                .toArray(Method[]::new);
 
     }
 
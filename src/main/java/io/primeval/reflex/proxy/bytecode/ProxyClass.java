@@ -1,9 +1,27 @@
 package io.primeval.reflex.proxy.bytecode;
 
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates the proxies of a proxy class. The implementations returned by {@link ProxyBuilder} are generated, and create
+ * each proxy with a plain constructor call.
+ */
 public interface ProxyClass<T> {
 
     Class<T> targetClass();
 
     Proxy newInstance(Object target);
 
+    /**
+     * Creates one proxy per target, in the order of {@code targets}.
+     */
+    default List<Proxy> newInstances(List<?> targets) {
+        List<Proxy> proxies = new ArrayList<>(targets.size());
+        for (Object target : targets) {
+            proxies.add(newInstance(target));
+        }
+        return proxies;
+    }
+
 }
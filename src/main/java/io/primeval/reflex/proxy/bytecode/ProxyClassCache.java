@@ -0,0 +1,71 @@
+package io.primeval.reflex.proxy.bytecode;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Proxy classes built in their own {@link ProxyClassLoader}, by target class, interfaces and interception predicate.
+ * <p>
+ * Entries are attached to their target class with a {@link ClassValue}: the cache does not keep target classes or
+ * their class loaders reachable, and entries are collected along with them.
+ */
+final class ProxyClassCache {
+
+    private static final ClassValue<Map<Key, ProxyClass<?>>> PROXY_CLASSES = new ClassValue<Map<Key, ProxyClass<?>>>() {
+        @Override
+        protected Map<Key, ProxyClass<?>> computeValue(Class<?> targetClass) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private ProxyClassCache() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> ProxyClass<T> get(Class<T> targetClass, Class<?>[] interfaces, Predicate<Method> shouldIntercept,
+            Supplier<ProxyClass<T>> builder) {
+        return (ProxyClass<T>) PROXY_CLASSES.get(targetClass)
+                .computeIfAbsent(new Key(interfaces.clone(), shouldIntercept), k -> builder.get());
+    }
+
+    private static final class Key {
+
+        private final Class<?>[] interfaces;
+        private final Predicate<Method> shouldIntercept;
+
+        Key(Class<?>[] interfaces, Predicate<Method> shouldIntercept) {
+            this.interfaces = interfaces;
+            this.shouldIntercept = shouldIntercept;
+        }
+
+        @Override
+        public int hashCode() {
+            final int prime = 31;
+            int result = 1;
+            result = prime * result + Arrays.hashCode(interfaces);
+            result = prime * result + shouldIntercept.hashCode();
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (obj == null)
+                return false;
+            if (getClass() != obj.getClass())
+                return false;
+            Key other = (Key) obj;
+            if (!Arrays.equals(interfaces, other.interfaces))
+                return false;
+            if (!shouldIntercept.equals(other.shouldIntercept))
+                return false;
+            return true;
+        }
+    }
+
+}
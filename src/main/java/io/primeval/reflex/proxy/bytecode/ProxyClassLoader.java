@@ -2,100 +2,494 @@ package io.primeval.reflex.proxy.bytecode;
 
 import static io.primeval.reflex.proxy.bytecode.ProxyUtils.trust;
 
+import java.io.IOException;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.ProtectionDomain;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.primeval.reflex.proxy.bytecode.gen.HiddenClassHostGenerator;
 import io.primeval.reflex.proxy.bytecode.gen.InterceptionHandlerGenerator;
 import io.primeval.reflex.proxy.bytecode.gen.MethodArgumentsGenerator;
 import io.primeval.reflex.proxy.bytecode.gen.MethodArgumentssUpdaterGenerator;
 import io.primeval.reflex.proxy.bytecode.gen.ProxyClassGenerator;
+import io.primeval.reflex.proxy.bytecode.gen.ProxyFactoryGenerator;
+import io.primeval.reflex.proxy.bytecode.gen.TrampolineGenerator;
 
+/**
+ * Defines the classes of proxy classes. It is parallel capable: classes are defined under a lock per class name, and
+ * proxy classes can be declared and loaded from any number of threads.
+ */
 public final class ProxyClassLoader extends ClassLoader {
 
-    private final Set<Class<?>> managedClasses = Collections.synchronizedSet(new HashSet<>());
+    static {
+        registerAsParallelCapable();
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProxyClassLoader.class);
+
+    // 64 bits of the digest of a configuration name its variant.
+    private static final int VARIANT_BYTES = 8;
+
+    // Configuration -> variant, computed along with the declaration of the classes of the variant.
+    private final Map<String, String> variants = new ConcurrentHashMap<>();
+    private final Set<String> variantNames = ConcurrentHashMap.newKeySet();
+    private final Map<String, Method> methodClasses = new ConcurrentHashMap<>();
+    // Declared classes, until they are defined.
     private final Map<String, Supplier<ClassDef>> classesToProxy = new ConcurrentHashMap<>();
+    // Hidden proxy classes, defined again if they were unloaded.
+    private final Map<String, Supplier<ClassDef>> hiddenProxyClasses = new ConcurrentHashMap<>();
+    private final Map<String, WeakReference<Class<?>>> definedHiddenProxyClasses = new ConcurrentHashMap<>();
+    private final Map<String, Class<?>> hiddenClassHosts = new ConcurrentHashMap<>();
+    private final BytecodeCache bytecodeCache;
+    private final ClassDefinition definition;
+    private volatile ProxyProfile recording;
 
     public ProxyClassLoader(ClassLoader parent) {
+        this(parent, null);
+    }
+
+    /**
+     * @param bytecodeCache
+     *            where to look for the bytecode of classes before generating them, and to store it after, or
+     *            {@code null} to always generate classes.
+     */
+    public ProxyClassLoader(ClassLoader parent, BytecodeCache bytecodeCache) {
+        this(parent, bytecodeCache, ClassDefinition.NAMED);
+    }
+
+    /**
+     * @param definition
+     *            how proxy classes are defined.
+     * @throws UnsupportedOperationException
+     *             if {@code definition} is {@link ClassDefinition#HIDDEN} before Java 15.
+     */
+    public ProxyClassLoader(ClassLoader parent, BytecodeCache bytecodeCache, ClassDefinition definition) {
         super(parent);
+        if (definition == ClassDefinition.HIDDEN && !HiddenClasses.isSupported()) {
+            throw new UnsupportedOperationException("Hidden classes require Java 15 or later");
+        }
+        this.bytecodeCache = bytecodeCache;
+        this.definition = definition;
+    }
+
+    public ClassDefinition definition() {
+        return definition;
     }
 
-    // We can add because we keep 1 classloader per bundle.
-    public void declareClassToProxy(Class<?> clazzToProxy, Class<?>[] interfaces, Method[] methods,
+    public String declareClassToProxy(Class<?> clazzToProxy, Class<?>[] interfaces, Method[] methods,
             Predicate<Method> shouldIntercept) {
-        if (managedClasses.add(clazzToProxy)) {
-            String classToProxyName = ProxyClassGenerator.getName(clazzToProxy);
-            classesToProxy.put(classToProxyName,
-                    () -> trust(() -> ClassDef.from(
-                            ProxyClassGenerator.create(clazzToProxy, interfaces, methods, shouldIntercept),
-                            clazzToProxy.getProtectionDomain())));
-            for (int methodId = 0; methodId < methods.length; methodId++) {
-                Method m = methods[methodId];
-                if (!shouldIntercept.test(m)) {
+        return declareClassToProxy(clazzToProxy, interfaces, methods, shouldIntercept, InterceptorBinding.FIELD);
+    }
+
+    public String declareClassToProxy(Class<?> clazzToProxy, Class<?>[] interfaces, Method[] methods,
+            Predicate<Method> shouldIntercept, InterceptorBinding binding) {
+        return declareClassToProxy(clazzToProxy, interfaces, methods, shouldIntercept, binding,
+                InterceptorDispatch.DIRECT);
+    }
+
+    /**
+     * Declares a variant of the proxy class of {@code clazzToProxy}. Variants are identified by their configuration:
+     * declaring the same configuration again returns the variant declared first, while different interfaces, methods,
+     * intercepted methods, binding or dispatch give a new variant, whose classes coexist with the others.
+     * <p>
+     * The classes generated for each intercepted method are shared by all the variants, which must therefore give the
+     * same id to a method: {@link ProxyBuilder} sorts methods for this purpose.
+     *
+     * @return the variant, naming the proxy class with {@link ProxyClassGenerator#getName(Class, String)} and its
+     *         factory with {@link ProxyFactoryGenerator#getName(Class, String)}.
+     * @throws IllegalArgumentException
+     *             if a method id was already used for another method of {@code clazzToProxy}.
+     */
+    public String declareClassToProxy(Class<?> clazzToProxy, Class<?>[] interfaces, Method[] methods,
+            Predicate<Method> shouldIntercept, InterceptorBinding binding, InterceptorDispatch dispatch) {
+        return declare(clazzToProxy, interfaces, methods, shouldIntercept, binding, dispatch).variant;
+    }
+
+    /**
+     * Declares a variant of the proxy class of {@code clazzToProxy} like
+     * {@link #declareClassToProxy(Class, Class[], Method[], Predicate, InterceptorBinding, InterceptorDispatch)}, but
+     * generates the bytecode of all its classes right away, in parallel on {@code pool}, then defines them in
+     * dependency order on the calling thread.
+     *
+     * @return the variant, and the time spent generating and defining classes.
+     */
+    public GenerationReport defineClassToProxy(Class<?> clazzToProxy, Class<?>[] interfaces, Method[] methods,
+            Predicate<Method> shouldIntercept, InterceptorBinding binding, InterceptorDispatch dispatch,
+            ForkJoinPool pool) {
+        Declaration declaration = declare(clazzToProxy, interfaces, methods, shouldIntercept, binding, dispatch);
+        return defineClasses(declaration.variant, declaration.classes, pool);
+    }
+
+    /**
+     * Starts recording the proxy classes declared from now on, and the classes of their intercepted methods that are
+     * loaded, to be written with {@link #writeProfile(Path)} at the end of a training run.
+     */
+    public synchronized void startRecording() {
+        // synchronized, so that concurrent calls do not discard each other's recording
+        if (recording == null) {
+            recording = new ProxyProfile();
+        }
+    }
+
+    /**
+     * Writes the proxy classes recorded since {@link #startRecording()}, to be replayed in later runs with
+     * {@link #replayProfile(Path, ForkJoinPool)}.
+     *
+     * @throws IllegalStateException
+     *             if this class loader is not recording.
+     */
+    public void writeProfile(Path file) throws IOException {
+        ProxyProfile profile = recording;
+        if (profile == null) {
+            throw new IllegalStateException("Not recording");
+        }
+        profile.write(file);
+    }
+
+    /**
+     * Declares the proxy classes of a profile written by {@link #writeProfile(Path)}, in the background on
+     * {@code pool}, and defines right away the proxy classes, their factories and the classes of the intercepted
+     * methods that were loaded during the training run. Other classes are generated lazily, as usual.
+     * <p>
+     * Proxy classes built later with the same configuration are the ones declared here. Proxy classes whose target
+     * class, interfaces or methods no longer exist are skipped.
+     *
+     * @return the variants declared, once their classes are defined.
+     */
+    public CompletableFuture<List<String>> replayProfile(Path file, ForkJoinPool pool) {
+        return CompletableFuture.supplyAsync(() -> {
+            ProxyProfile profile = trust(() -> ProxyProfile.read(file));
+            List<String> variants = new ArrayList<>();
+            Map<String, Supplier<ClassDef>> classes = new LinkedHashMap<>();
+            for (ProxyProfile.Entry entry : profile.entries()) {
+                Declaration declaration = entry.declare(this);
+                if (declaration == null) {
                     continue;
                 }
-                int methId = methodId;
-                String methodArgName = MethodArgumentsGenerator.getName(clazzToProxy, m, methodId);
-                classesToProxy.put(methodArgName,
-                        () -> trust(() -> ClassDef
-                                .from(MethodArgumentsGenerator.generateMethodArgs(clazzToProxy, m, methId),
-                                        clazzToProxy.getProtectionDomain())));
-
-                String methodArgUpdaterName = MethodArgumentssUpdaterGenerator.getName(clazzToProxy, m, methodId);
-                classesToProxy.put(methodArgUpdaterName,
-                        () -> trust(() -> ClassDef
-                                .from(MethodArgumentssUpdaterGenerator.generateMethodArgsUpdater(clazzToProxy, m,
-                                        methId), clazzToProxy.getProtectionDomain())));
-
-                String methodInterceptionHandlerName = InterceptionHandlerGenerator.getName(
-                        clazzToProxy, m,
-                        methodId);
-                classesToProxy.put(methodInterceptionHandlerName,
-                        () -> trust(() -> ClassDef.from(InterceptionHandlerGenerator
-                                .generateMethodInterceptionHandler(clazzToProxy, m,
-                                        methId),
+                variants.add(declaration.variant);
+                declaration.classes.forEach((name, bytecodeSupplier) -> {
+                    if (!methodClasses.containsKey(name) || profile.isLoaded(name)) {
+                        classes.put(name, bytecodeSupplier);
+                    }
+                });
+            }
+            GenerationReport report = defineClasses(null, classes, pool);
+            LOGGER.debug("Replayed {} proxy classes from {}: {}", variants.size(), file, report);
+            return variants;
+        }, pool);
+    }
+
+    // Generates the bytecode of classes in parallel, and defines them in order on the calling thread.
+    private GenerationReport defineClasses(String variant, Map<String, Supplier<ClassDef>> classes,
+            ForkJoinPool pool) {
+        long start = System.nanoTime();
+        List<ForkJoinTask<ClassDef>> tasks = new ArrayList<>(classes.size());
+        for (Supplier<ClassDef> bytecodeSupplier : classes.values()) {
+            tasks.add(pool.submit(bytecodeSupplier::get));
+        }
+        List<ClassDef> classDefs = new ArrayList<>(tasks.size());
+        for (ForkJoinTask<ClassDef> task : tasks) {
+            classDefs.add(task.join());
+        }
+        long generated = System.nanoTime();
+
+        int i = 0;
+        for (String name : classes.keySet()) {
+            ClassDef classDef = classDefs.get(i++);
+            // unless another thread loaded it in the meantime
+            defineProxyClass(name, () -> classDef);
+        }
+        long defined = System.nanoTime();
+
+        return new GenerationReport(variant, classDefs.size(), generated - start, defined - generated);
+    }
+
+    // The classes of a variant that are not declared yet, in dependency order.
+    Declaration declare(Class<?> clazzToProxy, Class<?>[] interfaces, Method[] methods,
+            Predicate<Method> shouldIntercept, InterceptorBinding binding, InterceptorDispatch dispatch) {
+        // Tested once, so that the generated classes match the configuration.
+        boolean[] intercepted = new boolean[methods.length];
+        Set<Method> interceptedMethods = new HashSet<>();
+        for (int methodId = 0; methodId < methods.length; methodId++) {
+            intercepted[methodId] = shouldIntercept.test(methods[methodId]);
+            if (intercepted[methodId]) {
+                interceptedMethods.add(methods[methodId]);
+            }
+        }
+        String configuration = configuration(clazzToProxy, interfaces, methods, intercepted, binding, dispatch);
+        Map<String, Supplier<ClassDef>> classes = new LinkedHashMap<>();
+        // Concurrent declarations of the same configuration wait until its classes are declared.
+        String variant = variants.computeIfAbsent(configuration, c -> {
+            String newVariant = newVariant(c);
+            try {
+                declareClasses(classes, c, clazzToProxy, newVariant, interfaces, methods, intercepted,
+                        interceptedMethods, binding, dispatch);
+            } catch (RuntimeException | Error e) {
+                // Not declared: neither its name nor its classes are taken, so that declaring it again fails the same
+                // way and other variants may declare these classes.
+                undeclare(classes, newVariant);
+                throw e;
+            }
+            return newVariant;
+        });
+        ProxyProfile profile = recording;
+        if (profile != null) {
+            profile.declared(configuration, clazzToProxy, interfaces, methods, intercepted, binding, dispatch);
+        }
+        return new Declaration(variant, classes);
+    }
+
+    private void declareClasses(Map<String, Supplier<ClassDef>> classes, String configuration,
+            Class<?> clazzToProxy, String variant, Class<?>[] interfaces, Method[] methods, boolean[] intercepted,
+            Set<Method> interceptedMethods, InterceptorBinding binding, InterceptorDispatch dispatch) {
+        Supplier<String> proxyStructure = () -> {
+            StringBuilder structure = new StringBuilder(configuration);
+            structure.append(Structures.of(clazzToProxy));
+            for (Method m : methods) {
+                structure.append(Structures.of(m));
+            }
+            return structure.toString();
+        };
+        String proxyName = ProxyClassGenerator.getName(clazzToProxy, variant);
+        if (definition != ClassDefinition.HIDDEN
+                && isShared(clazzToProxy, variant, methods, intercepted, dispatch, proxyStructure)) {
+            // loaded by the parent class loader, where class data sharing can archive them
+            return;
+        }
+        for (int methodId = 0; methodId < methods.length; methodId++) {
+            Method m = methods[methodId];
+            if (!intercepted[methodId]) {
+                continue;
+            }
+            int methId = methodId;
+            declareMethodClass(classes, clazzToProxy, MethodArgumentsGenerator.getName(clazzToProxy, m, methodId), m,
+                    () -> trust(() -> ClassDef
+                            .from(MethodArgumentsGenerator.generateMethodArgs(clazzToProxy, m, methId),
+                                    clazzToProxy.getProtectionDomain())));
+
+            declareMethodClass(classes, clazzToProxy, MethodArgumentssUpdaterGenerator.getName(clazzToProxy, m, methodId), m,
+                    () -> trust(() -> ClassDef
+                            .from(MethodArgumentssUpdaterGenerator.generateMethodArgsUpdater(clazzToProxy, m,
+                                    methId), clazzToProxy.getProtectionDomain())));
+
+            // After its arguments class, which it extends.
+            declareMethodClass(classes, clazzToProxy, InterceptionHandlerGenerator.getName(clazzToProxy, m, methodId), m,
+                    () -> trust(() -> ClassDef.from(InterceptionHandlerGenerator
+                            .generateMethodInterceptionHandler(clazzToProxy, m,
+                                    methId),
+                            clazzToProxy.getProtectionDomain())));
+
+            if (dispatch == InterceptorDispatch.TRAMPOLINE) {
+                declareMethodClass(classes, clazzToProxy, TrampolineGenerator.getName(clazzToProxy, m, methodId), m,
+                        () -> trust(() -> ClassDef.from(
+                                TrampolineGenerator.generateTrampoline(clazzToProxy, m, methId),
                                 clazzToProxy.getProtectionDomain())));
             }
         }
+        Supplier<ClassDef> proxySupplier = () -> trust(() -> ClassDef.from(
+                ProxyClassGenerator.create(clazzToProxy, variant, interfaces, methods,
+                        interceptedMethods::contains, binding, dispatch),
+                clazzToProxy.getProtectionDomain()));
+        if (definition == ClassDefinition.HIDDEN) {
+            // no factory, it could not name the proxy class
+            hiddenClassHosts.computeIfAbsent(HiddenClassHostGenerator.getName(clazzToProxy), n -> {
+                declareClass(classes, clazzToProxy, n, () -> "", () -> ClassDef.from(
+                        HiddenClassHostGenerator.generateHost(clazzToProxy), clazzToProxy.getProtectionDomain()));
+                return clazzToProxy;
+            });
+            hiddenProxyClasses.put(proxyName,
+                    bytecodeSupplier(clazzToProxy, proxyName, proxyStructure, proxySupplier));
+            return;
+        }
+        declareClass(classes, clazzToProxy, proxyName, proxyStructure, proxySupplier);
+        declareClass(classes, clazzToProxy, ProxyFactoryGenerator.getName(clazzToProxy, variant), () -> "",
+                () -> ClassDef.from(ProxyFactoryGenerator.generateProxyFactory(clazzToProxy, variant),
+                        clazzToProxy.getProtectionDomain()));
+    }
+
+    private void undeclare(Map<String, Supplier<ClassDef>> classes, String variant) {
+        for (String className : classes.keySet()) {
+            methodClasses.remove(className);
+            hiddenClassHosts.remove(className);
+            classesToProxy.remove(className);
+        }
+        classes.clear();
+        variantNames.remove(variant);
+    }
+
+    private void declareMethodClass(Map<String, Supplier<ClassDef>> classes, Class<?> clazzToProxy,
+            String className, Method method, Supplier<ClassDef> bytecodeSupplier) {
+        // Shared by variants declared concurrently, which wait until it is declared.
+        Method declared = methodClasses.computeIfAbsent(className, n -> {
+            declareClass(classes, clazzToProxy, n, () -> Structures.of(method), bytecodeSupplier);
+            return method;
+        });
+        if (!declared.equals(method)) {
+            throw new IllegalArgumentException(
+                    "Class " + className + " is already declared for method " + declared + ", not " + method);
+        }
+    }
+
+    // Whether the parent class loader loads all the classes of a variant from a shared jar, such as one written after a
+    // run that only loaded some of them. A variant is shared as a whole or not at all: its classes link against each
+    // other by name, through the class loader of the proxy class. Hidden proxy classes cannot be archived, and are
+    // never shared.
+    private boolean isShared(Class<?> clazzToProxy, String variant, Method[] methods, boolean[] intercepted,
+            InterceptorDispatch dispatch, Supplier<String> proxyStructure) {
+        ClassLoader parent = getParent();
+        if (!BytecodeCache.isShared(parent, ProxyClassGenerator.getName(clazzToProxy, variant), proxyStructure)
+                || !BytecodeCache.isShared(parent, ProxyFactoryGenerator.getName(clazzToProxy, variant), () -> "")) {
+            return false;
+        }
+        for (int methodId = 0; methodId < methods.length; methodId++) {
+            if (!intercepted[methodId]) {
+                continue;
+            }
+            Method m = methods[methodId];
+            Supplier<String> structure = () -> Structures.of(m);
+            if (!BytecodeCache.isShared(parent, MethodArgumentsGenerator.getName(clazzToProxy, m, methodId), structure)
+                    || !BytecodeCache.isShared(parent,
+                            MethodArgumentssUpdaterGenerator.getName(clazzToProxy, m, methodId), structure)
+                    || !BytecodeCache.isShared(parent, InterceptionHandlerGenerator.getName(clazzToProxy, m, methodId),
+                            structure)
+                    || dispatch == InterceptorDispatch.TRAMPOLINE && !BytecodeCache.isShared(parent,
+                            TrampolineGenerator.getName(clazzToProxy, m, methodId), structure)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The structure identifies what the class is generated from, besides its name, for the bytecode cache. It is only
+    // computed if the class is found in a cache or a resource.
+    private void declareClass(Map<String, Supplier<ClassDef>> classes, Class<?> clazzToProxy, String className,
+            Supplier<String> structure, Supplier<ClassDef> bytecodeSupplier) {
+        Supplier<ClassDef> supplier = bytecodeSupplier(clazzToProxy, className, structure, bytecodeSupplier);
+        classes.put(className, supplier);
+        classesToProxy.put(className, supplier);
+    }
+
+    // Pregenerated or cached bytecode, if any.
+    private Supplier<ClassDef> bytecodeSupplier(Class<?> clazzToProxy, String className, Supplier<String> structure,
+            Supplier<ClassDef> bytecodeSupplier) {
+        return () -> {
+            ProtectionDomain pd = clazzToProxy.getProtectionDomain();
+            ClassDef pregenerated = BytecodeCache.getResource(getParent(), className, structure, pd);
+            if (pregenerated != null) {
+                return pregenerated;
+            }
+            return bytecodeCache == null ? bytecodeSupplier.get()
+                    : bytecodeCache.get(className, structure.get(), pd, bytecodeSupplier);
+        };
+    }
+
+    /**
+     * The proxy class of a variant declared with {@link ClassDefinition#HIDDEN}, defined as a hidden class unless it is
+     * still reachable, from a {@link ProxyClass} or from one of its proxies.
+     */
+    <T> ProxyClass<T> hiddenProxyClass(Class<T> clazzToProxy, String variant) throws ReflectiveOperationException {
+        String name = ProxyClassGenerator.getName(clazzToProxy, variant);
+        synchronized (getClassLoadingLock(name)) {
+            Method lookup = loadClass(HiddenClassHostGenerator.getName(clazzToProxy)).getDeclaredMethod("lookup");
+            lookup.setAccessible(true);
+            Lookup host = (Lookup) lookup.invoke(null);
+            WeakReference<Class<?>> defined = definedHiddenProxyClasses.get(name);
+            Class<?> hiddenClass = defined != null ? defined.get() : null;
+            if (hiddenClass == null) {
+                ClassDef classDef = hiddenProxyClasses.get(name).get();
+                byte[] bytecode = new byte[classDef.bytecode.remaining()];
+                classDef.bytecode.duplicate().get(bytecode);
+                hiddenClass = HiddenClasses.defineHiddenClass(host, bytecode).lookupClass();
+                definedHiddenProxyClasses.put(name, new WeakReference<>(hiddenClass));
+            }
+            return new HiddenProxyClass<T>(clazzToProxy, host, hiddenClass);
+        }
+    }
+
+    // Named after a digest of the configuration alone, so that a variant keeps its name from one run to the next
+    // whatever the order configurations are declared in: caches, resources and shared jars find classes by name.
+    private String newVariant(String configuration) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM supports SHA-256
+            throw new IllegalStateException(e);
+        }
+        byte[] hash = digest.digest(configuration.getBytes(StandardCharsets.UTF_8));
+        StringBuilder variant = new StringBuilder(2 * VARIANT_BYTES);
+        for (int i = 0; i < VARIANT_BYTES; i++) {
+            variant.append(Character.forDigit((hash[i] >> 4) & 0xf, 16))
+                    .append(Character.forDigit(hash[i] & 0xf, 16));
+        }
+        if (!variantNames.add(variant.toString())) {
+            throw new IllegalStateException("Variant " + variant + " of " + configuration + " is already taken");
+        }
+        return variant.toString();
+    }
+
+    private static String configuration(Class<?> clazzToProxy, Class<?>[] interfaces, Method[] methods,
+            boolean[] intercepted, InterceptorBinding binding, InterceptorDispatch dispatch) {
+        StringBuilder buf = new StringBuilder(clazzToProxy.getName());
+        for (Class<?> itf : interfaces) {
+            buf.append(',').append(itf.getName());
+        }
+        for (int methodId = 0; methodId < methods.length; methodId++) {
+            buf.append(intercepted[methodId] ? ";+" : ";-").append(methods[methodId]);
+        }
+        return buf.append(';').append(binding).append(';').append(dispatch).toString();
     }
 
     @Override
     protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
-        // We remove, since classes are loaded only once.
-        Supplier<ClassDef> bytecodeSupplier = classesToProxy.remove(name);
+        ProxyProfile profile = recording;
+        if (profile != null && methodClasses.containsKey(name)) {
+            profile.loaded(name);
+        }
+        Supplier<ClassDef> bytecodeSupplier = classesToProxy.get(name);
         if (bytecodeSupplier != null) {
-            ClassDef classDef = bytecodeSupplier.get();
-            byte[] bytecode = classDef.bytecode;
-            Class<?> defineClass = defineClass(name, bytecode, 0, bytecode.length, classDef.pd);
+            Class<?> proxyClass = defineProxyClass(name, bytecodeSupplier);
             if (resolve) {
-                resolveClass(defineClass);
+                resolveClass(proxyClass);
             }
-            return defineClass;
+            return proxyClass;
         } else {
             return super.loadClass(name, resolve);
         }
     }
 
-}
-
-final class ClassDef {
-    public final byte[] bytecode;
-    public final ProtectionDomain pd;
-
-    private ClassDef(byte[] bytecode, ProtectionDomain pd) {
-        super();
-        this.bytecode = bytecode;
-        this.pd = pd;
-    }
-
-    public static ClassDef from(byte[] bytecode, ProtectionDomain pd) {
-        return new ClassDef(bytecode, pd);
+    // Classes are defined once: threads loading the same class wait for the first one to define it.
+    private Class<?> defineProxyClass(String name, Supplier<ClassDef> bytecodeSupplier) {
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> loaded = findLoadedClass(name);
+            if (loaded != null) {
+                return loaded;
+            }
+            ClassDef classDef = bytecodeSupplier.get();
+            Class<?> defined = defineClass(name, classDef.bytecode, classDef.pd);
+            classesToProxy.remove(name);
+            return defined;
+        }
     }
 
-}
\ No newline at end of file
+}
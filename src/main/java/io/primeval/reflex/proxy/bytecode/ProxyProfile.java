@@ -0,0 +1,191 @@
+package io.primeval.reflex.proxy.bytecode;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The proxy classes declared in a {@link ProxyClassLoader} during a training run, and the classes of their
+ * intercepted methods that were actually loaded. See {@link ProxyClassLoader#startRecording()}.
+ * <p>
+ * It is stored as a gzipped binary file. Classes and methods are stored by name, and resolved again when the profile
+ * is replayed: configurations whose classes or methods no longer exist are skipped.
+ */
+final class ProxyProfile {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProxyProfile.class);
+
+    private static final int MAGIC = 0x52464c58;
+    private static final int VERSION = 1;
+
+    // Configuration -> proxy class, in declaration order.
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private final Set<String> loadedClasses = ConcurrentHashMap.newKeySet();
+
+    void declared(String configuration, Class<?> clazzToProxy, Class<?>[] interfaces, Method[] methods,
+            boolean[] intercepted, InterceptorBinding binding, InterceptorDispatch dispatch) {
+        synchronized (entries) {
+            if (!entries.containsKey(configuration)) {
+                String[] interfaceNames = new String[interfaces.length];
+                for (int i = 0; i < interfaces.length; i++) {
+                    interfaceNames[i] = interfaces[i].getName();
+                }
+                String[] methodNames = new String[methods.length];
+                for (int i = 0; i < methods.length; i++) {
+                    methodNames[i] = methods[i].toString();
+                }
+                entries.put(configuration, new Entry(clazzToProxy.getName(), interfaceNames, methodNames,
+                        intercepted.clone(), binding, dispatch));
+            }
+        }
+    }
+
+    void loaded(String className) {
+        loadedClasses.add(className);
+    }
+
+    boolean isLoaded(String className) {
+        return loadedClasses.contains(className);
+    }
+
+    List<Entry> entries() {
+        synchronized (entries) {
+            return new ArrayList<>(entries.values());
+        }
+    }
+
+    void write(Path file) throws IOException {
+        List<Entry> entries = entries();
+        List<String> loadedClasses = new ArrayList<>(this.loadedClasses);
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(file))))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(entries.size());
+            for (Entry entry : entries) {
+                out.writeUTF(entry.targetClass);
+                out.writeInt(entry.interfaces.length);
+                for (String itf : entry.interfaces) {
+                    out.writeUTF(itf);
+                }
+                out.writeInt(entry.methods.length);
+                for (int i = 0; i < entry.methods.length; i++) {
+                    out.writeBoolean(entry.intercepted[i]);
+                    out.writeUTF(entry.methods[i]);
+                }
+                out.writeUTF(entry.binding.name());
+                out.writeUTF(entry.dispatch.name());
+            }
+            out.writeInt(loadedClasses.size());
+            for (String className : loadedClasses) {
+                out.writeUTF(className);
+            }
+        }
+    }
+
+    static ProxyProfile read(Path file) throws IOException {
+        ProxyProfile profile = new ProxyProfile();
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a proxy profile: " + file);
+            }
+            int entryCount = in.readInt();
+            for (int e = 0; e < entryCount; e++) {
+                String targetClass = in.readUTF();
+                String[] interfaces = new String[in.readInt()];
+                for (int i = 0; i < interfaces.length; i++) {
+                    interfaces[i] = in.readUTF();
+                }
+                String[] methods = new String[in.readInt()];
+                boolean[] intercepted = new boolean[methods.length];
+                for (int i = 0; i < methods.length; i++) {
+                    intercepted[i] = in.readBoolean();
+                    methods[i] = in.readUTF();
+                }
+                InterceptorBinding binding = InterceptorBinding.valueOf(in.readUTF());
+                InterceptorDispatch dispatch = InterceptorDispatch.valueOf(in.readUTF());
+                profile.entries.put(Integer.toString(e),
+                        new Entry(targetClass, interfaces, methods, intercepted, binding, dispatch));
+            }
+            int loadedCount = in.readInt();
+            for (int i = 0; i < loadedCount; i++) {
+                profile.loadedClasses.add(in.readUTF());
+            }
+        }
+        return profile;
+    }
+
+    static final class Entry {
+        final String targetClass;
+        final String[] interfaces;
+        final String[] methods;
+        final boolean[] intercepted;
+        final InterceptorBinding binding;
+        final InterceptorDispatch dispatch;
+
+        Entry(String targetClass, String[] interfaces, String[] methods, boolean[] intercepted,
+                InterceptorBinding binding, InterceptorDispatch dispatch) {
+            this.targetClass = targetClass;
+            this.interfaces = interfaces;
+            this.methods = methods;
+            this.intercepted = intercepted;
+            this.binding = binding;
+            this.dispatch = dispatch;
+        }
+
+        /**
+         * Declares this proxy class in {@code classLoader} again, or returns {@code null} if its classes or methods no
+         * longer exist.
+         */
+        Declaration declare(ProxyClassLoader classLoader) {
+            try {
+                Class<?> clazzToProxy = Class.forName(targetClass, false, classLoader);
+                Class<?>[] interfaceClasses = new Class<?>[interfaces.length];
+                for (int i = 0; i < interfaces.length; i++) {
+                    interfaceClasses[i] = Class.forName(interfaces[i], false, classLoader);
+                }
+                Map<String, Method> methodsByName = new HashMap<>();
+                for (Method m : ProxyBuilder.getMethods(clazzToProxy)) {
+                    methodsByName.put(m.toString(), m);
+                }
+                Method[] methodObjects = new Method[methods.length];
+                Set<Method> interceptedMethods = new HashSet<>();
+                for (int i = 0; i < methods.length; i++) {
+                    methodObjects[i] = methodsByName.get(methods[i]);
+                    if (methodObjects[i] == null) {
+                        LOGGER.debug("Skipping profiled proxy class of {}: no method {}", targetClass, methods[i]);
+                        return null;
+                    }
+                    if (intercepted[i]) {
+                        interceptedMethods.add(methodObjects[i]);
+                    }
+                }
+                return classLoader.declare(clazzToProxy, interfaceClasses, methodObjects,
+                        interceptedMethods::contains, binding, dispatch);
+            } catch (ClassNotFoundException | LinkageError e) {
+                LOGGER.debug("Skipping profiled proxy class of {}: {}", targetClass, e.toString());
+                return null;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,128 @@
+package io.primeval.reflex.proxy.bytecode;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import org.objectweb.asm.Type;
+
+import io.primeval.reflex.proxy.bytecode.gen.BytecodeGenUtils;
+
+/**
+ * Encodings of what generated classes are generated from, hashed by {@link BytecodeCache}: descriptors, generic
+ * signatures, parameter names, and annotations with their values. Unlike the {@code toString()} of reflection objects,
+ * whose format is unspecified, they do not change from one JDK release to another.
+ */
+final class Structures {
+
+    private Structures() {
+    }
+
+    /**
+     * The structure of the classes generated for {@code method}.
+     */
+    static String of(Method method) {
+        StringBuilder buf = new StringBuilder();
+        buf.append(method.getDeclaringClass().getName()).append('.').append(method.getName())
+                .append(Type.getMethodDescriptor(method));
+        buf.append(';').append(nullToEmpty(BytecodeGenUtils.getMethodSignature(method))).append(';');
+        for (Class<?> exceptionType : method.getExceptionTypes()) {
+            buf.append(exceptionType.getName()).append(',');
+        }
+        buf.append(';');
+        for (Parameter parameter : method.getParameters()) {
+            buf.append(parameter.getName()).append(',');
+        }
+        appendAnnotations(buf, method.getAnnotations());
+        for (Annotation[] parameterAnnotations : method.getParameterAnnotations()) {
+            appendAnnotations(buf, parameterAnnotations);
+        }
+        return buf.toString();
+    }
+
+    /**
+     * The structure of the proxy classes of {@code clazz}, besides their configuration and methods.
+     */
+    static String of(Class<?> clazz) {
+        StringBuilder buf = new StringBuilder();
+        buf.append(nullToEmpty(BytecodeGenUtils.getTypeSignature(clazz)));
+        appendAnnotations(buf, clazz.getDeclaredAnnotations());
+        return buf.toString();
+    }
+
+    private static String nullToEmpty(String signature) {
+        return signature != null ? signature : "";
+    }
+
+    private static void appendAnnotations(StringBuilder buf, Annotation[] annotations) {
+        buf.append('[');
+        for (Annotation annotation : annotations) {
+            appendAnnotation(buf, annotation);
+        }
+        buf.append(']');
+    }
+
+    // @type(element=value,...), with elements sorted by name.
+    private static void appendAnnotation(StringBuilder buf, Annotation annotation) {
+        Class<? extends Annotation> type = annotation.annotationType();
+        buf.append('@').append(type.getName()).append('(');
+        Method[] elements = type.getDeclaredMethods();
+        Arrays.sort(elements, Comparator.comparing(Method::getName));
+        for (Method element : elements) {
+            if (element.getParameterCount() != 0 || element.isSynthetic()
+                    || Modifier.isStatic(element.getModifiers())) {
+                continue;
+            }
+            buf.append(element.getName()).append('=');
+            appendValue(buf, elementValue(annotation, element));
+            buf.append(',');
+        }
+        buf.append(')');
+    }
+
+    private static Object elementValue(Annotation annotation, Method element) {
+        try {
+            if (!Modifier.isPublic(element.getDeclaringClass().getModifiers())) {
+                element.setAccessible(true);
+            }
+            return element.invoke(annotation);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // not readable here, the best remaining encoding
+            return annotation.toString();
+        }
+    }
+
+    private static void appendValue(StringBuilder buf, Object value) {
+        if (value instanceof String) {
+            String string = (String) value;
+            buf.append('"').append(string.length()).append(':').append(string);
+        } else if (value instanceof Class) {
+            buf.append(((Class<?>) value).getName()).append(".class");
+        } else if (value instanceof Enum) {
+            Enum<?> constant = (Enum<?>) value;
+            buf.append(constant.getDeclaringClass().getName()).append('.').append(constant.name());
+        } else if (value instanceof Annotation) {
+            appendAnnotation(buf, (Annotation) value);
+        } else if (value.getClass().isArray()) {
+            buf.append('{');
+            for (int i = 0, length = Array.getLength(value); i < length; i++) {
+                appendValue(buf, Array.get(value, i));
+                buf.append(',');
+            }
+            buf.append('}');
+        } else if (value instanceof Float) {
+            // the decimal form of floating-point numbers changed in Java 19
+            buf.append(Integer.toHexString(Float.floatToIntBits((Float) value)));
+        } else if (value instanceof Double) {
+            buf.append(Long.toHexString(Double.doubleToLongBits((Double) value)));
+        } else {
+            // other primitive wrappers
+            buf.append(value);
+        }
+    }
+
+}
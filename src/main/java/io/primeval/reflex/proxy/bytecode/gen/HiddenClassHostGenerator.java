@@ -0,0 +1,46 @@
+package io.primeval.reflex.proxy.bytecode.gen;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/**
+ * Generates the host of the hidden proxy classes of a class to proxy: a class of the same package, defined by the
+ * {@link io.primeval.reflex.proxy.bytecode.ProxyClassLoader}, whose package-private static {@code lookup()} method
+ * returns the lookup the hidden classes are defined with.
+ */
+public final class HiddenClassHostGenerator implements Opcodes {
+
+    public static final String SUFFIX = "$ProxyHost";
+
+    private static final String LOOKUP_DESCRIPTOR = "()Ljava/lang/invoke/MethodHandles$Lookup;";
+
+    public static String getName(Class<?> classToProxy) {
+        return classToProxy.getName() + SUFFIX;
+    }
+
+    public static byte[] generateHost(Class<?> classToProxy) {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+
+        String selfClassInternalName = Type.getInternalName(classToProxy) + SUFFIX;
+
+        cw.visit(52, ACC_FINAL + ACC_SUPER + ACC_SYNTHETIC, selfClassInternalName, null, "java/lang/Object", null);
+        cw.visitSource("@host@primeval", null);
+        cw.visitInnerClass("java/lang/invoke/MethodHandles$Lookup", "java/lang/invoke/MethodHandles", "Lookup",
+                ACC_PUBLIC + ACC_FINAL + ACC_STATIC);
+
+        {
+            MethodVisitor mv = cw.visitMethod(ACC_STATIC + ACC_SYNTHETIC, "lookup", LOOKUP_DESCRIPTOR, null, null);
+            mv.visitCode();
+            mv.visitMethodInsn(INVOKESTATIC, "java/lang/invoke/MethodHandles", "lookup", LOOKUP_DESCRIPTOR, false);
+            mv.visitInsn(ARETURN);
+            mv.visitMaxs(-1, -1);
+            mv.visitEnd();
+        }
+        cw.visitEnd();
+
+        return cw.toByteArray();
+    }
+
+}
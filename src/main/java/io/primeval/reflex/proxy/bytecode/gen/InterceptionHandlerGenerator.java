@@ -1,7 +1,12 @@
 package io.primeval.reflex.proxy.bytecode.gen;
 
+import static io.primeval.reflex.proxy.bytecode.gen.BytecodeGenUtils.getLoadCode;
+import static io.primeval.reflex.proxy.bytecode.gen.BytecodeGenUtils.getTypeSize;
+
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.util.List;
+import java.util.stream.Stream;
 
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.FieldVisitor;
@@ -14,6 +19,8 @@ public final class InterceptionHandlerGenerator implements Opcodes {
 
     public static final String SUFFIX_START = "$handlerFor$";
 
+    private static final String BOXED_HANDLER_INTERNAL_NAME = "io/primeval/reflex/proxy/handler/InterceptionHandler";
+
     public static String getName(Class<?> classToProxy, Method method, int methodId) {
         String suffix = SUFFIX_START + method.getName() + methodId;
         return classToProxy.getName() + suffix;
@@ -42,8 +49,23 @@ public final class InterceptionHandlerGenerator implements Opcodes {
         String argsClassDescriptor = BytecodeGenUtils.makeSuffixClassDescriptor(classToProxyDescriptor, argsSuffix);
 
         Parameter[] parameters = method.getParameters();
-        cw.visit(52, ACC_PUBLIC + ACC_FINAL + ACC_SUPER, selfClassInternalName, null, "java/lang/Object",
-                new String[] { interceptionHandlerClassInternalName });
+        // The handler of a method with parameters is also its arguments, so that a call allocates a single object.
+        String superClassInternalName = parameters.length == 0 ? "java/lang/Object" : argsClassInternalName;
+        String[] interfaces;
+        String signature;
+        if (returnType.isPrimitive()) {
+            // Primitive handlers are also their boxed handler: the JVM tells both invoke methods apart by their
+            // return type.
+            interfaces = new String[] { interceptionHandlerClassInternalName, BOXED_HANDLER_INTERNAL_NAME };
+            signature = "L" + superClassInternalName + ";L" + interceptionHandlerClassInternalName + ";L"
+                    + BOXED_HANDLER_INTERNAL_NAME + "<" + Type.getDescriptor(BytecodeGenUtils.getBoxed(returnType))
+                    + ">;";
+        } else {
+            interfaces = new String[] { interceptionHandlerClassInternalName };
+            signature = null;
+        }
+        cw.visit(52, ACC_PUBLIC + ACC_FINAL + ACC_SUPER, selfClassInternalName, signature, superClassInternalName,
+                interfaces);
 
         cw.visitSource("@proxyhandler@primeval", null);
 
@@ -51,44 +73,50 @@ public final class InterceptionHandlerGenerator implements Opcodes {
             fv = cw.visitField(ACC_PRIVATE + ACC_FINAL, "delegate", classToProxyDescriptor, null, null);
             fv.visitEnd();
         }
-        if (parameters.length > 0) {
-            fv = cw.visitField(ACC_PRIVATE + ACC_FINAL, "arguments", argsClassDescriptor,
-                    null, null);
-            fv.visitEnd();
-        }
 
         {
-            if (parameters.length == 0) {
-                mv = cw.visitMethod(ACC_PUBLIC, "<init>", "(" + classToProxyDescriptor + ")V", null,
-                        null);
-            } else {
-                mv = cw.visitMethod(ACC_PUBLIC, "<init>",
-                        "(" + classToProxyDescriptor + argsClassDescriptor + ")V", null,
-                        null);
-            }
+            String argsConstDesc = Type.getMethodDescriptor(Type.VOID_TYPE,
+                    Stream.concat(Stream.of(List.class), Stream.of(method.getParameterTypes())).map(Type::getType)
+                            .toArray(Type[]::new));
+            String constDesc = Type.getMethodDescriptor(Type.VOID_TYPE,
+                    Stream.concat(Stream.of(classToProxy),
+                            parameters.length == 0 ? Stream.empty()
+                                    : Stream.concat(Stream.of(List.class), Stream.of(method.getParameterTypes())))
+                            .map(Type::getType)
+                            .toArray(Type[]::new));
+            mv = cw.visitMethod(ACC_PUBLIC, "<init>", constDesc, null, null);
             mv.visitParameter("delegate", 0);
+            int[] paramIndices = new int[parameters.length];
+            int nextVarIndex = 3; // 0 = "this", 1 = "delegate", 2 = "parameters"
             if (parameters.length > 0) {
-                mv.visitParameter("arguments", 0);
+                mv.visitParameter("parameters", 0);
+                for (int i = 0; i < parameters.length; i++) {
+                    Parameter param = parameters[i];
+                    paramIndices[i] = nextVarIndex;
+                    mv.visitParameter(param.getName(), 0);
+                    nextVarIndex += getTypeSize(param.getType());
+                }
             }
             mv.visitCode();
             Label l0 = new Label();
             mv.visitLabel(l0);
             mv.visitLineNumber(10, l0);
             mv.visitVarInsn(ALOAD, 0);
-            mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+            if (parameters.length == 0) {
+                mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+            } else {
+                mv.visitVarInsn(ALOAD, 2);
+                for (int i = 0; i < parameters.length; i++) {
+                    mv.visitVarInsn(getLoadCode(parameters[i].getType()), paramIndices[i]);
+                }
+                mv.visitMethodInsn(INVOKESPECIAL, argsClassInternalName, "<init>", argsConstDesc, false);
+            }
             Label l1 = new Label();
             mv.visitLabel(l1);
             mv.visitVarInsn(ALOAD, 0);
             mv.visitVarInsn(ALOAD, 1);
             mv.visitFieldInsn(PUTFIELD, selfClassInternalName, "delegate",
                     classToProxyDescriptor);
-            if (parameters.length > 0) {
-                Label l1b = new Label();
-                mv.visitLabel(l1b);
-                mv.visitVarInsn(ALOAD, 0);
-                mv.visitVarInsn(ALOAD, 2);
-                mv.visitFieldInsn(PUTFIELD, selfClassInternalName, "arguments", argsClassDescriptor);
-            }
             Label l2 = new Label();
             mv.visitLabel(l2);
             mv.visitLineNumber(12, l2);
@@ -100,7 +128,13 @@ public final class InterceptionHandlerGenerator implements Opcodes {
             mv.visitLocalVariable("delegate", classToProxyDescriptor, null, l0, l3,
                     1);
             if (parameters.length > 0) {
-                mv.visitLocalVariable("arguments", argsClassDescriptor, null, l0, l3, 2);
+                mv.visitLocalVariable("parameters", "Ljava/util/List;",
+                        "Ljava/util/List<Ljava/lang/reflect/Parameter;>;", l0, l3, 2);
+                for (int i = 0; i < parameters.length; i++) {
+                    Parameter param = parameters[i];
+                    mv.visitLocalVariable(param.getName(), Type.getDescriptor(param.getType()), null, l0, l3,
+                            paramIndices[i]);
+                }
             }
             mv.visitMaxs(-1, -1);
             mv.visitEnd();
@@ -116,8 +150,8 @@ public final class InterceptionHandlerGenerator implements Opcodes {
                 mv.visitFieldInsn(GETSTATIC, "io/primeval/reflex/arguments/Arguments", "EMPTY_ARGUMENTS",
                         "Lio/primeval/reflex/arguments/Arguments;");
             } else {
+                // Immutable, like the arguments it extends.
                 mv.visitVarInsn(ALOAD, 0);
-                mv.visitFieldInsn(GETFIELD, selfClassInternalName, "arguments", argsClassDescriptor);
             }
             mv.visitInsn(ARETURN);
             Label l1 = new Label();
@@ -224,39 +258,98 @@ public final class InterceptionHandlerGenerator implements Opcodes {
             mv.visitCode();
             Label l0 = new Label();
             mv.visitLabel(l0);
-            Label l1 = new Label();
-            if (parameters.length > 0) {
-                mv.visitVarInsn(ALOAD, 0);
-
-                mv.visitFieldInsn(GETFIELD, selfClassInternalName, "arguments", argsClassDescriptor);
-                mv.visitVarInsn(ASTORE, 1);
-                mv.visitLabel(l1);
-            }
             mv.visitVarInsn(ALOAD, 0);
             mv.visitFieldInsn(GETFIELD, selfClassInternalName, "delegate", classToProxyDescriptor);
             for (int i = 0; i < parameters.length; i++) {
                 Parameter parameter = parameters[i];
-                Class<?> paramType = parameter.getType();
-                mv.visitVarInsn(ALOAD, 1);
+                mv.visitVarInsn(ALOAD, 0);
                 mv.visitFieldInsn(GETFIELD, argsClassInternalName, parameter.getName(),
-                        Type.getDescriptor(paramType));
+                        Type.getDescriptor(parameter.getType()));
             }
             mv.visitMethodInsn(INVOKEVIRTUAL, classToProxyInternalName, method.getName(), methodDescriptor,
                     false);
             mv.visitInsn(BytecodeGenUtils.getReturnCode(returnType));
-            Label l2 = new Label();
-            mv.visitLabel(l2);
-            mv.visitLocalVariable("this", selfClassDescriptor, null, l0, l2, 0);
-            mv.visitLocalVariable("customArgs", argsClassDescriptor, null, l1, l2, 1);
+            Label l1 = new Label();
+            mv.visitLabel(l1);
+            mv.visitLocalVariable("this", selfClassDescriptor, null, l0, l1, 0);
             mv.visitMaxs(-1, -1);
             mv.visitEnd();
         }
 
+        if (returnType.isPrimitive()) {
+            generateBoxedMethods(cw, selfClassInternalName, selfClassDescriptor, returnType);
+        }
+
         cw.visitEnd();
 
         return cw.toByteArray();
     }
 
+    static void generateBoxedMethods(ClassWriter cw, String selfClassInternalName, String selfClassDescriptor,
+            Class<?> returnType) {
+        MethodVisitor mv;
+        String returnTypeDescriptor = Type.getDescriptor(returnType);
+        {
+            mv = cw.visitMethod(ACC_PUBLIC, "boxed", "()L" + BOXED_HANDLER_INTERNAL_NAME + ";", null, null);
+            mv.visitCode();
+            Label l0 = new Label();
+            mv.visitLabel(l0);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitInsn(ARETURN);
+            Label l1 = new Label();
+            mv.visitLabel(l1);
+            mv.visitLocalVariable("this", selfClassDescriptor, null, l0, l1, 0);
+            mv.visitMaxs(-1, -1);
+            mv.visitEnd();
+        }
+        {
+            mv = cw.visitMethod(ACC_PUBLIC, "invoke", "(Lio/primeval/reflex/arguments/Arguments;)Ljava/lang/Object;",
+                    null, new String[] { "java/lang/Exception" });
+            mv.visitParameter("arguments", 0);
+            mv.visitCode();
+            Label l0 = new Label();
+            mv.visitLabel(l0);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitMethodInsn(INVOKEVIRTUAL, selfClassInternalName, "invoke",
+                    "(Lio/primeval/reflex/arguments/Arguments;)" + returnTypeDescriptor, false);
+            visitBoxing(mv, returnType);
+            mv.visitInsn(ARETURN);
+            Label l1 = new Label();
+            mv.visitLabel(l1);
+            mv.visitLocalVariable("this", selfClassDescriptor, null, l0, l1, 0);
+            mv.visitLocalVariable("arguments", "Lio/primeval/reflex/arguments/Arguments;", null, l0, l1, 1);
+            mv.visitMaxs(-1, -1);
+            mv.visitEnd();
+        }
+        {
+            mv = cw.visitMethod(ACC_PUBLIC, "invoke", "()Ljava/lang/Object;", null,
+                    new String[] { "java/lang/Throwable" });
+            mv.visitCode();
+            Label l0 = new Label();
+            mv.visitLabel(l0);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitMethodInsn(INVOKEVIRTUAL, selfClassInternalName, "invoke", "()" + returnTypeDescriptor, false);
+            visitBoxing(mv, returnType);
+            mv.visitInsn(ARETURN);
+            Label l1 = new Label();
+            mv.visitLabel(l1);
+            mv.visitLocalVariable("this", selfClassDescriptor, null, l0, l1, 0);
+            mv.visitMaxs(-1, -1);
+            mv.visitEnd();
+        }
+    }
+
+    private static void visitBoxing(MethodVisitor mv, Class<?> type) {
+        if (type == void.class) {
+            mv.visitInsn(ACONST_NULL);
+        } else {
+            String boxedInternalName = Type.getInternalName(BytecodeGenUtils.getBoxed(type));
+            mv.visitMethodInsn(INVOKESTATIC, boxedInternalName, "valueOf",
+                    "(" + Type.getDescriptor(type) + ")L" + boxedInternalName + ";", false);
+        }
+    }
+
     private static String getArgumentGetter(Class<?> type) {
         if (type == int.class) {
             return "intArg";
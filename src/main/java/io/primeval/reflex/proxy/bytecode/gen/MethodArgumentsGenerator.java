@@ -8,6 +8,10 @@ import static io.primeval.reflex.proxy.bytecode.gen.BytecodeGenUtils.getTypeSize
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.objectweb.asm.ClassWriter;
@@ -43,7 +47,8 @@ public final class MethodArgumentsGenerator implements Opcodes {
                 Stream.concat(Stream.of(List.class), Stream.of(method.getParameterTypes())).map(Type::getType)
                         .toArray(Type[]::new));
 
-        cw.visit(52, ACC_PUBLIC + ACC_FINAL + ACC_SUPER, selfClassInternalName, null, "java/lang/Object",
+        // Not final: the interception handler of the method extends it, and is its own arguments.
+        cw.visit(52, ACC_PUBLIC + ACC_SUPER, selfClassInternalName, null, "java/lang/Object",
                 new String[] { "io/primeval/reflex/arguments/Arguments" });
         Parameter[] parameters = method.getParameters();
 
@@ -57,6 +62,7 @@ public final class MethodArgumentsGenerator implements Opcodes {
 
         generateParametersGetter(cw, selfClassInternalName, selfClassDescriptor);
         generateArgumentGetters(cw, selfClassInternalName, selfClassDescriptor, parameters);
+        generateIndexedArgumentGetters(cw, selfClassInternalName, selfClassDescriptor, parameters);
         cw.visitEnd();
 
         return cw.toByteArray();
@@ -221,12 +227,11 @@ public final class MethodArgumentsGenerator implements Opcodes {
         mv.visitInsn(IRETURN);
         mv.visitLabel(l3);
         mv.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
-        mv.visitVarInsn(ALOAD, 0);
-        mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Object", "getClass", "()Ljava/lang/Class;", false);
+        // Handlers extending this class add no argument state, and compare equal to plain arguments.
         mv.visitVarInsn(ALOAD, 1);
-        mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Object", "getClass", "()Ljava/lang/Class;", false);
+        mv.visitTypeInsn(INSTANCEOF, selfClassInternalName);
         Label l5 = new Label();
-        mv.visitJumpInsn(IF_ACMPEQ, l5);
+        mv.visitJumpInsn(IFNE, l5);
         Label l6 = new Label();
         mv.visitLabel(l6);
         mv.visitInsn(ICONST_0);
@@ -397,27 +402,16 @@ public final class MethodArgumentsGenerator implements Opcodes {
         mv.visitParameter("argName", 0);
         mv.visitCode();
         Label first = new Label();
-        Label nextLabel = first;
-        for (int i = 0; i < matchingParams.length; i++) {
-            Parameter parameter = matchingParams[i];
-            mv.visitLabel(nextLabel);
-            if (i > 0) {
-                mv.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
-            }
-            mv.visitVarInsn(ALOAD, 1);
-            mv.visitLdcInsn(parameter.getName());
-            mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/String", "equals", "(Ljava/lang/Object;)Z", false);
-            nextLabel = new Label();
-            mv.visitJumpInsn(IFEQ, nextLabel);
-            Label l2 = new Label();
-            mv.visitLabel(l2);
+        mv.visitLabel(first);
+        Label unknownParam = new Label();
+        visitNameSwitch(mv, matchingParams, unknownParam, parameter -> {
             Class<?> paramType = parameter.getType();
             mv.visitVarInsn(ALOAD, 0); // this
             mv.visitFieldInsn(GETFIELD, selfClassInternalName, parameter.getName(), Type.getDescriptor(paramType));
             mv.visitInsn(getReturnCode(paramType));
-        }
+        });
         // final else
-        mv.visitLabel(nextLabel);
+        mv.visitLabel(unknownParam);
         if (matchingParams.length > 0) {
             mv.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
         }
@@ -431,6 +425,173 @@ public final class MethodArgumentsGenerator implements Opcodes {
         mv.visitEnd();
     }
 
+    /**
+     * Dispatches on the String in local variable 1 with a {@code lookupswitch} on its hash code, then a single
+     * {@code equals} check (or one per parameter sharing the same hash). {@code paramCode} must end with a return or a
+     * throw. Unknown names jump to {@code dflt}, which the caller must visit with a frame if any parameter matched.
+     */
+    static void visitNameSwitch(MethodVisitor mv, Parameter[] matchingParams, Label dflt,
+            Consumer<Parameter> paramCode) {
+        if (matchingParams.length == 0) {
+            return;
+        }
+        // sorted by hash, as required by lookupswitch
+        Map<Integer, List<Parameter>> paramsByHash = Stream.of(matchingParams)
+                .collect(Collectors.groupingBy(p -> p.getName().hashCode(), TreeMap::new, Collectors.toList()));
+        int[] keys = new int[paramsByHash.size()];
+        Label[] hashLabels = new Label[paramsByHash.size()];
+        int k = 0;
+        for (Integer hash : paramsByHash.keySet()) {
+            keys[k] = hash;
+            hashLabels[k] = new Label();
+            k++;
+        }
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/String", "hashCode", "()I", false);
+        mv.visitLookupSwitchInsn(dflt, keys, hashLabels);
+
+        k = 0;
+        for (List<Parameter> sameHashParams : paramsByHash.values()) {
+            mv.visitLabel(hashLabels[k++]);
+            mv.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
+            for (int i = 0; i < sameHashParams.size(); i++) {
+                Parameter parameter = sameHashParams.get(i);
+                boolean last = i == sameHashParams.size() - 1;
+                Label nextLabel = last ? dflt : new Label();
+                mv.visitVarInsn(ALOAD, 1);
+                mv.visitLdcInsn(parameter.getName());
+                mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/String", "equals", "(Ljava/lang/Object;)Z", false);
+                mv.visitJumpInsn(IFEQ, nextLabel);
+                paramCode.accept(parameter);
+                if (!last) {
+                    mv.visitLabel(nextLabel);
+                    mv.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
+                }
+            }
+        }
+    }
+
+    // Also used by MethodArgumentssUpdaterGenerator, both classes have the same fields.
+    static void generateIndexedArgumentGetters(ClassWriter cw, String selfClassInternalName, String selfClassDescriptor,
+            Parameter[] parameters) {
+        MethodVisitor mv;
+        {
+            mv = cw.visitMethod(ACC_PUBLIC, "objectArg", "(I)Ljava/lang/Object;",
+                    "<T:Ljava/lang/Object;>(I)TT;", null);
+            generateIndexedArgGetterCode(Object.class, mv, selfClassInternalName, selfClassDescriptor, parameters);
+        }
+        {
+            mv = cw.visitMethod(ACC_PUBLIC, "intArg", "(I)I", null, null);
+            generateIndexedArgGetterCode(int.class, mv, selfClassInternalName, selfClassDescriptor, parameters);
+        }
+        {
+            mv = cw.visitMethod(ACC_PUBLIC, "shortArg", "(I)S", null, null);
+            generateIndexedArgGetterCode(short.class, mv, selfClassInternalName, selfClassDescriptor, parameters);
+        }
+        {
+            mv = cw.visitMethod(ACC_PUBLIC, "longArg", "(I)J", null, null);
+            generateIndexedArgGetterCode(long.class, mv, selfClassInternalName, selfClassDescriptor, parameters);
+        }
+        {
+            mv = cw.visitMethod(ACC_PUBLIC, "byteArg", "(I)B", null, null);
+            generateIndexedArgGetterCode(byte.class, mv, selfClassInternalName, selfClassDescriptor, parameters);
+        }
+        {
+            mv = cw.visitMethod(ACC_PUBLIC, "booleanArg", "(I)Z", null, null);
+            generateIndexedArgGetterCode(boolean.class, mv, selfClassInternalName, selfClassDescriptor, parameters);
+        }
+        {
+            mv = cw.visitMethod(ACC_PUBLIC, "floatArg", "(I)F", null, null);
+            generateIndexedArgGetterCode(float.class, mv, selfClassInternalName, selfClassDescriptor, parameters);
+        }
+        {
+            mv = cw.visitMethod(ACC_PUBLIC, "doubleArg", "(I)D", null, null);
+            generateIndexedArgGetterCode(double.class, mv, selfClassInternalName, selfClassDescriptor, parameters);
+        }
+        {
+            mv = cw.visitMethod(ACC_PUBLIC, "charArg", "(I)C", null, null);
+            generateIndexedArgGetterCode(char.class, mv, selfClassInternalName, selfClassDescriptor, parameters);
+        }
+    }
+
+    private static void generateIndexedArgGetterCode(Class<?> argType, MethodVisitor mv, String selfClassInternalName,
+            String selfClassDescriptor, Parameter[] parameters) {
+        mv.visitParameter("index", 0);
+        mv.visitCode();
+        Label first = new Label();
+        mv.visitLabel(first);
+        Label unknownIndex = new Label();
+        Label[] paramLabels = visitIndexSwitch(argType, mv, parameters, unknownIndex);
+        for (int i = 0; i < parameters.length; i++) {
+            if (paramLabels[i] == null) {
+                continue;
+            }
+            Parameter parameter = parameters[i];
+            Class<?> paramType = parameter.getType();
+            mv.visitLabel(paramLabels[i]);
+            mv.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
+            mv.visitVarInsn(ALOAD, 0); // this
+            mv.visitFieldInsn(GETFIELD, selfClassInternalName, parameter.getName(), Type.getDescriptor(paramType));
+            mv.visitInsn(getReturnCode(paramType));
+        }
+        mv.visitLabel(unknownIndex);
+        mv.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
+        genExceptionThrowForUnknownIndex(argType.getSimpleName(), mv);
+        Label last = new Label();
+        mv.visitLabel(last);
+        mv.visitLocalVariable("this", selfClassDescriptor, null, first, last, 0);
+        mv.visitLocalVariable("index", "I", null, first, last, 1);
+
+        mv.visitMaxs(-1, -1);
+        mv.visitEnd();
+    }
+
+    /**
+     * Visits a {@code tableswitch} on the int in local variable 1, for the indices of the parameters of type
+     * {@code argType}.
+     * 
+     * @return the label to visit for each parameter index, {@code null} for parameters of another type.
+     */
+    static Label[] visitIndexSwitch(Class<?> argType, MethodVisitor mv, Parameter[] parameters, Label dflt) {
+        Label[] paramLabels = new Label[parameters.length];
+        int min = -1;
+        int max = -1;
+        for (int i = 0; i < parameters.length; i++) {
+            if (argType.isAssignableFrom(parameters[i].getType())) {
+                paramLabels[i] = new Label();
+                if (min == -1) {
+                    min = i;
+                }
+                max = i;
+            }
+        }
+        if (min == -1) {
+            mv.visitJumpInsn(GOTO, dflt);
+            return paramLabels;
+        }
+        Label[] switchLabels = new Label[max - min + 1];
+        for (int i = min; i <= max; i++) {
+            switchLabels[i - min] = paramLabels[i] != null ? paramLabels[i] : dflt;
+        }
+        mv.visitVarInsn(ILOAD, 1);
+        mv.visitTableSwitchInsn(min, max, dflt, switchLabels);
+        return paramLabels;
+    }
+
+    static void genExceptionThrowForUnknownIndex(String paramType, MethodVisitor mv) {
+        mv.visitTypeInsn(NEW, "java/lang/IllegalArgumentException");
+        mv.visitInsn(DUP);
+        mv.visitTypeInsn(NEW, "java/lang/StringBuilder");
+        mv.visitInsn(DUP);
+        mv.visitLdcInsn("No " + paramType + " parameter at index ");
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/StringBuilder", "<init>", "(Ljava/lang/String;)V", false);
+        mv.visitVarInsn(ILOAD, 1);
+        mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/StringBuilder", "append", "(I)Ljava/lang/StringBuilder;", false);
+        mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/StringBuilder", "toString", "()Ljava/lang/String;", false);
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/IllegalArgumentException", "<init>", "(Ljava/lang/String;)V", false);
+        mv.visitInsn(ATHROW);
+    }
+
     private static void genExceptionThrowForUnknownParam(String paramType, MethodVisitor mv) {
         mv.visitTypeInsn(NEW, "java/lang/IllegalArgumentException");
         mv.visitInsn(DUP);
@@ -59,6 +59,9 @@ public final class MethodArgumentssUpdaterGenerator implements Opcodes {
         generateParametersGetter(cw, selfClassInternalName, selfClassDescriptor);
 
         generateArgumentSetters(cw, selfClassInternalName, selfClassDescriptor, parameters);
+        MethodArgumentsGenerator.generateIndexedArgumentGetters(cw, selfClassInternalName, selfClassDescriptor,
+                parameters);
+        generateIndexedArgumentSetters(cw, selfClassInternalName, selfClassDescriptor, parameters);
         generateArgumentGetters(cw, selfClassInternalName, selfClassDescriptor, parameters);
         cw.visitEnd();
 
@@ -409,20 +412,9 @@ public final class MethodArgumentssUpdaterGenerator implements Opcodes {
         mv.visitParameter("newValue", 0);
         mv.visitCode();
         Label first = new Label();
-        Label nextLabel = first;
-        for (int i = 0; i < matchingParams.length; i++) {
-            Parameter parameter = matchingParams[i];
-            mv.visitLabel(nextLabel);
-            if (i > 0) {
-                mv.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
-            }
-            mv.visitVarInsn(ALOAD, 1);
-            mv.visitLdcInsn(parameter.getName());
-            mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/String", "equals", "(Ljava/lang/Object;)Z", false);
-            nextLabel = new Label();
-            mv.visitJumpInsn(IFEQ, nextLabel);
-            Label l2 = new Label();
-            mv.visitLabel(l2);
+        mv.visitLabel(first);
+        Label unknownParam = new Label();
+        MethodArgumentsGenerator.visitNameSwitch(mv, matchingParams, unknownParam, parameter -> {
             Class<?> paramType = parameter.getType();
             mv.visitVarInsn(ALOAD, 0); // this
             mv.visitVarInsn(getLoadCode(argType), 2);
@@ -432,9 +424,9 @@ public final class MethodArgumentssUpdaterGenerator implements Opcodes {
             mv.visitFieldInsn(PUTFIELD, selfClassInternalName, parameter.getName(), Type.getDescriptor(paramType));
             mv.visitVarInsn(ALOAD, 0);
             mv.visitInsn(ARETURN);
-        }
+        });
         // final else
-        mv.visitLabel(nextLabel);
+        mv.visitLabel(unknownParam);
         if (matchingParams.length > 0) {
             mv.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
         }
@@ -496,27 +488,16 @@ public final class MethodArgumentssUpdaterGenerator implements Opcodes {
         mv.visitParameter("argName", 0);
         mv.visitCode();
         Label first = new Label();
-        Label nextLabel = first;
-        for (int i = 0; i < matchingParams.length; i++) {
-            Parameter parameter = matchingParams[i];
-            mv.visitLabel(nextLabel);
-            if (i > 0) {
-                mv.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
-            }
-            mv.visitVarInsn(ALOAD, 1);
-            mv.visitLdcInsn(parameter.getName());
-            mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/String", "equals", "(Ljava/lang/Object;)Z", false);
-            nextLabel = new Label();
-            mv.visitJumpInsn(IFEQ, nextLabel);
-            Label l2 = new Label();
-            mv.visitLabel(l2);
+        mv.visitLabel(first);
+        Label unknownParam = new Label();
+        MethodArgumentsGenerator.visitNameSwitch(mv, matchingParams, unknownParam, parameter -> {
             Class<?> paramType = parameter.getType();
             mv.visitVarInsn(ALOAD, 0); // this
             mv.visitFieldInsn(GETFIELD, selfClassInternalName, parameter.getName(), Type.getDescriptor(paramType));
             mv.visitInsn(getReturnCode(paramType));
-        }
+        });
         // final else
-        mv.visitLabel(nextLabel);
+        mv.visitLabel(unknownParam);
         if (matchingParams.length > 0) {
             mv.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
         }
@@ -530,6 +511,96 @@ public final class MethodArgumentssUpdaterGenerator implements Opcodes {
         mv.visitEnd();
     }
 
+    private static void generateIndexedArgumentSetters(ClassWriter cw, String selfClassInternalName,
+            String selfClassDescriptor, Parameter[] parameters) {
+        MethodVisitor mv;
+        {
+            mv = cw.visitMethod(ACC_PUBLIC, "setObjectArg",
+                    "(ILjava/lang/Object;)Lio/primeval/reflex/arguments/ArgumentsUpdater;",
+                    "<T:Ljava/lang/Object;>(ITT;)Lio/primeval/reflex/arguments/ArgumentsUpdater;", null);
+            generateIndexedArgSetterCode(Object.class, mv, selfClassInternalName, selfClassDescriptor, parameters);
+        }
+        {
+            mv = cw.visitMethod(ACC_PUBLIC, "setIntArg",
+                    "(II)Lio/primeval/reflex/arguments/ArgumentsUpdater;", null, null);
+            generateIndexedArgSetterCode(int.class, mv, selfClassInternalName, selfClassDescriptor, parameters);
+        }
+        {
+            mv = cw.visitMethod(ACC_PUBLIC, "setShortArg",
+                    "(IS)Lio/primeval/reflex/arguments/ArgumentsUpdater;", null, null);
+            generateIndexedArgSetterCode(short.class, mv, selfClassInternalName, selfClassDescriptor, parameters);
+        }
+        {
+            mv = cw.visitMethod(ACC_PUBLIC, "setLongArg",
+                    "(IJ)Lio/primeval/reflex/arguments/ArgumentsUpdater;", null, null);
+            generateIndexedArgSetterCode(long.class, mv, selfClassInternalName, selfClassDescriptor, parameters);
+        }
+        {
+            mv = cw.visitMethod(ACC_PUBLIC, "setByteArg",
+                    "(IB)Lio/primeval/reflex/arguments/ArgumentsUpdater;", null, null);
+            generateIndexedArgSetterCode(byte.class, mv, selfClassInternalName, selfClassDescriptor, parameters);
+        }
+        {
+            mv = cw.visitMethod(ACC_PUBLIC, "setBooleanArg",
+                    "(IZ)Lio/primeval/reflex/arguments/ArgumentsUpdater;", null, null);
+            generateIndexedArgSetterCode(boolean.class, mv, selfClassInternalName, selfClassDescriptor, parameters);
+        }
+        {
+            mv = cw.visitMethod(ACC_PUBLIC, "setFloatArg",
+                    "(IF)Lio/primeval/reflex/arguments/ArgumentsUpdater;", null, null);
+            generateIndexedArgSetterCode(float.class, mv, selfClassInternalName, selfClassDescriptor, parameters);
+        }
+        {
+            mv = cw.visitMethod(ACC_PUBLIC, "setDoubleArg",
+                    "(ID)Lio/primeval/reflex/arguments/ArgumentsUpdater;", null, null);
+            generateIndexedArgSetterCode(double.class, mv, selfClassInternalName, selfClassDescriptor, parameters);
+        }
+        {
+            mv = cw.visitMethod(ACC_PUBLIC, "setCharArg",
+                    "(IC)Lio/primeval/reflex/arguments/ArgumentsUpdater;", null, null);
+            generateIndexedArgSetterCode(char.class, mv, selfClassInternalName, selfClassDescriptor, parameters);
+        }
+    }
+
+    private static void generateIndexedArgSetterCode(Class<?> argType, MethodVisitor mv, String selfClassInternalName,
+            String selfClassDescriptor, Parameter[] parameters) {
+        mv.visitParameter("index", 0);
+        mv.visitParameter("newValue", 0);
+        mv.visitCode();
+        Label first = new Label();
+        mv.visitLabel(first);
+        Label unknownIndex = new Label();
+        Label[] paramLabels = MethodArgumentsGenerator.visitIndexSwitch(argType, mv, parameters, unknownIndex);
+        for (int i = 0; i < parameters.length; i++) {
+            if (paramLabels[i] == null) {
+                continue;
+            }
+            Parameter parameter = parameters[i];
+            Class<?> paramType = parameter.getType();
+            mv.visitLabel(paramLabels[i]);
+            mv.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
+            mv.visitVarInsn(ALOAD, 0); // this
+            mv.visitVarInsn(getLoadCode(argType), 2);
+            if (Object.class == argType) {
+                mv.visitTypeInsn(CHECKCAST, Type.getInternalName(paramType));
+            }
+            mv.visitFieldInsn(PUTFIELD, selfClassInternalName, parameter.getName(), Type.getDescriptor(paramType));
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitInsn(ARETURN);
+        }
+        mv.visitLabel(unknownIndex);
+        mv.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
+        MethodArgumentsGenerator.genExceptionThrowForUnknownIndex(argType.getSimpleName(), mv);
+        Label last = new Label();
+        mv.visitLabel(last);
+        mv.visitLocalVariable("this", selfClassDescriptor, null, first, last, 0);
+        mv.visitLocalVariable("index", "I", null, first, last, 1);
+        mv.visitLocalVariable("newValue", Type.getDescriptor(argType), argType == Object.class ? "TT;" : null, first,
+                last, 2);
+        mv.visitMaxs(-1, -1);
+        mv.visitEnd();
+    }
+
     private static void genExceptionThrowForUnknownParam(String paramType, MethodVisitor mv) {
         mv.visitTypeInsn(NEW, "java/lang/IllegalArgumentException");
         mv.visitInsn(DUP);
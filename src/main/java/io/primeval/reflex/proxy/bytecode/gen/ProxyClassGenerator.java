@@ -4,14 +4,20 @@ import static io.primeval.reflex.proxy.bytecode.gen.BytecodeGenUtils.getBoxed;
 import static io.primeval.reflex.proxy.bytecode.gen.BytecodeGenUtils.getLoadCode;
 import static io.primeval.reflex.proxy.bytecode.gen.BytecodeGenUtils.getReturnCode;
 import static io.primeval.reflex.proxy.bytecode.gen.BytecodeGenUtils.getTypeSize;
+import static org.objectweb.asm.Opcodes.AALOAD;
 import static org.objectweb.asm.Opcodes.AASTORE;
+import static org.objectweb.asm.Opcodes.ACONST_NULL;
 import static org.objectweb.asm.Opcodes.ACC_FINAL;
 import static org.objectweb.asm.Opcodes.ACC_PRIVATE;
+import static org.objectweb.asm.Opcodes.ACC_PROTECTED;
 import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
 import static org.objectweb.asm.Opcodes.ACC_STATIC;
 import static org.objectweb.asm.Opcodes.ACC_SUPER;
 import static org.objectweb.asm.Opcodes.ALOAD;
 import static org.objectweb.asm.Opcodes.ANEWARRAY;
+import static org.objectweb.asm.Opcodes.ARETURN;
+import static org.objectweb.asm.Opcodes.ASTORE;
+import static org.objectweb.asm.Opcodes.ATHROW;
 import static org.objectweb.asm.Opcodes.BIPUSH;
 import static org.objectweb.asm.Opcodes.CHECKCAST;
 import static org.objectweb.asm.Opcodes.DUP;
@@ -24,14 +30,20 @@ import static org.objectweb.asm.Opcodes.ICONST_3;
 import static org.objectweb.asm.Opcodes.ICONST_4;
 import static org.objectweb.asm.Opcodes.ICONST_5;
 import static org.objectweb.asm.Opcodes.ICONST_M1;
+import static org.objectweb.asm.Opcodes.IFEQ;
+import static org.objectweb.asm.Opcodes.ILOAD;
+import static org.objectweb.asm.Opcodes.IF_ACMPNE;
+import static org.objectweb.asm.Opcodes.INSTANCEOF;
 import static org.objectweb.asm.Opcodes.INVOKEINTERFACE;
 import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
 import static org.objectweb.asm.Opcodes.INVOKESTATIC;
 import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
+import static org.objectweb.asm.Opcodes.ISTORE;
 import static org.objectweb.asm.Opcodes.NEW;
 import static org.objectweb.asm.Opcodes.PUTFIELD;
 import static org.objectweb.asm.Opcodes.PUTSTATIC;
 import static org.objectweb.asm.Opcodes.RETURN;
+import static org.objectweb.asm.Opcodes.SIPUSH;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
@@ -39,6 +51,7 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.util.List;
 import java.util.function.Predicate;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import org.objectweb.asm.AnnotationVisitor;
@@ -46,21 +59,60 @@ import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.FieldVisitor;
 import org.objectweb.asm.Label;
 import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
 
+import io.primeval.reflex.proxy.Advice;
+import io.primeval.reflex.proxy.Interceptor;
+import io.primeval.reflex.proxy.bytecode.InterceptorBinding;
+import io.primeval.reflex.proxy.bytecode.InterceptorDispatch;
 import io.primeval.reflex.proxy.bytecode.Proxy;
+import io.primeval.reflex.proxy.shared.InterceptorCallSites;
 import io.primeval.reflex.proxy.shared.SharedProxyUtils;
 
 public final class ProxyClassGenerator {
 
     public static final String PROXY_TARGET_CLASS_SUFFIX = "$Proxy$";
 
+    private static final String CALL_CONTEXT_DESCRIPTOR = "Lio/primeval/reflex/proxy/CallContext;";
+    private static final String CALL_CONTEXTS_DESCRIPTOR = "[" + CALL_CONTEXT_DESCRIPTOR;
+    private static final String METHOD_NAMES_DESCRIPTOR = "[Ljava/lang/String;";
+    private static final String INTERCEPTORS_DESCRIPTOR = "[" + Type.getDescriptor(Interceptor.class);
+    private static final String METHOD_HANDLE_DESCRIPTOR = "Ljava/lang/invoke/MethodHandle;";
+    private static final String INTERCEPTOR_CALL_SITES_INTERNAL_NAME = Type.getInternalName(InterceptorCallSites.class);
+    private static final String INTERCEPTOR_CALL_SITES_DESCRIPTOR = Type.getDescriptor(InterceptorCallSites.class);
+
     public static String getName(Class<?> classToProxy) {
-        return classToProxy.getName() + PROXY_TARGET_CLASS_SUFFIX;
+        return getName(classToProxy, "");
+    }
+
+    /**
+     * The name of a variant of the proxy class of {@code classToProxy}, for proxy classes of the same target class
+     * with different configurations.
+     */
+    public static String getName(Class<?> classToProxy, String variant) {
+        return classToProxy.getName() + PROXY_TARGET_CLASS_SUFFIX + variant;
     }
 
     public static byte[] create(Class<?> classToProxy, Class<?>[] interfaces, Method[] methods,
             Predicate<Method> shouldIntercept) throws Exception {
+        return create(classToProxy, interfaces, methods, shouldIntercept, InterceptorBinding.FIELD);
+    }
+
+    public static byte[] create(Class<?> classToProxy, Class<?>[] interfaces, Method[] methods,
+            Predicate<Method> shouldIntercept, InterceptorBinding binding) throws Exception {
+        return create(classToProxy, interfaces, methods, shouldIntercept, binding, InterceptorDispatch.DIRECT);
+    }
+
+    public static byte[] create(Class<?> classToProxy, Class<?>[] interfaces, Method[] methods,
+            Predicate<Method> shouldIntercept, InterceptorBinding binding, InterceptorDispatch dispatch)
+            throws Exception {
+        return create(classToProxy, "", interfaces, methods, shouldIntercept, binding, dispatch);
+    }
+
+    public static byte[] create(Class<?> classToProxy, String variant, Class<?>[] interfaces, Method[] methods,
+            Predicate<Method> shouldIntercept, InterceptorBinding binding, InterceptorDispatch dispatch)
+            throws Exception {
 
         ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
         FieldVisitor fv;
@@ -70,8 +122,8 @@ public final class ProxyClassGenerator {
         String classToProxyDescriptor = Type.getDescriptor(classToProxy);
         String classToProxyInternalName = Type.getInternalName(classToProxy);
 
-        String selfClassInternalName = classToProxyInternalName + PROXY_TARGET_CLASS_SUFFIX;
-        String selfClassDescriptor = makeTargetClassDescriptor(classToProxyDescriptor);
+        String selfClassInternalName = classToProxyInternalName + PROXY_TARGET_CLASS_SUFFIX + variant;
+        String selfClassDescriptor = makeTargetClassDescriptor(classToProxyDescriptor, variant);
 
         Class<?> superclass = Proxy.class;
         String superClassInternalName = Type.getInternalName(superclass);
@@ -86,18 +138,6 @@ public final class ProxyClassGenerator {
             if (!shouldIntercept.test(method)) {
                 continue;
             }
-            {
-                fv = cw.visitField(ACC_PRIVATE + ACC_FINAL + ACC_STATIC, "meth" + i, "Ljava/lang/reflect/Method;", null,
-                        null);
-                fv.visitEnd();
-            }
-            {
-                fv = cw.visitField(ACC_PRIVATE + ACC_FINAL + ACC_STATIC, "cc" + i,
-                        "Lio/primeval/reflex/proxy/CallContext;",
-                        null, null);
-                fv.visitEnd();
-            }
-
             if (method.getParameterCount() == 0) {
                 String suffix = InterceptionHandlerGenerator.SUFFIX_START + method.getName() + i;
                 String interceptionHandlerDescriptor = BytecodeGenUtils.makeSuffixClassDescriptor(
@@ -112,48 +152,79 @@ public final class ProxyClassGenerator {
             fv = cw.visitField(ACC_PRIVATE + ACC_FINAL, "delegate", classToProxyDescriptor, null, null);
             fv.visitEnd();
         }
+        {
+            fv = cw.visitField(ACC_PRIVATE + ACC_FINAL + ACC_STATIC, "methodNames", METHOD_NAMES_DESCRIPTOR, null,
+                    null);
+            fv.visitEnd();
+        }
+        {
+            fv = cw.visitField(ACC_PRIVATE + ACC_FINAL + ACC_STATIC, "callContexts", CALL_CONTEXTS_DESCRIPTOR, null,
+                    null);
+            fv.visitEnd();
+        }
+        {
+            fv = cw.visitField(ACC_PRIVATE + ACC_FINAL + ACC_STATIC, "defaultInterceptors", INTERCEPTORS_DESCRIPTOR,
+                    null, null);
+            fv.visitEnd();
+        }
+        if (binding == InterceptorBinding.CONSTANT) {
+            fv = cw.visitField(ACC_PRIVATE + ACC_FINAL + ACC_STATIC, "interceptorCallSites",
+                    INTERCEPTOR_CALL_SITES_DESCRIPTOR, null, null);
+            fv.visitEnd();
+            for (int i = 0; i < methods.length; i++) {
+                if (shouldIntercept.test(methods[i])) {
+                    fv = cw.visitField(ACC_PRIVATE + ACC_FINAL + ACC_STATIC, "interceptorBinding" + i,
+                            METHOD_HANDLE_DESCRIPTOR, null, null);
+                    fv.visitEnd();
+                }
+            }
+        }
 
         // static init
         mv = cw.visitMethod(ACC_STATIC, "<clinit>", "()V", null, null);
         mv.visitCode();
+        // One interceptor slot per method, indexed by method id. Call contexts are only looked up on first use, into
+        // an array shared by all the proxies of this class.
+        visitIntInsn(mv, methods.length);
+        mv.visitTypeInsn(ANEWARRAY, "java/lang/String");
         for (int i = 0; i < methods.length; i++) {
-            Method method = methods[i];
-            if (!shouldIntercept.test(method)) {
+            if (!shouldIntercept.test(methods[i])) {
                 continue;
             }
-            Label l0 = new Label();
-            mv.visitLabel(l0);
-            mv.visitLdcInsn(Type.getType(classToProxyDescriptor));
-            mv.visitLdcInsn(method.getName());
-            Class<?>[] parameterTypes = method.getParameterTypes();
-            visitIntInsn(mv, parameterTypes.length);
-            mv.visitTypeInsn(ANEWARRAY, "java/lang/Class");
-            for (int j = 0; j < parameterTypes.length; j++) {
-                Class<?> type = parameterTypes[j];
-                mv.visitInsn(DUP);
-                visitIntInsn(mv, j);
-                addTypeSpecial(mv, type);
-                mv.visitInsn(AASTORE);
-            }
-            String sharedProxyUtilsInternalName = Type.getInternalName(SharedProxyUtils.class);
-            mv.visitMethodInsn(INVOKESTATIC, sharedProxyUtilsInternalName, "getMethodUnchecked",
-                    "(Ljava/lang/Class;Ljava/lang/String;[Ljava/lang/Class;)Ljava/lang/reflect/Method;", false);
-            mv.visitFieldInsn(PUTSTATIC, selfClassInternalName, "meth" + i, "Ljava/lang/reflect/Method;");
-            Label l1 = new Label();
-            mv.visitLabel(l1);
-            mv.visitTypeInsn(NEW, "io/primeval/reflex/proxy/CallContext");
             mv.visitInsn(DUP);
-            mv.visitLdcInsn(Type.getType(classToProxyDescriptor));
-            mv.visitFieldInsn(GETSTATIC, selfClassInternalName, "meth" + i, "Ljava/lang/reflect/Method;");
+            visitIntInsn(mv, i);
+            mv.visitLdcInsn(methods[i].getName());
+            mv.visitInsn(AASTORE);
+        }
+        mv.visitFieldInsn(PUTSTATIC, selfClassInternalName, "methodNames", METHOD_NAMES_DESCRIPTOR);
+        visitIntInsn(mv, methods.length);
+        mv.visitTypeInsn(ANEWARRAY, "io/primeval/reflex/proxy/CallContext");
+        mv.visitFieldInsn(PUTSTATIC, selfClassInternalName, "callContexts", CALL_CONTEXTS_DESCRIPTOR);
+        // the initial interceptor slots of all proxies, copied on write
+        visitIntInsn(mv, methods.length);
+        mv.visitMethodInsn(INVOKESTATIC, superClassInternalName, "defaultInterceptors", "(I)" + INTERCEPTORS_DESCRIPTOR,
+                false);
+        mv.visitFieldInsn(PUTSTATIC, selfClassInternalName, "defaultInterceptors", INTERCEPTORS_DESCRIPTOR);
+        if (binding == InterceptorBinding.CONSTANT) {
+            // static final MethodHandles are constants to the JIT, and so are the targets of call sites.
+            mv.visitTypeInsn(NEW, INTERCEPTOR_CALL_SITES_INTERNAL_NAME);
             mv.visitInsn(DUP);
-            mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/reflect/Method", "getParameters",
-                    "()[Ljava/lang/reflect/Parameter;", false);
-            mv.visitMethodInsn(INVOKESTATIC, "java/util/Arrays", "asList", "([Ljava/lang/Object;)Ljava/util/List;",
-                    false);
-            mv.visitMethodInsn(INVOKESPECIAL, "io/primeval/reflex/proxy/CallContext", "<init>",
-                    "(Ljava/lang/Class;Ljava/lang/reflect/Method;Ljava/util/List;)V", false);
-            mv.visitFieldInsn(PUTSTATIC, selfClassInternalName, "cc" + i,
-                    "Lio/primeval/reflex/proxy/CallContext;");
+            visitIntInsn(mv, methods.length);
+            mv.visitMethodInsn(INVOKESPECIAL, INTERCEPTOR_CALL_SITES_INTERNAL_NAME, "<init>", "(I)V", false);
+            mv.visitFieldInsn(PUTSTATIC, selfClassInternalName, "interceptorCallSites",
+                    INTERCEPTOR_CALL_SITES_DESCRIPTOR);
+            for (int i = 0; i < methods.length; i++) {
+                if (!shouldIntercept.test(methods[i])) {
+                    continue;
+                }
+                mv.visitFieldInsn(GETSTATIC, selfClassInternalName, "interceptorCallSites",
+                        INTERCEPTOR_CALL_SITES_DESCRIPTOR);
+                visitIntInsn(mv, i);
+                mv.visitMethodInsn(INVOKEVIRTUAL, INTERCEPTOR_CALL_SITES_INTERNAL_NAME, "dynamicInvoker",
+                        "(I)" + METHOD_HANDLE_DESCRIPTOR, false);
+                mv.visitFieldInsn(PUTSTATIC, selfClassInternalName, "interceptorBinding" + i,
+                        METHOD_HANDLE_DESCRIPTOR);
+            }
         }
         mv.visitInsn(RETURN);
         mv.visitMaxs(-1, -1);
@@ -170,7 +241,11 @@ public final class ProxyClassGenerator {
             Label l0 = new Label();
             mv.visitLabel(l0);
             mv.visitVarInsn(ALOAD, 0);
-            mv.visitMethodInsn(INVOKESPECIAL, superClassInternalName, "<init>", "()V", false);
+            mv.visitFieldInsn(GETSTATIC, selfClassInternalName, "methodNames", METHOD_NAMES_DESCRIPTOR);
+            mv.visitFieldInsn(GETSTATIC, selfClassInternalName, "callContexts", CALL_CONTEXTS_DESCRIPTOR);
+            mv.visitFieldInsn(GETSTATIC, selfClassInternalName, "defaultInterceptors", INTERCEPTORS_DESCRIPTOR);
+            mv.visitMethodInsn(INVOKESPECIAL, superClassInternalName, "<init>",
+                    "(" + METHOD_NAMES_DESCRIPTOR + CALL_CONTEXTS_DESCRIPTOR + INTERCEPTORS_DESCRIPTOR + ")V", false);
             Label l1 = new Label();
             mv.visitLabel(l1);
             mv.visitVarInsn(ALOAD, 0);
@@ -209,6 +284,13 @@ public final class ProxyClassGenerator {
             mv.visitMaxs(-1, -1);
             mv.visitEnd();
         }
+        if (binding == InterceptorBinding.CONSTANT) {
+            writeUpdateInterceptorsMethod(selfClassInternalName, selfClassDescriptor, cw);
+        }
+        writeNewCallContextMethod(classToProxy, methods, shouldIntercept, selfClassDescriptor, cw);
+        if (dispatch == InterceptorDispatch.TRAMPOLINE) {
+            writeNewTrampolineMethod(classToProxy, methods, shouldIntercept, selfClassDescriptor, cw);
+        }
         // Methods
         for (int methId = 0; methId < methods.length; methId++) {
             Method method = methods[methId];
@@ -217,7 +299,7 @@ public final class ProxyClassGenerator {
                         selfClassInternalName,
                         selfClassDescriptor,
                         cw, mv,
-                        method, methId);
+                        method, methId, binding);
             } else {
                 writeSimpleDelegationMethod(classToProxy, classToProxyInternalName, classToProxyDescriptor,
                         selfClassInternalName,
@@ -233,20 +315,12 @@ public final class ProxyClassGenerator {
 
     }
 
-    private static void addTypeSpecial(MethodVisitor mv, Class<?> type) {
-        if (type.isPrimitive()) {
-            mv.visitFieldInsn(GETSTATIC, Type.getInternalName(getBoxed(type)), "TYPE", "Ljava/lang/Class;");
-
-        } else {
-            mv.visitLdcInsn(Type.getType(Type.getDescriptor(type)));
-        }
-    }
-
-    private static String makeTargetClassDescriptor(String proxyClassDescriptor) {
+    private static String makeTargetClassDescriptor(String proxyClassDescriptor, String variant) {
         StringBuilder buf = new StringBuilder();
         buf.append(proxyClassDescriptor, 0, proxyClassDescriptor.length() - 1); // omit
                                                                                 // ';'
         buf.append(PROXY_TARGET_CLASS_SUFFIX);
+        buf.append(variant);
         buf.append(';');
         return buf.toString();
     }
@@ -342,8 +416,6 @@ public final class ProxyClassGenerator {
             exceptionTypes = Stream.of(exceptionsClasses).map(Type::getInternalName).toArray(String[]::new);
         }
 
-        Class<?> returnType = method.getReturnType();
-
         mv = cw.visitMethod(ACC_PUBLIC + ACC_FINAL, methodName, methodDescriptor, methodSignature, exceptionTypes);
         addMethodAnnotations(method, mv);
         addMethodParameterAnnotations(method, mv);
@@ -362,14 +434,8 @@ public final class ProxyClassGenerator {
         mv.visitCode();
         Label l0 = new Label();
         mv.visitLabel(l0);
-        mv.visitVarInsn(ALOAD, 0); // "this"
-        mv.visitFieldInsn(GETFIELD, selfClassInternalName, "delegate", classToProxyDescriptor);
-        for (int i = 0; i < parameters.length; i++) {
-            mv.visitVarInsn(getLoadCode(parameters[i].getType()), paramIndices[i]); // delegate parameters.
-        }
-        mv.visitMethodInsn(INVOKEVIRTUAL, classToProxyInternalName, methodName, methodDescriptor, false);
-
-        mv.visitInsn(getReturnCode(returnType)); // The actual return entry.
+        visitDelegation(mv, classToProxyInternalName, classToProxyDescriptor, selfClassInternalName, method,
+                paramIndices);
 
         Label l1 = new Label();
         mv.visitLabel(l1);
@@ -387,7 +453,8 @@ public final class ProxyClassGenerator {
     private static void writeInterceptedMethod(Class<?> clazzToProxy, String classToProxyInternalName,
             String classToProxyDescriptor,
             String selfClassInternalName, String selfClassDescriptor, ClassWriter cw,
-            MethodVisitor mv, Method method, int methodId) throws IllegalAccessException, InvocationTargetException {
+            MethodVisitor mv, Method method, int methodId, InterceptorBinding binding)
+            throws IllegalAccessException, InvocationTargetException {
         String methodDescriptor = Type.getMethodDescriptor(method);
         String methodName = method.getName();
         String methodSignature = BytecodeGenUtils.getMethodSignature(method);
@@ -415,14 +482,42 @@ public final class ProxyClassGenerator {
             nextVarIndex += getTypeSize(param.getType());
         }
 
+        // the interceptor slots are volatile, and the call site may be retargeted: read it once.
+        int interceptorVarIndex = nextVarIndex;
+        String interceptorInternalName = Type.getInternalName(Interceptor.class);
+        String interceptorDescriptor = Type.getDescriptor(Interceptor.class);
+
         mv.visitCode();
         Label l0 = new Label();
         mv.visitLabel(l0);
-        mv.visitVarInsn(ALOAD, 0);
-        mv.visitFieldInsn(GETFIELD, selfClassInternalName, "interceptor",
-                "Lio/primeval/reflex/proxy/Interceptor;");
-        mv.visitFieldInsn(GETSTATIC, selfClassInternalName, "cc" + methodId,
-                "Lio/primeval/reflex/proxy/CallContext;");
+        if (binding == InterceptorBinding.CONSTANT) {
+            mv.visitFieldInsn(GETSTATIC, selfClassInternalName, "interceptorBinding" + methodId,
+                    METHOD_HANDLE_DESCRIPTOR);
+            mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/invoke/MethodHandle", "invokeExact",
+                    "()" + interceptorDescriptor, false);
+        } else {
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, selfClassInternalName, "interceptors", "[" + interceptorDescriptor);
+            visitIntInsn(mv, methodId);
+            mv.visitInsn(AALOAD);
+        }
+        mv.visitInsn(DUP);
+        mv.visitVarInsn(ASTORE, interceptorVarIndex);
+
+        // Fast path: no interceptor installed, skip handler and arguments allocation.
+        Label lIntercept = new Label();
+        mv.visitFieldInsn(GETSTATIC, interceptorInternalName, "DEFAULT", interceptorDescriptor);
+        mv.visitJumpInsn(IF_ACMPNE, lIntercept);
+        visitDelegation(mv, classToProxyInternalName, classToProxyDescriptor, selfClassInternalName, method,
+                paramIndices);
+
+        mv.visitLabel(lIntercept);
+        mv.visitFrame(Opcodes.F_APPEND, 1, new Object[] { interceptorInternalName }, 0, null);
+        visitAdvice(mv, classToProxyInternalName, classToProxyDescriptor, selfClassInternalName, method, methodId,
+                paramIndices, interceptorVarIndex);
+
+        mv.visitVarInsn(ALOAD, interceptorVarIndex);
+        visitCallContext(mv, selfClassInternalName, methodId);
 
         String suffix = InterceptionHandlerGenerator.SUFFIX_START + method.getName() + methodId;
 
@@ -439,29 +534,18 @@ public final class ProxyClassGenerator {
             mv.visitVarInsn(ALOAD, 0);
             mv.visitFieldInsn(GETFIELD, selfClassInternalName, "delegate", classToProxyDescriptor);
 
-            String argsClassInternalName = null;
-            String argsClassDescriptor = null;
-            if (method.getParameterCount() > 0) {
-                String argsSuffix = "$argsFor$" + method.getName() + methodId;
-                argsClassInternalName = classToProxyInternalName + argsSuffix;
-                argsClassDescriptor = BytecodeGenUtils.makeSuffixClassDescriptor(classToProxyDescriptor, argsSuffix);
-                mv.visitTypeInsn(NEW, argsClassInternalName);
-                mv.visitInsn(DUP);
-                mv.visitFieldInsn(GETSTATIC, selfClassInternalName, "cc" + methodId,
-                        "Lio/primeval/reflex/proxy/CallContext;");
-                mv.visitFieldInsn(GETFIELD, "io/primeval/reflex/proxy/CallContext", "parameters",
-                        "Ljava/util/List;");
-                for (int i = 0; i < paramCount; i++) {
-                    mv.visitVarInsn(getLoadCode(parameters[i].getType()), paramIndices[i]); // delegate parameters.
-                }
-                String constDesc = Type.getMethodDescriptor(Type.VOID_TYPE,
-                        Stream.concat(Stream.of(List.class), Stream.of(method.getParameterTypes())).map(Type::getType)
-                                .toArray(Type[]::new));
-                mv.visitMethodInsn(INVOKESPECIAL, argsClassInternalName, "<init>", constDesc, false);
+            // The handler holds the raw parameters, and builds its arguments only if asked for them.
+            visitCallContext(mv, selfClassInternalName, methodId);
+            mv.visitFieldInsn(GETFIELD, "io/primeval/reflex/proxy/CallContext", "parameters",
+                    "Ljava/util/List;");
+            for (int i = 0; i < paramCount; i++) {
+                mv.visitVarInsn(getLoadCode(parameters[i].getType()), paramIndices[i]); // delegate parameters.
             }
-
-            mv.visitMethodInsn(INVOKESPECIAL, interceptionHandlerInternalName, "<init>",
-                    "(" + classToProxyDescriptor + BytecodeGenUtils.nullToEmpty(argsClassDescriptor) + ")V",
+            String constDesc = Type.getMethodDescriptor(Type.VOID_TYPE,
+                    Stream.concat(Stream.of(clazzToProxy, List.class), Stream.of(method.getParameterTypes()))
+                            .map(Type::getType)
+                            .toArray(Type[]::new));
+            mv.visitMethodInsn(INVOKESPECIAL, interceptionHandlerInternalName, "<init>", constDesc,
                     false);
         }
 
@@ -486,9 +570,243 @@ public final class ProxyClassGenerator {
             mv.visitLocalVariable(param.getName(), Type.getDescriptor(type),
                     BytecodeGenUtils.getDescriptorForJavaType(param.getParameterizedType()), l0, l1, paramIndices[i]);
         }
+        mv.visitLocalVariable("interceptor", interceptorDescriptor, null, l0, l1, interceptorVarIndex);
+        mv.visitMaxs(-1, -1);
+        mv.visitEnd();
+
+    }
+
+    // switch (slot) { case i: return new CallContext(Target.class, <method i>, <parameters of method i>); ...
+    // default: return null; }
+    private static void writeNewCallContextMethod(Class<?> classToProxy, Method[] methods,
+            Predicate<Method> shouldIntercept, String selfClassDescriptor, ClassWriter cw) {
+        MethodVisitor mv = cw.visitMethod(ACC_PROTECTED, "newCallContext", "(I)" + CALL_CONTEXT_DESCRIPTOR, null,
+                null);
+        mv.visitParameter("slot", 0);
+        mv.visitCode();
+        Label l0 = new Label();
+        mv.visitLabel(l0);
+
+        int[] slots = IntStream.range(0, methods.length).filter(i -> shouldIntercept.test(methods[i])).toArray();
+        Label[] slotLabels = new Label[slots.length];
+        for (int i = 0; i < slotLabels.length; i++) {
+            slotLabels[i] = new Label();
+        }
+        Label lDefault = new Label();
+        mv.visitVarInsn(ILOAD, 1);
+        mv.visitLookupSwitchInsn(lDefault, slots, slotLabels);
+        Type classToProxyType = Type.getType(classToProxy);
+        for (int i = 0; i < slots.length; i++) {
+            Method method = methods[slots[i]];
+            mv.visitLabel(slotLabels[i]);
+            mv.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
+            mv.visitTypeInsn(NEW, "io/primeval/reflex/proxy/CallContext");
+            mv.visitInsn(DUP);
+            mv.visitLdcInsn(classToProxyType);
+            mv.visitLdcInsn(classToProxyType);
+            mv.visitLdcInsn(method.getName());
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            visitIntInsn(mv, parameterTypes.length);
+            mv.visitTypeInsn(ANEWARRAY, "java/lang/Class");
+            for (int j = 0; j < parameterTypes.length; j++) {
+                mv.visitInsn(DUP);
+                visitIntInsn(mv, j);
+                addTypeSpecial(mv, parameterTypes[j]);
+                mv.visitInsn(AASTORE);
+            }
+            mv.visitMethodInsn(INVOKESTATIC, Type.getInternalName(SharedProxyUtils.class), "getMethodUnchecked",
+                    "(Ljava/lang/Class;Ljava/lang/String;[Ljava/lang/Class;)Ljava/lang/reflect/Method;", false);
+            mv.visitInsn(DUP);
+            mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/reflect/Method", "getParameters",
+                    "()[Ljava/lang/reflect/Parameter;", false);
+            mv.visitMethodInsn(INVOKESTATIC, "java/util/Arrays", "asList", "([Ljava/lang/Object;)Ljava/util/List;",
+                    false);
+            mv.visitMethodInsn(INVOKESPECIAL, "io/primeval/reflex/proxy/CallContext", "<init>",
+                    "(Ljava/lang/Class;Ljava/lang/reflect/Method;Ljava/util/List;)V", false);
+            mv.visitInsn(ARETURN);
+        }
+        mv.visitLabel(lDefault);
+        mv.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
+        mv.visitInsn(ACONST_NULL);
+        mv.visitInsn(ARETURN);
+        Label l1 = new Label();
+        mv.visitLabel(l1);
+        mv.visitLocalVariable("this", selfClassDescriptor, null, l0, l1, 0);
+        mv.visitLocalVariable("slot", "I", null, l0, l1, 1);
         mv.visitMaxs(-1, -1);
         mv.visitEnd();
+    }
+
+    private static void addTypeSpecial(MethodVisitor mv, Class<?> type) {
+        if (type.isPrimitive()) {
+            mv.visitFieldInsn(GETSTATIC, Type.getInternalName(getBoxed(type)), "TYPE", "Ljava/lang/Class;");
+        } else {
+            mv.visitLdcInsn(Type.getType(Type.getDescriptor(type)));
+        }
+    }
 
+    // this.callContext(methodId), looked up on first use.
+    private static void visitCallContext(MethodVisitor mv, String selfClassInternalName, int methodId) {
+        mv.visitVarInsn(ALOAD, 0);
+        visitIntInsn(mv, methodId);
+        mv.visitMethodInsn(INVOKEVIRTUAL, selfClassInternalName, "callContext", "(I)" + CALL_CONTEXT_DESCRIPTOR,
+                false);
+    }
+
+    // switch (slot) { case i: return new Target$trampolineFor$methodi(interceptors); ... default: return null; }
+    private static void writeNewTrampolineMethod(Class<?> classToProxy, Method[] methods,
+            Predicate<Method> shouldIntercept, String selfClassDescriptor, ClassWriter cw) {
+        String interceptorsDescriptor = "[" + Type.getDescriptor(Interceptor.class);
+        String interceptorDescriptor = Type.getDescriptor(Interceptor.class);
+
+        MethodVisitor mv = cw.visitMethod(ACC_PROTECTED, "newTrampoline",
+                "(I" + interceptorsDescriptor + ")" + interceptorDescriptor, null, null);
+        mv.visitParameter("slot", 0);
+        mv.visitParameter("interceptors", 0);
+        mv.visitCode();
+        Label l0 = new Label();
+        mv.visitLabel(l0);
+
+        int[] slots = IntStream.range(0, methods.length).filter(i -> shouldIntercept.test(methods[i])).toArray();
+        Label[] slotLabels = new Label[slots.length];
+        for (int i = 0; i < slotLabels.length; i++) {
+            slotLabels[i] = new Label();
+        }
+        Label lDefault = new Label();
+        mv.visitVarInsn(ILOAD, 1);
+        mv.visitLookupSwitchInsn(lDefault, slots, slotLabels);
+        for (int i = 0; i < slots.length; i++) {
+            String trampolineInternalName = Type.getInternalName(classToProxy) + TrampolineGenerator.SUFFIX_START
+                    + methods[slots[i]].getName() + slots[i];
+            mv.visitLabel(slotLabels[i]);
+            mv.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
+            mv.visitTypeInsn(NEW, trampolineInternalName);
+            mv.visitInsn(DUP);
+            mv.visitVarInsn(ALOAD, 2);
+            mv.visitMethodInsn(INVOKESPECIAL, trampolineInternalName, "<init>", "(" + interceptorsDescriptor + ")V",
+                    false);
+            mv.visitInsn(ARETURN);
+        }
+        mv.visitLabel(lDefault);
+        mv.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
+        mv.visitInsn(ACONST_NULL);
+        mv.visitInsn(ARETURN);
+        Label l1 = new Label();
+        mv.visitLabel(l1);
+        mv.visitLocalVariable("this", selfClassDescriptor, null, l0, l1, 0);
+        mv.visitLocalVariable("slot", "I", null, l0, l1, 1);
+        mv.visitLocalVariable("interceptors", interceptorsDescriptor, null, l0, l1, 2);
+        mv.visitMaxs(-1, -1);
+        mv.visitEnd();
+    }
+
+    // The interceptor slots of the whole class are held by its call sites.
+    private static void writeUpdateInterceptorsMethod(String selfClassInternalName, String selfClassDescriptor,
+            ClassWriter cw) {
+        String updateDescriptor = "(Ljava/util/function/UnaryOperator;)V";
+
+        MethodVisitor mv = cw.visitMethod(ACC_PROTECTED, "updateInterceptors", updateDescriptor,
+                "(Ljava/util/function/UnaryOperator<[" + Type.getDescriptor(Interceptor.class) + ">;)V", null);
+        mv.visitParameter("update", 0);
+        mv.visitCode();
+        Label l0 = new Label();
+        mv.visitLabel(l0);
+        mv.visitFieldInsn(GETSTATIC, selfClassInternalName, "interceptorCallSites",
+                INTERCEPTOR_CALL_SITES_DESCRIPTOR);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitMethodInsn(INVOKEVIRTUAL, INTERCEPTOR_CALL_SITES_INTERNAL_NAME, "update", updateDescriptor, false);
+        mv.visitInsn(RETURN);
+        Label l1 = new Label();
+        mv.visitLabel(l1);
+        mv.visitLocalVariable("this", selfClassDescriptor, null, l0, l1, 0);
+        mv.visitLocalVariable("update", "Ljava/util/function/UnaryOperator;", null, l0, l1, 1);
+        mv.visitMaxs(-1, -1);
+        mv.visitEnd();
+    }
+
+    // Advices are called around the delegate call, without an interception handler.
+    private static void visitAdvice(MethodVisitor mv, String classToProxyInternalName, String classToProxyDescriptor,
+            String selfClassInternalName, Method method, int methodId, int[] paramIndices, int interceptorVarIndex) {
+        String adviceInternalName = Type.getInternalName(Advice.class);
+        String callContextDescriptor = "Lio/primeval/reflex/proxy/CallContext;";
+        int adviceVarIndex = interceptorVarIndex + 1;
+        int resultVarIndex = adviceVarIndex + 1;
+        Class<?> returnType = method.getReturnType();
+
+        Label lOnCall = new Label();
+        mv.visitVarInsn(ALOAD, interceptorVarIndex);
+        mv.visitTypeInsn(INSTANCEOF, adviceInternalName);
+        mv.visitJumpInsn(IFEQ, lOnCall);
+        mv.visitVarInsn(ALOAD, interceptorVarIndex);
+        mv.visitTypeInsn(CHECKCAST, adviceInternalName);
+        mv.visitVarInsn(ASTORE, adviceVarIndex);
+        mv.visitVarInsn(ALOAD, adviceVarIndex);
+        visitCallContext(mv, selfClassInternalName, methodId);
+        mv.visitMethodInsn(INVOKEINTERFACE, adviceInternalName, "before", "(" + callContextDescriptor + ")V", true);
+
+        Label lTryStart = new Label();
+        Label lTryEnd = new Label();
+        Label lCatch = new Label();
+        mv.visitTryCatchBlock(lTryStart, lTryEnd, lCatch, "java/lang/Throwable");
+        mv.visitLabel(lTryStart);
+        // Not a jump target: only there so that the handler frame can be "same locals, one stack item".
+        mv.visitFrame(Opcodes.F_APPEND, 1, new Object[] { adviceInternalName }, 0, null);
+        mv.visitVarInsn(ALOAD, 0); // "this"
+        mv.visitFieldInsn(GETFIELD, selfClassInternalName, "delegate", classToProxyDescriptor);
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            mv.visitVarInsn(getLoadCode(parameterTypes[i]), paramIndices[i]); // delegate parameters.
+        }
+        mv.visitMethodInsn(INVOKEVIRTUAL, classToProxyInternalName, method.getName(), Type.getMethodDescriptor(method),
+                false);
+        mv.visitLabel(lTryEnd);
+
+        if (returnType == void.class) {
+            mv.visitVarInsn(ALOAD, adviceVarIndex);
+            visitCallContext(mv, selfClassInternalName, methodId);
+            mv.visitMethodInsn(INVOKEINTERFACE, adviceInternalName, "afterReturning",
+                    "(" + callContextDescriptor + ")V", true);
+        } else {
+            // primitive results are passed unboxed.
+            Class<?> afterReturningType = returnType.isPrimitive() ? returnType : Object.class;
+            mv.visitVarInsn(Type.getType(returnType).getOpcode(ISTORE), resultVarIndex);
+            mv.visitVarInsn(ALOAD, adviceVarIndex);
+            visitCallContext(mv, selfClassInternalName, methodId);
+            mv.visitVarInsn(getLoadCode(returnType), resultVarIndex);
+            mv.visitMethodInsn(INVOKEINTERFACE, adviceInternalName, "afterReturning",
+                    "(" + callContextDescriptor + Type.getDescriptor(afterReturningType) + ")V", true);
+            mv.visitVarInsn(getLoadCode(returnType), resultVarIndex);
+        }
+        mv.visitInsn(getReturnCode(returnType));
+
+        mv.visitLabel(lCatch);
+        mv.visitFrame(Opcodes.F_SAME1, 0, null, 1, new Object[] { "java/lang/Throwable" });
+        mv.visitVarInsn(ASTORE, resultVarIndex);
+        mv.visitVarInsn(ALOAD, adviceVarIndex);
+        visitCallContext(mv, selfClassInternalName, methodId);
+        mv.visitVarInsn(ALOAD, resultVarIndex);
+        mv.visitMethodInsn(INVOKEINTERFACE, adviceInternalName, "afterThrowing",
+                "(" + callContextDescriptor + "Ljava/lang/Throwable;)V", true);
+        mv.visitVarInsn(ALOAD, resultVarIndex);
+        mv.visitInsn(ATHROW);
+
+        mv.visitLabel(lOnCall);
+        mv.visitFrame(Opcodes.F_CHOP, 1, null, 0, null);
+    }
+
+    // Calls the delegate with the method parameters and returns its result.
+    private static void visitDelegation(MethodVisitor mv, String classToProxyInternalName,
+            String classToProxyDescriptor, String selfClassInternalName, Method method, int[] paramIndices) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        mv.visitVarInsn(ALOAD, 0); // "this"
+        mv.visitFieldInsn(GETFIELD, selfClassInternalName, "delegate", classToProxyDescriptor);
+        for (int i = 0; i < parameterTypes.length; i++) {
+            mv.visitVarInsn(getLoadCode(parameterTypes[i]), paramIndices[i]); // delegate parameters.
+        }
+        mv.visitMethodInsn(INVOKEVIRTUAL, classToProxyInternalName, method.getName(), Type.getMethodDescriptor(method),
+                false);
+
+        mv.visitInsn(getReturnCode(method.getReturnType())); // The actual return entry.
     }
 
     static void visitIntInsn(MethodVisitor mv, int i) {
@@ -516,7 +834,13 @@ public final class ProxyClassGenerator {
             break;
 
         default:
-            mv.visitIntInsn(BIPUSH, i);
+            if (i <= Byte.MAX_VALUE) {
+                mv.visitIntInsn(BIPUSH, i);
+            } else if (i <= Short.MAX_VALUE) {
+                mv.visitIntInsn(SIPUSH, i);
+            } else {
+                mv.visitLdcInsn(i);
+            }
             break;
         }
     }
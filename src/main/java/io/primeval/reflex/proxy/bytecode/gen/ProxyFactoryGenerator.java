@@ -0,0 +1,104 @@
+package io.primeval.reflex.proxy.bytecode.gen;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/**
+ * Generates the {@link io.primeval.reflex.proxy.bytecode.ProxyClass} of a proxy class, whose
+ * {@code newInstance(Object)} creates a proxy with a plain constructor call.
+ */
+public final class ProxyFactoryGenerator implements Opcodes {
+
+    public static final String SUFFIX = "$ProxyFactory$";
+
+    private static final String PROXY_CLASS_INTERNAL_NAME = "io/primeval/reflex/proxy/bytecode/ProxyClass";
+    private static final String PROXY_DESCRIPTOR = "Lio/primeval/reflex/proxy/bytecode/Proxy;";
+
+    public static String getName(Class<?> classToProxy) {
+        return getName(classToProxy, "");
+    }
+
+    /**
+     * The name of the factory of a variant of the proxy class, see {@link ProxyClassGenerator#getName(Class, String)}.
+     */
+    public static String getName(Class<?> classToProxy, String variant) {
+        return classToProxy.getName() + SUFFIX + variant;
+    }
+
+    public static byte[] generateProxyFactory(Class<?> classToProxy) {
+        return generateProxyFactory(classToProxy, "");
+    }
+
+    public static byte[] generateProxyFactory(Class<?> classToProxy, String variant) {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+
+        String classToProxyDescriptor = Type.getDescriptor(classToProxy);
+        String classToProxyInternalName = Type.getInternalName(classToProxy);
+
+        String selfClassInternalName = classToProxyInternalName + SUFFIX + variant;
+        String selfClassDescriptor = BytecodeGenUtils.makeSuffixClassDescriptor(classToProxyDescriptor,
+                SUFFIX + variant);
+        String proxyInternalName = classToProxyInternalName + ProxyClassGenerator.PROXY_TARGET_CLASS_SUFFIX + variant;
+
+        cw.visit(52, ACC_PUBLIC + ACC_FINAL + ACC_SUPER, selfClassInternalName,
+                "Ljava/lang/Object;L" + PROXY_CLASS_INTERNAL_NAME + "<" + classToProxyDescriptor + ">;",
+                "java/lang/Object", new String[] { PROXY_CLASS_INTERNAL_NAME });
+        cw.visitSource("@factory@primeval", null);
+
+        {
+            MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+            mv.visitCode();
+            Label l0 = new Label();
+            mv.visitLabel(l0);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+            mv.visitInsn(RETURN);
+            Label l1 = new Label();
+            mv.visitLabel(l1);
+            mv.visitLocalVariable("this", selfClassDescriptor, null, l0, l1, 0);
+            mv.visitMaxs(-1, -1);
+            mv.visitEnd();
+        }
+        {
+            MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "targetClass", "()Ljava/lang/Class;", null, null);
+            mv.visitCode();
+            Label l0 = new Label();
+            mv.visitLabel(l0);
+            mv.visitLdcInsn(Type.getObjectType(proxyInternalName));
+            mv.visitInsn(ARETURN);
+            Label l1 = new Label();
+            mv.visitLabel(l1);
+            mv.visitLocalVariable("this", selfClassDescriptor, null, l0, l1, 0);
+            mv.visitMaxs(-1, -1);
+            mv.visitEnd();
+        }
+        {
+            MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "newInstance", "(Ljava/lang/Object;)" + PROXY_DESCRIPTOR,
+                    null, null);
+            mv.visitParameter("target", 0);
+            mv.visitCode();
+            Label l0 = new Label();
+            mv.visitLabel(l0);
+            mv.visitTypeInsn(NEW, proxyInternalName);
+            mv.visitInsn(DUP);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitTypeInsn(CHECKCAST, classToProxyInternalName);
+            mv.visitMethodInsn(INVOKESPECIAL, proxyInternalName, "<init>", "(" + classToProxyDescriptor + ")V",
+                    false);
+            mv.visitInsn(ARETURN);
+            Label l1 = new Label();
+            mv.visitLabel(l1);
+            mv.visitLocalVariable("this", selfClassDescriptor, null, l0, l1, 0);
+            mv.visitLocalVariable("target", "Ljava/lang/Object;", null, l0, l1, 1);
+            mv.visitMaxs(-1, -1);
+            mv.visitEnd();
+        }
+        cw.visitEnd();
+
+        return cw.toByteArray();
+    }
+
+}
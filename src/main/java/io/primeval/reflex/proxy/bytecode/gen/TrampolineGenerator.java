@@ -0,0 +1,344 @@
+package io.primeval.reflex.proxy.bytecode.gen;
+
+import static io.primeval.reflex.proxy.bytecode.gen.BytecodeGenUtils.getReturnCode;
+
+import java.lang.reflect.Method;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/**
+ * Generates the trampoline of an intercepted method, for proxies built with
+ * {@link io.primeval.reflex.proxy.bytecode.InterceptorDispatch#TRAMPOLINE}.
+ * <p>
+ * A trampoline instance bound to the method calls the first interceptor of its stack with another trampoline instance
+ * as handler, carrying the call and the next level of the stack, down to the handler of the proxy. Each of the first
+ * {@link #UNROLLED_LEVELS} levels calls its interceptor from its own call site.
+ */
+public final class TrampolineGenerator implements Opcodes {
+
+    public static final String SUFFIX_START = "$trampolineFor$";
+
+    // Deeper levels share the last call site.
+    static final int UNROLLED_LEVELS = 8;
+
+    private static final String TRAMPOLINE_INTERNAL_NAME = "io/primeval/reflex/proxy/shared/Trampoline";
+    private static final String INTERCEPTOR_INTERNAL_NAME = "io/primeval/reflex/proxy/Interceptor";
+    private static final String INTERCEPTORS_DESCRIPTOR = "[Lio/primeval/reflex/proxy/Interceptor;";
+    private static final String CALL_CONTEXT_DESCRIPTOR = "Lio/primeval/reflex/proxy/CallContext;";
+    private static final String ARGUMENTS_DESCRIPTOR = "Lio/primeval/reflex/arguments/Arguments;";
+
+    public static String getName(Class<?> classToProxy, Method method, int methodId) {
+        String suffix = SUFFIX_START + method.getName() + methodId;
+        return classToProxy.getName() + suffix;
+    }
+
+    public static byte[] generateTrampoline(Class<?> classToProxy, Method method, int methodId) {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+
+        String classToProxyDescriptor = Type.getDescriptor(classToProxy);
+        String classToProxyInternalName = Type.getInternalName(classToProxy);
+
+        String suffix = SUFFIX_START + method.getName() + methodId;
+        String selfClassInternalName = classToProxyInternalName + suffix;
+        String selfClassDescriptor = BytecodeGenUtils.makeSuffixClassDescriptor(classToProxyDescriptor, suffix);
+
+        Class<?> returnType = method.getReturnType();
+        Class<?> invokeReturnType = returnType.isPrimitive() ? returnType : Object.class;
+        String invokeReturnTypeDescriptor = Type.getDescriptor(invokeReturnType);
+        Class<?> handlerClass = BytecodeGenUtils.getInterceptionHandlerClass(returnType);
+        String handlerInternalName = Type.getInternalName(handlerClass);
+        String handlerDescriptor = Type.getDescriptor(handlerClass);
+
+        String levelConstructorDescriptor = "(" + INTERCEPTORS_DESCRIPTOR + CALL_CONTEXT_DESCRIPTOR + handlerDescriptor
+                + ARGUMENTS_DESCRIPTOR + "I)V";
+        String dispatchDescriptor = "(" + INTERCEPTORS_DESCRIPTOR + CALL_CONTEXT_DESCRIPTOR + handlerDescriptor
+                + ARGUMENTS_DESCRIPTOR + "I)" + invokeReturnTypeDescriptor;
+
+        String[] interfaces = returnType.isPrimitive()
+                ? new String[] { handlerInternalName, "io/primeval/reflex/proxy/handler/InterceptionHandler" }
+                : new String[] { handlerInternalName };
+        cw.visit(52, ACC_PUBLIC + ACC_FINAL + ACC_SUPER, selfClassInternalName, null, TRAMPOLINE_INTERNAL_NAME,
+                interfaces);
+        cw.visitSource("@trampoline@primeval", null);
+
+        // Only set on the instances created for each level of a call.
+        FieldVisitor fv;
+        fv = cw.visitField(ACC_PRIVATE + ACC_FINAL, "context", CALL_CONTEXT_DESCRIPTOR, null, null);
+        fv.visitEnd();
+        fv = cw.visitField(ACC_PRIVATE + ACC_FINAL, "handler", handlerDescriptor, null, null);
+        fv.visitEnd();
+        fv = cw.visitField(ACC_PRIVATE + ACC_FINAL, "arguments", ARGUMENTS_DESCRIPTOR, null, null);
+        fv.visitEnd();
+        fv = cw.visitField(ACC_PRIVATE + ACC_FINAL, "level", "I", null, null);
+        fv.visitEnd();
+
+        generateBindingConstructor(cw, selfClassDescriptor);
+        generateLevelConstructor(cw, selfClassInternalName, selfClassDescriptor, handlerDescriptor,
+                levelConstructorDescriptor);
+        generateOnCall(cw, selfClassInternalName, selfClassDescriptor, handlerInternalName, handlerDescriptor,
+                returnType, dispatchDescriptor);
+        generateDispatch(cw, selfClassInternalName, handlerInternalName, handlerDescriptor, returnType,
+                invokeReturnTypeDescriptor, levelConstructorDescriptor, dispatchDescriptor);
+
+        {
+            MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "getArguments", "()" + ARGUMENTS_DESCRIPTOR, null, null);
+            mv.visitCode();
+            Label l0 = new Label();
+            mv.visitLabel(l0);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, selfClassInternalName, "arguments", ARGUMENTS_DESCRIPTOR);
+            mv.visitInsn(ARETURN);
+            Label l1 = new Label();
+            mv.visitLabel(l1);
+            mv.visitLocalVariable("this", selfClassDescriptor, null, l0, l1, 0);
+            mv.visitMaxs(-1, -1);
+            mv.visitEnd();
+        }
+        {
+            MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "invoke",
+                    "(" + ARGUMENTS_DESCRIPTOR + ")" + invokeReturnTypeDescriptor, null,
+                    new String[] { "java/lang/Exception" });
+            mv.visitParameter("arguments", 0);
+            mv.visitCode();
+            Label l0 = new Label();
+            mv.visitLabel(l0);
+            visitLevelDispatch(mv, selfClassInternalName, handlerDescriptor, dispatchDescriptor, () -> mv
+                    .visitVarInsn(ALOAD, 1));
+            mv.visitInsn(getReturnCode(returnType));
+            Label l1 = new Label();
+            mv.visitLabel(l1);
+            mv.visitLocalVariable("this", selfClassDescriptor, null, l0, l1, 0);
+            mv.visitLocalVariable("arguments", ARGUMENTS_DESCRIPTOR, null, l0, l1, 1);
+            mv.visitMaxs(-1, -1);
+            mv.visitEnd();
+        }
+        {
+            MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "invoke", "()" + invokeReturnTypeDescriptor, null,
+                    new String[] { "java/lang/Throwable" });
+            mv.visitCode();
+            Label l0 = new Label();
+            mv.visitLabel(l0);
+            visitLevelDispatch(mv, selfClassInternalName, handlerDescriptor, dispatchDescriptor, () -> {
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitFieldInsn(GETFIELD, selfClassInternalName, "arguments", ARGUMENTS_DESCRIPTOR);
+            });
+            mv.visitInsn(getReturnCode(returnType));
+            Label l1 = new Label();
+            mv.visitLabel(l1);
+            mv.visitLocalVariable("this", selfClassDescriptor, null, l0, l1, 0);
+            mv.visitMaxs(-1, -1);
+            mv.visitEnd();
+        }
+        if (returnType.isPrimitive()) {
+            InterceptionHandlerGenerator.generateBoxedMethods(cw, selfClassInternalName, selfClassDescriptor,
+                    returnType);
+        }
+
+        cw.visitEnd();
+
+        return cw.toByteArray();
+    }
+
+    // The instance bound to the method slot of the proxy.
+    private static void generateBindingConstructor(ClassWriter cw, String selfClassDescriptor) {
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "(" + INTERCEPTORS_DESCRIPTOR + ")V", null, null);
+        mv.visitParameter("interceptors", 0);
+        mv.visitCode();
+        Label l0 = new Label();
+        mv.visitLabel(l0);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitMethodInsn(INVOKESPECIAL, TRAMPOLINE_INTERNAL_NAME, "<init>", "(" + INTERCEPTORS_DESCRIPTOR + ")V",
+                false);
+        mv.visitInsn(RETURN);
+        Label l1 = new Label();
+        mv.visitLabel(l1);
+        mv.visitLocalVariable("this", selfClassDescriptor, null, l0, l1, 0);
+        mv.visitLocalVariable("interceptors", INTERCEPTORS_DESCRIPTOR, null, l0, l1, 1);
+        mv.visitMaxs(-1, -1);
+        mv.visitEnd();
+    }
+
+    // The handler given to the interceptor of a level, calling the next level.
+    private static void generateLevelConstructor(ClassWriter cw, String selfClassInternalName,
+            String selfClassDescriptor, String handlerDescriptor, String levelConstructorDescriptor) {
+        MethodVisitor mv = cw.visitMethod(ACC_PRIVATE, "<init>", levelConstructorDescriptor, null, null);
+        mv.visitParameter("interceptors", 0);
+        mv.visitParameter("context", 0);
+        mv.visitParameter("handler", 0);
+        mv.visitParameter("arguments", 0);
+        mv.visitParameter("level", 0);
+        mv.visitCode();
+        Label l0 = new Label();
+        mv.visitLabel(l0);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitMethodInsn(INVOKESPECIAL, TRAMPOLINE_INTERNAL_NAME, "<init>", "(" + INTERCEPTORS_DESCRIPTOR + ")V",
+                false);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitFieldInsn(PUTFIELD, selfClassInternalName, "context", CALL_CONTEXT_DESCRIPTOR);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 3);
+        mv.visitFieldInsn(PUTFIELD, selfClassInternalName, "handler", handlerDescriptor);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 4);
+        mv.visitFieldInsn(PUTFIELD, selfClassInternalName, "arguments", ARGUMENTS_DESCRIPTOR);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ILOAD, 5);
+        mv.visitFieldInsn(PUTFIELD, selfClassInternalName, "level", "I");
+        mv.visitInsn(RETURN);
+        Label l1 = new Label();
+        mv.visitLabel(l1);
+        mv.visitLocalVariable("this", selfClassDescriptor, null, l0, l1, 0);
+        mv.visitLocalVariable("interceptors", INTERCEPTORS_DESCRIPTOR, null, l0, l1, 1);
+        mv.visitLocalVariable("context", CALL_CONTEXT_DESCRIPTOR, null, l0, l1, 2);
+        mv.visitLocalVariable("handler", handlerDescriptor, null, l0, l1, 3);
+        mv.visitLocalVariable("arguments", ARGUMENTS_DESCRIPTOR, null, l0, l1, 4);
+        mv.visitLocalVariable("level", "I", null, l0, l1, 5);
+        mv.visitMaxs(-1, -1);
+        mv.visitEnd();
+    }
+
+    // Called by the proxy on the bound instance: starts at the first level.
+    private static void generateOnCall(ClassWriter cw, String selfClassInternalName, String selfClassDescriptor,
+            String handlerInternalName, String handlerDescriptor, Class<?> returnType, String dispatchDescriptor) {
+        Class<?> invokeReturnType = returnType.isPrimitive() ? returnType : Object.class;
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "onCall",
+                "(" + CALL_CONTEXT_DESCRIPTOR + handlerDescriptor + ")" + Type.getDescriptor(invokeReturnType), null,
+                null);
+        mv.visitParameter("context", 0);
+        mv.visitParameter("handler", 0);
+        mv.visitCode();
+        Label l0 = new Label();
+        mv.visitLabel(l0);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, selfClassInternalName, "interceptors", INTERCEPTORS_DESCRIPTOR);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitMethodInsn(INVOKEINTERFACE, handlerInternalName, "getArguments", "()" + ARGUMENTS_DESCRIPTOR, true);
+        mv.visitInsn(ICONST_0);
+        mv.visitMethodInsn(INVOKESTATIC, selfClassInternalName, "dispatch", dispatchDescriptor, false);
+        mv.visitInsn(getReturnCode(returnType));
+        Label l1 = new Label();
+        mv.visitLabel(l1);
+        mv.visitLocalVariable("this", selfClassDescriptor, null, l0, l1, 0);
+        mv.visitLocalVariable("context", CALL_CONTEXT_DESCRIPTOR, null, l0, l1, 1);
+        mv.visitLocalVariable("handler", handlerDescriptor, null, l0, l1, 2);
+        mv.visitMaxs(-1, -1);
+        mv.visitEnd();
+    }
+
+    // Proceeds from a level instance, with the given arguments.
+    private static void visitLevelDispatch(MethodVisitor mv, String selfClassInternalName, String handlerDescriptor,
+            String dispatchDescriptor, Runnable loadArguments) {
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, selfClassInternalName, "interceptors", INTERCEPTORS_DESCRIPTOR);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, selfClassInternalName, "context", CALL_CONTEXT_DESCRIPTOR);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, selfClassInternalName, "handler", handlerDescriptor);
+        loadArguments.run();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, selfClassInternalName, "level", "I");
+        mv.visitMethodInsn(INVOKESTATIC, selfClassInternalName, "dispatch", dispatchDescriptor, false);
+    }
+
+    // Calls the interceptor of the level, or the handler of the proxy below the last level, so that each level calls
+    // its interceptor from its own call site:
+    //
+    // if (level == interceptors.length) return handler.invoke(arguments);
+    // Trampoline next = new Trampoline(interceptors, context, handler, arguments, level + 1);
+    // switch (level) {
+    // case 0: return interceptors[0].onCall(context, next);
+    // ...
+    // default: return interceptors[level].onCall(context, next);
+    // }
+    private static void generateDispatch(ClassWriter cw, String selfClassInternalName, String handlerInternalName,
+            String handlerDescriptor, Class<?> returnType, String invokeReturnTypeDescriptor,
+            String levelConstructorDescriptor, String dispatchDescriptor) {
+        MethodVisitor mv = cw.visitMethod(ACC_PRIVATE + ACC_STATIC, "dispatch", dispatchDescriptor, null, null);
+        mv.visitParameter("interceptors", 0);
+        mv.visitParameter("context", 0);
+        mv.visitParameter("handler", 0);
+        mv.visitParameter("arguments", 0);
+        mv.visitParameter("level", 0);
+        mv.visitCode();
+        Label l0 = new Label();
+        mv.visitLabel(l0);
+        mv.visitVarInsn(ILOAD, 4);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitInsn(ARRAYLENGTH);
+        Label lIntercept = new Label();
+        mv.visitJumpInsn(IF_ICMPNE, lIntercept);
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitVarInsn(ALOAD, 3);
+        mv.visitMethodInsn(INVOKEINTERFACE, handlerInternalName, "invoke",
+                "(" + ARGUMENTS_DESCRIPTOR + ")" + invokeReturnTypeDescriptor, true);
+        mv.visitInsn(getReturnCode(returnType));
+
+        mv.visitLabel(lIntercept);
+        mv.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
+        mv.visitTypeInsn(NEW, selfClassInternalName);
+        mv.visitInsn(DUP);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitVarInsn(ALOAD, 3);
+        mv.visitVarInsn(ILOAD, 4);
+        mv.visitInsn(ICONST_1);
+        mv.visitInsn(IADD);
+        mv.visitMethodInsn(INVOKESPECIAL, selfClassInternalName, "<init>", levelConstructorDescriptor, false);
+        mv.visitVarInsn(ASTORE, 5);
+        Label lNext = new Label();
+        mv.visitLabel(lNext);
+
+        Label[] levelLabels = new Label[UNROLLED_LEVELS];
+        for (int i = 0; i < levelLabels.length; i++) {
+            levelLabels[i] = new Label();
+        }
+        Label lDefault = new Label();
+        mv.visitVarInsn(ILOAD, 4);
+        mv.visitTableSwitchInsn(0, UNROLLED_LEVELS - 1, lDefault, levelLabels);
+
+        String onCallDescriptor = "(" + CALL_CONTEXT_DESCRIPTOR + handlerDescriptor + ")" + invokeReturnTypeDescriptor;
+        for (int i = 0; i <= levelLabels.length; i++) {
+            boolean isDefault = i == levelLabels.length;
+            mv.visitLabel(isDefault ? lDefault : levelLabels[i]);
+            if (i == 0) {
+                mv.visitFrame(Opcodes.F_APPEND, 1, new Object[] { selfClassInternalName }, 0, null);
+            } else {
+                mv.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
+            }
+            mv.visitVarInsn(ALOAD, 0);
+            if (isDefault) {
+                mv.visitVarInsn(ILOAD, 4);
+            } else {
+                ProxyClassGenerator.visitIntInsn(mv, i);
+            }
+            mv.visitInsn(AALOAD);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitVarInsn(ALOAD, 5);
+            mv.visitMethodInsn(INVOKEINTERFACE, INTERCEPTOR_INTERNAL_NAME, "onCall", onCallDescriptor, true);
+            mv.visitInsn(getReturnCode(returnType));
+        }
+
+        Label l1 = new Label();
+        mv.visitLabel(l1);
+        mv.visitLocalVariable("interceptors", INTERCEPTORS_DESCRIPTOR, null, l0, l1, 0);
+        mv.visitLocalVariable("context", CALL_CONTEXT_DESCRIPTOR, null, l0, l1, 1);
+        mv.visitLocalVariable("handler", handlerDescriptor, null, l0, l1, 2);
+        mv.visitLocalVariable("arguments", ARGUMENTS_DESCRIPTOR, null, l0, l1, 3);
+        mv.visitLocalVariable("level", "I", null, l0, l1, 4);
+        mv.visitLocalVariable("next", "L" + selfClassInternalName + ";", null, lNext, l1, 5);
+        mv.visitMaxs(-1, -1);
+        mv.visitEnd();
+    }
+
+}
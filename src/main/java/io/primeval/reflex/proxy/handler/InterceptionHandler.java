@@ -13,4 +13,13 @@ public interface InterceptionHandler<T> extends ArgumentsProvider {
         return invoke(getArguments());
     }
 
+    /**
+     * The arguments of the call. The handlers of generated proxies return themselves: the arguments of a method with
+     * parameters are the handler of the call, which also references the delegate of the proxy. An interceptor keeping
+     * these arguments beyond the call, in a cache for instance, therefore keeps the delegate reachable too. Copy them
+     * with {@code updater().update()} first when that matters.
+     */
+    @Override
+    Arguments getArguments();
+
 }
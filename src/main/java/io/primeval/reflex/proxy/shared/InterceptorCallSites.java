@@ -0,0 +1,49 @@
+package io.primeval.reflex.proxy.shared;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+import java.util.Arrays;
+import java.util.function.UnaryOperator;
+
+import io.primeval.reflex.proxy.Interceptor;
+
+// The interceptor slots of a proxy class generated with the constant binding, shared by all its instances.
+public final class InterceptorCallSites {
+
+    private final MutableCallSite[] callSites;
+    private Interceptor[] interceptors;
+
+    public InterceptorCallSites(int slots) {
+        callSites = new MutableCallSite[slots];
+        interceptors = new Interceptor[slots];
+        Arrays.fill(interceptors, Interceptor.DEFAULT);
+        MethodHandle defaultTarget = MethodHandles.constant(Interceptor.class, Interceptor.DEFAULT);
+        for (int i = 0; i < slots; i++) {
+            callSites[i] = new MutableCallSite(defaultTarget);
+        }
+    }
+
+    public MethodHandle dynamicInvoker(int slot) {
+        return callSites[slot].dynamicInvoker();
+    }
+
+    public synchronized void update(UnaryOperator<Interceptor[]> update) {
+        Interceptor[] updated = update.apply(interceptors.clone());
+        MutableCallSite[] changed = new MutableCallSite[callSites.length];
+        int changedCount = 0;
+        for (int i = 0; i < callSites.length; i++) {
+            if (updated[i] != interceptors[i]) {
+                callSites[i].setTarget(MethodHandles.constant(Interceptor.class, updated[i]));
+                changed[changedCount++] = callSites[i];
+            }
+        }
+        // Swaps are rare: pay for the safepoint here so that every thread sees the new interceptors.
+        if (changedCount != 0) {
+            MutableCallSite.syncAll(Arrays.copyOf(changed, changedCount));
+        }
+        interceptors = updated;
+    }
+
+}
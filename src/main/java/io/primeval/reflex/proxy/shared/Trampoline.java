@@ -0,0 +1,88 @@
+package io.primeval.reflex.proxy.shared;
+
+import io.primeval.reflex.proxy.CallContext;
+import io.primeval.reflex.proxy.Interceptor;
+import io.primeval.reflex.proxy.Interceptors;
+import io.primeval.reflex.proxy.handler.BooleanInterceptionHandler;
+import io.primeval.reflex.proxy.handler.ByteInterceptionHandler;
+import io.primeval.reflex.proxy.handler.CharInterceptionHandler;
+import io.primeval.reflex.proxy.handler.DoubleInterceptionHandler;
+import io.primeval.reflex.proxy.handler.FloatInterceptionHandler;
+import io.primeval.reflex.proxy.handler.IntInterceptionHandler;
+import io.primeval.reflex.proxy.handler.InterceptionHandler;
+import io.primeval.reflex.proxy.handler.LongInterceptionHandler;
+import io.primeval.reflex.proxy.handler.ShortInterceptionHandler;
+import io.primeval.reflex.proxy.handler.VoidInterceptionHandler;
+
+// Base class of the trampolines generated for the methods of a proxy class, each calling a stack of interceptors for
+// one method. A trampoline overrides the onCall method of its method's return type; the proxy never calls the others,
+// which fall back to the stack.
+public abstract class Trampoline implements Interceptor {
+
+    protected final Interceptor[] interceptors;
+
+    protected Trampoline(Interceptor[] interceptors) {
+        this.interceptors = interceptors;
+    }
+
+    @Override
+    public String toString() {
+        return Interceptors.stack(interceptors).toString();
+    }
+
+    @Override
+    public Interceptor specialize(CallContext context) {
+        return this;
+    }
+
+    @Override
+    public <T, E extends Throwable> T onCall(CallContext context, InterceptionHandler<T> handler) throws E {
+        return Interceptors.stack(interceptors).onCall(context, handler);
+    }
+
+    @Override
+    public <E extends Throwable> void onCall(CallContext context, VoidInterceptionHandler handler) throws E {
+        Interceptors.stack(interceptors).onCall(context, handler);
+    }
+
+    @Override
+    public <E extends Throwable> boolean onCall(CallContext context, BooleanInterceptionHandler handler) throws E {
+        return Interceptors.stack(interceptors).onCall(context, handler);
+    }
+
+    @Override
+    public <E extends Throwable> byte onCall(CallContext context, ByteInterceptionHandler handler) throws E {
+        return Interceptors.stack(interceptors).onCall(context, handler);
+    }
+
+    @Override
+    public <E extends Throwable> char onCall(CallContext context, CharInterceptionHandler handler) throws E {
+        return Interceptors.stack(interceptors).onCall(context, handler);
+    }
+
+    @Override
+    public <E extends Throwable> short onCall(CallContext context, ShortInterceptionHandler handler) throws E {
+        return Interceptors.stack(interceptors).onCall(context, handler);
+    }
+
+    @Override
+    public <E extends Throwable> int onCall(CallContext context, IntInterceptionHandler handler) throws E {
+        return Interceptors.stack(interceptors).onCall(context, handler);
+    }
+
+    @Override
+    public <E extends Throwable> long onCall(CallContext context, LongInterceptionHandler handler) throws E {
+        return Interceptors.stack(interceptors).onCall(context, handler);
+    }
+
+    @Override
+    public <E extends Throwable> float onCall(CallContext context, FloatInterceptionHandler handler) throws E {
+        return Interceptors.stack(interceptors).onCall(context, handler);
+    }
+
+    @Override
+    public <E extends Throwable> double onCall(CallContext context, DoubleInterceptionHandler handler) throws E {
+        return Interceptors.stack(interceptors).onCall(context, handler);
+    }
+
+}
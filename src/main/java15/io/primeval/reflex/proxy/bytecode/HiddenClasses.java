@@ -0,0 +1,27 @@
+package io.primeval.reflex.proxy.bytecode;
+
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodHandles.Lookup.ClassOption;
+
+/**
+ * Defines hidden classes, with the API of Java 15.
+ */
+final class HiddenClasses {
+
+    private HiddenClasses() {
+    }
+
+    static boolean isSupported() {
+        return true;
+    }
+
+    /**
+     * Defines a hidden class, nestmate of the lookup class of {@code host} and unloadable on its own.
+     *
+     * @return a lookup on the hidden class.
+     */
+    static Lookup defineHiddenClass(Lookup host, byte[] bytecode) throws ReflectiveOperationException {
+        return host.defineHiddenClass(bytecode, true, ClassOption.NESTMATE);
+    }
+
+}
@@ -0,0 +1,37 @@
+package io.primeval.reflex.proxy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import io.primeval.reflex.proxy.shared.SharedProxyUtils;
+import io.primeval.reflex.proxy.testset.annotated.AnnotatedService;
+import io.primeval.reflex.proxy.testset.api.annotation.NestedAnn;
+import io.primeval.reflex.proxy.testset.api.annotation.RuntimeMethodAnn;
+import io.primeval.reflex.proxy.testset.api.annotation.WebTag;
+
+public class CallContextTest {
+
+    @Test
+    public void shouldCacheAnnotationsByType() {
+        Method meth = SharedProxyUtils.getMethodUnchecked(AnnotatedService.class, "someMethod");
+        CallContext cc = new CallContext(AnnotatedService.class, meth, Arrays.asList(meth.getParameters()));
+
+        WebTag[] webTags = cc.getAnnotationsByType(WebTag.class);
+        assertThat(webTags).containsExactly(meth.getAnnotationsByType(WebTag.class));
+        assertThat(cc.getAnnotationsByType(WebTag.class)).isSameAs(webTags);
+
+        RuntimeMethodAnn[] runtimeMethodAnns = cc.getAnnotationsByType(RuntimeMethodAnn.class);
+        assertThat(runtimeMethodAnns).containsExactly(meth.getAnnotation(RuntimeMethodAnn.class));
+        assertThat(cc.getAnnotationsByType(RuntimeMethodAnn.class)).isSameAs(runtimeMethodAnns);
+
+        NestedAnn[] nestedAnns = cc.getAnnotationsByType(NestedAnn.class);
+        assertThat(nestedAnns).containsExactly();
+        assertThat(nestedAnns.getClass().getComponentType()).isEqualTo(NestedAnn.class);
+        assertThat(cc.getAnnotationsByType(NestedAnn.class)).isSameAs(nestedAnns);
+    }
+
+}
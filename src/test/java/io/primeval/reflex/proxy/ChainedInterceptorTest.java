@@ -0,0 +1,178 @@
+package io.primeval.reflex.proxy;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import io.primeval.reflex.arguments.Arguments;
+import io.primeval.reflex.proxy.handler.IntInterceptionHandler;
+import io.primeval.reflex.proxy.handler.InterceptionHandler;
+import io.primeval.reflex.proxy.shared.SharedProxyUtils;
+
+public class ChainedInterceptorTest {
+
+    @Test
+    public void testShouldComposeLikeStack() {
+
+        Method meth = SharedProxyUtils.getMethodUnchecked(ChainedInterceptorTest.class, "helloName", String.class);
+        CallContext cc = new CallContext(ChainedInterceptorTest.class, meth,
+                Arrays.asList(meth.getParameters()));
+
+        String firstParamName = cc.parameters.get(0).getName();
+
+        InterceptionHandler<String> terminalInterceptionHandler = new InterceptionHandler<String>() {
+
+            @Override
+            public Arguments getArguments() {
+                ArgumentsMock argumentsMock = new ArgumentsMock(cc.parameters);
+                argumentsMock.setObjectArg(firstParamName, "world");
+                return argumentsMock;
+            }
+
+            @Override
+            public <E extends Throwable> String invoke(Arguments arguments) throws E {
+                String name = arguments.objectArg(firstParamName);
+                return helloName(name);
+            }
+        };
+
+        Interceptor intercept1 = new Interceptor() {
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public <T, E extends Throwable> T onCall(CallContext context, InterceptionHandler<T> handler)
+                    throws E {
+                Arguments arguments = handler.getArguments().updater().setObjectArg(firstParamName, "universe")
+                        .update();
+                try {
+                    return handler.invoke(arguments);
+                } catch (IllegalStateException e) {
+                    return (T) (((String) handler.invoke(arguments)) + " (retried)");
+                }
+            }
+        };
+
+        Interceptor intercept2 = new Interceptor() {
+
+            int called = 0;
+
+            @Override
+            public <T, E extends Throwable> T onCall(CallContext context, InterceptionHandler<T> handler)
+                    throws E {
+                try {
+                    if (called % 3 == 0) {
+                        throw new IllegalStateException("Something wrong happened!");
+                    }
+                    return handler.invoke();
+                } finally {
+                    called++;
+                }
+            }
+        };
+
+        Interceptor composedInterceptor = Interceptors.chain(intercept1, intercept2);
+
+        {
+            String res = composedInterceptor.onCall(cc, terminalInterceptionHandler);
+            Assertions.assertThat(res).isEqualTo("Hello universe (retried)");
+        }
+
+        {
+            String res = composedInterceptor.onCall(cc, terminalInterceptionHandler);
+            Assertions.assertThat(res).isEqualTo("Hello universe");
+        }
+
+    }
+
+    @Test
+    public void testShouldRestoreArgumentsAfterEachInvoke() {
+
+        Method meth = SharedProxyUtils.getMethodUnchecked(ChainedInterceptorTest.class, "identity", int.class);
+        CallContext cc = new CallContext(ChainedInterceptorTest.class, meth,
+                Arrays.asList(meth.getParameters()));
+
+        String firstParamName = cc.parameters.get(0).getName();
+
+        IntInterceptionHandler terminalInterceptionHandler = new IntInterceptionHandler() {
+
+            @Override
+            public Arguments getArguments() {
+                return intArguments(cc, 1);
+            }
+
+            @Override
+            public <E extends Throwable> int invoke(Arguments arguments) throws E {
+                return identity(arguments.intArg(firstParamName));
+            }
+        };
+
+        Interceptor increment = new Interceptor() {
+
+            @Override
+            public <T, E extends Throwable> T onCall(CallContext context, InterceptionHandler<T> handler) throws E {
+                throw new AssertionError();
+            }
+
+            @Override
+            public <E extends Throwable> int onCall(CallContext context, IntInterceptionHandler handler) throws E {
+                int a = handler.getArguments().intArg(firstParamName);
+                return handler.invoke(intArguments(context, a + 1));
+            }
+        };
+
+        Interceptor twice = new Interceptor() {
+
+            @Override
+            public <T, E extends Throwable> T onCall(CallContext context, InterceptionHandler<T> handler) throws E {
+                throw new AssertionError();
+            }
+
+            @Override
+            public <E extends Throwable> int onCall(CallContext context, IntInterceptionHandler handler) throws E {
+                Arguments arguments = handler.getArguments();
+                int first = handler.invoke();
+                Assertions.assertThat(handler.getArguments()).isSameAs(arguments);
+                int second = handler.invoke();
+                Assertions.assertThat(handler.getArguments()).isSameAs(arguments);
+                return first + second;
+            }
+        };
+
+        Interceptor timesTen = new Interceptor() {
+
+            @Override
+            public <T, E extends Throwable> T onCall(CallContext context, InterceptionHandler<T> handler) throws E {
+                throw new AssertionError();
+            }
+
+            @Override
+            public <E extends Throwable> int onCall(CallContext context, IntInterceptionHandler handler) throws E {
+                int a = handler.getArguments().intArg(firstParamName);
+                return handler.invoke(intArguments(context, a * 10));
+            }
+        };
+
+        int stacked = Interceptors.stack(increment, twice, timesTen).onCall(cc, terminalInterceptionHandler);
+        int chained = Interceptors.chain(increment, twice, timesTen).onCall(cc, terminalInterceptionHandler);
+
+        Assertions.assertThat(chained).isEqualTo(40);
+        Assertions.assertThat(chained).isEqualTo(stacked);
+    }
+
+    private static Arguments intArguments(CallContext context, int value) {
+        ArgumentsMock argumentsMock = new ArgumentsMock(context.parameters);
+        argumentsMock.setIntArg(context.parameters.get(0).getName(), value);
+        return argumentsMock;
+    }
+
+    public String helloName(String name) {
+        return "Hello " + name;
+    }
+
+    public int identity(int a) {
+        return a;
+    }
+
+}
@@ -100,6 +100,41 @@ public class StackedInterceptorTest {
 
     }
 
+    @Test
+    public void testShouldSpecializeApplicableInterceptorsOnly() {
+        Method meth = SharedProxyUtils.getMethodUnchecked(StackedInterceptorTest.class, "helloName", String.class);
+        CallContext cc = new CallContext(StackedInterceptorTest.class, meth, Arrays.asList(meth.getParameters()));
+
+        Interceptor applicable = new Interceptor() {
+
+            @Override
+            public <T, E extends Throwable> T onCall(CallContext context, InterceptionHandler<T> handler)
+                    throws E {
+                return handler.invoke();
+            }
+        };
+        Interceptor notApplicable = new Interceptor() {
+
+            @Override
+            public Interceptor specialize(CallContext context) {
+                return null;
+            }
+
+            @Override
+            public <T, E extends Throwable> T onCall(CallContext context, InterceptionHandler<T> handler)
+                    throws E {
+                throw new AssertionError();
+            }
+        };
+
+        Assertions.assertThat(Interceptors.stack(notApplicable, applicable, Interceptor.DEFAULT).specialize(cc))
+                .isSameAs(applicable);
+        Assertions.assertThat(Interceptors.chain(notApplicable, applicable).specialize(cc)).isSameAs(applicable);
+        Assertions.assertThat(Interceptors.stack(notApplicable, notApplicable).specialize(cc))
+                .isSameAs(Interceptor.DEFAULT);
+        Assertions.assertThat(Interceptors.specialize(notApplicable, cc)).isSameAs(Interceptor.DEFAULT);
+    }
+
     public String helloName(String name) {
         return "Hello " + name;
     }
@@ -75,6 +75,10 @@ public class InterceptionHandlerGeneratorTest {
         Assertions.assertThat(timesMethodHandler.getArguments()).isEqualTo(Arguments.EMPTY_ARGUMENTS);
         Assertions.assertThat(timesMethodHandler.invoke()).isEqualTo(4);
 
+        InterceptionHandler<Integer> boxedHandler = timesMethodHandler.boxed();
+        Assertions.assertThat(boxedHandler).isSameAs(timesMethodHandler);
+        Assertions.assertThat(boxedHandler.invoke()).isEqualTo(4);
+
     }
 
     @Test
@@ -96,18 +100,26 @@ public class InterceptionHandlerGeneratorTest {
                 m -> true);
         Class<?> methodArgsGenClass = dynamicClassLoader.loadClass(methodArgsClassName);
 
+        int[] b = new int[] { 5, 6 };
         Arguments args = (Arguments) methodArgsGenClass
                 .getConstructor(List.class, double.class, int[].class)
-                .newInstance(parameters, 42.0d, new int[] { 5, 6 });
+                .newInstance(parameters, 42.0d, b);
 
         TheoreticalDelegate delegate = new TheoreticalDelegate();
 
         DoubleInterceptionHandler fooMethodHandler = (DoubleInterceptionHandler) dynamicClassLoader
                 .loadClass(methodInterceptionHandlerClassName)
                 .getConstructors()[0]
-                .newInstance(delegate, args);
+                .newInstance(delegate, parameters, 42.0d, b);
 
+        Assertions.assertThat(fooMethodHandler.invoke()).isEqualTo(47.0d);
         Assertions.assertThat(fooMethodHandler.getArguments()).isEqualTo(args);
+        Assertions.assertThat(fooMethodHandler.getArguments()).isSameAs(fooMethodHandler);
+        Assertions.assertThat(args).isEqualTo(fooMethodHandler.getArguments());
+        Assertions.assertThat(args.hashCode()).isEqualTo(fooMethodHandler.getArguments().hashCode());
+        // Updated arguments are plain generated arguments, which do not hold the delegate.
+        Assertions.assertThat(fooMethodHandler.getArguments().updater().update().getClass())
+                .isEqualTo(methodArgsGenClass);
         Assertions.assertThat(fooMethodHandler.invoke()).isEqualTo(47.0d);
 
         Arguments argumentsMock = new ArgumentsMock(parameters).setDoubleArg("a", 21)
@@ -115,6 +127,11 @@ public class InterceptionHandlerGeneratorTest {
 
         Assertions.assertThat(fooMethodHandler.invoke(argumentsMock)).isEqualTo(-11);
 
+        InterceptionHandler<Double> boxedHandler = fooMethodHandler.boxed();
+        Assertions.assertThat(boxedHandler).isSameAs(fooMethodHandler);
+        Assertions.assertThat(boxedHandler.invoke()).isEqualTo(47.0d);
+        Assertions.assertThat(boxedHandler.invoke(argumentsMock)).isEqualTo(-11.0d);
+
     }
 
 }
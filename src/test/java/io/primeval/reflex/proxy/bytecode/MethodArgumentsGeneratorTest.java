@@ -14,9 +14,11 @@ import org.junit.Test;
 
 import io.primeval.reflex.arguments.Arguments;
 import io.primeval.reflex.arguments.ArgumentsUpdater;
+import io.primeval.reflex.proxy.CallContext;
 import io.primeval.reflex.proxy.bytecode.ProxyClassLoader;
 import io.primeval.reflex.proxy.bytecode.gen.MethodArgumentsGenerator;
 import io.primeval.reflex.proxy.shared.SharedProxyUtils;
+import io.primeval.reflex.proxy.testset.collisions.CollidingParamsService;
 import io.primeval.reflex.proxy.theory.TheoreticalDelegate;
 
 public final class MethodArgumentsGeneratorTest {
@@ -81,4 +83,114 @@ public final class MethodArgumentsGeneratorTest {
 
     }
 
+    @Test
+    public void testIndexedAccess() throws Exception {
+
+        Method method = SharedProxyUtils.getMethodUnchecked(TheoreticalDelegate.class, "test", PrintStream.class, int.class,
+                byte.class,
+                String.class);
+        List<Parameter> parameters = Arrays.asList(method.getParameters());
+        CallContext cc = new CallContext(TheoreticalDelegate.class, method, parameters);
+
+        String methodArgsClassName = MethodArgumentsGenerator.getName(TheoreticalDelegate.class, method, 0);
+
+        ProxyClassLoader dynamicClassLoader = new ProxyClassLoader(
+                MethodArgumentsGeneratorTest.class.getClassLoader());
+        dynamicClassLoader.declareClassToProxy(TheoreticalDelegate.class, new Class<?>[0], new Method[] { method },
+                m -> true);
+        Class<?> genClass = dynamicClassLoader.loadClass(methodArgsClassName);
+
+        Arguments args = (Arguments) genClass
+                .getConstructor(List.class, PrintStream.class, int.class, byte.class, String.class)
+                .newInstance(parameters, System.out, 5, (byte) 42, "foo");
+
+        int psIndex = cc.parameterIndex("ps");
+        int iIndex = cc.parameterIndex("i");
+        int bIndex = cc.parameterIndex("b");
+        int sIndex = cc.parameterIndex("s");
+        assertThat(new int[] { psIndex, iIndex, bIndex, sIndex }).isEqualTo(new int[] { 0, 1, 2, 3 });
+
+        assertThat((PrintStream) args.objectArg(psIndex)).isSameAs(System.out);
+        assertThat((String) args.objectArg(sIndex)).isEqualTo("foo");
+        assertThat(args.byteArg(bIndex)).isEqualTo((byte) 42);
+        assertThat(args.intArg(iIndex)).isEqualTo(5);
+
+        assertThatThrownBy(() -> {
+            args.objectArg(iIndex);
+        }).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("No Object parameter at index 1").hasNoCause();
+
+        assertThatThrownBy(() -> {
+            args.intArg(4);
+        }).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("No int parameter at index 4").hasNoCause();
+
+        assertThatThrownBy(() -> {
+            args.floatArg(0);
+        }).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("No float parameter at index 0").hasNoCause();
+
+        assertThatThrownBy(() -> {
+            cc.parameterIndex("radius");
+        }).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("No parameter named radius").hasNoCause();
+
+        ArgumentsUpdater updater = args.updater();
+        assertThat(updater.intArg(iIndex)).isEqualTo(5);
+
+        Arguments args2 = updater.setObjectArg(sIndex, "bar").setIntArg(iIndex, 30).setByteArg(bIndex, (byte) 1)
+                .update();
+        assertThat((String) args2.objectArg(sIndex)).isEqualTo("bar");
+        assertThat(args2.intArg("i")).isEqualTo(30);
+        assertThat(args2.byteArg(bIndex)).isEqualTo((byte) 1);
+
+        assertThatThrownBy(() -> {
+            updater.setLongArg(iIndex, 3L);
+        }).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("No long parameter at index 1").hasNoCause();
+    }
+
+    @Test
+    public void testParameterNamesWithSameHashCode() throws Exception {
+
+        Method method = SharedProxyUtils.getMethodUnchecked(CollidingParamsService.class, "concat", String.class,
+                String.class, int.class, int.class, int.class);
+        List<Parameter> parameters = Arrays.asList(method.getParameters());
+
+        String methodArgsClassName = MethodArgumentsGenerator.getName(CollidingParamsService.class, method, 0);
+
+        ProxyClassLoader dynamicClassLoader = new ProxyClassLoader(
+                MethodArgumentsGeneratorTest.class.getClassLoader());
+        dynamicClassLoader.declareClassToProxy(CollidingParamsService.class, new Class<?>[0], new Method[] { method },
+                m -> true);
+        Class<?> genClass = dynamicClassLoader.loadClass(methodArgsClassName);
+
+        Arguments args = (Arguments) genClass
+                .getConstructor(List.class, String.class, String.class, int.class, int.class, int.class)
+                .newInstance(parameters, "a", "b", 1, 2, 3);
+
+        assertThat((String) args.objectArg("Aa")).isEqualTo("a");
+        assertThat((String) args.objectArg("BB")).isEqualTo("b");
+        assertThat(args.intArg("AaAa")).isEqualTo(1);
+        assertThat(args.intArg("AaBB")).isEqualTo(2);
+        assertThat(args.intArg("BBBB")).isEqualTo(3);
+
+        assertThatThrownBy(() -> {
+            args.intArg("BBAa");
+        }).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("No int parameter named BBAa").hasNoCause();
+
+        Arguments args2 = args.updater().setObjectArg("BB", "c").setIntArg("AaBB", 20).update();
+        assertThat((String) args2.objectArg("Aa")).isEqualTo("a");
+        assertThat((String) args2.objectArg("BB")).isEqualTo("c");
+        assertThat(args2.intArg("AaAa")).isEqualTo(1);
+        assertThat(args2.intArg("AaBB")).isEqualTo(20);
+        assertThat(args2.intArg("BBBB")).isEqualTo(3);
+
+        assertThatThrownBy(() -> {
+            args.updater().setIntArg("BBAa", 0);
+        }).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("No int parameter named BBAa").hasNoCause();
+    }
+
 }
@@ -1,6 +1,7 @@
 package io.primeval.reflex.proxy.bytecode;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -11,8 +12,11 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.lang.reflect.TypeVariable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
@@ -21,13 +25,17 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import io.primeval.reflex.arguments.Arguments;
+import io.primeval.reflex.proxy.Advice;
 import io.primeval.reflex.proxy.CallContext;
 import io.primeval.reflex.proxy.Interceptor;
+import io.primeval.reflex.proxy.Interceptors;
 import io.primeval.reflex.proxy.bytecode.MethodIdentifier;
 import io.primeval.reflex.proxy.bytecode.Proxy;
 import io.primeval.reflex.proxy.bytecode.ProxyBuilder;
 import io.primeval.reflex.proxy.bytecode.ProxyClass;
 import io.primeval.reflex.proxy.bytecode.ProxyClassLoader;
+import io.primeval.reflex.proxy.bytecode.gen.ProxyFactoryGenerator;
+import io.primeval.reflex.proxy.bytecode.gen.TrampolineGenerator;
 import io.primeval.reflex.proxy.handler.IntInterceptionHandler;
 import io.primeval.reflex.proxy.handler.InterceptionHandler;
 import io.primeval.reflex.proxy.handler.helper.IntInterceptionHelper;
@@ -81,6 +89,131 @@ public final class ProxyBuilderTest {
         }
     }
 
+    @Test
+    public void shouldCreateProxiesWithGeneratedFactory() throws BadValueException {
+        ProxyClass<SimpleService> proxyFactory = ProxyBuilder.build(proxyClassLoader, SimpleService.class,
+                new Class[] { SimpleInterface.class });
+        assertThat(proxyFactory.getClass().getName())
+                .contains(SimpleService.class.getName() + ProxyFactoryGenerator.SUFFIX);
+
+        List<Proxy> proxies = proxyFactory
+                .newInstances(Arrays.asList(new SimpleService(), new SimpleService(), new SimpleService()));
+        assertThat(proxies).hasSize(3);
+        for (Proxy proxy : proxies) {
+            assertThat(proxy.getClass()).isSameAs(proxyFactory.targetClass());
+            assertThat(((SimpleInterface) proxy).increase(10)).isEqualTo(20);
+        }
+
+        assertThatThrownBy(() -> proxyFactory.newInstance(new Object())).isInstanceOf(ClassCastException.class);
+    }
+
+    @Test
+    public void shouldCacheProxyClassesWithoutClassLoader() throws BadValueException {
+        Predicate<Method> onlyIncrease = m -> m.getName().equals("increase");
+
+        ProxyClass<SimpleService> proxyFactory = ProxyBuilder.build(SimpleService.class,
+                new Class[] { SimpleInterface.class });
+        assertThat(ProxyBuilder.build(SimpleService.class, new Class[] { SimpleInterface.class }))
+                .isSameAs(proxyFactory);
+
+        ProxyClass<SimpleService> increaseOnly = ProxyBuilder.build(SimpleService.class,
+                new Class[] { SimpleInterface.class }, onlyIncrease);
+        assertThat(increaseOnly).isNotSameAs(proxyFactory);
+        assertThat(ProxyBuilder.build(SimpleService.class, new Class[] { SimpleInterface.class }, onlyIncrease))
+                .isSameAs(increaseOnly);
+
+        ProxyClass<SimpleService> noInterface = ProxyBuilder.build(SimpleService.class, new Class[0]);
+        assertThat(noInterface).isNotSameAs(proxyFactory);
+        assertThat(noInterface.targetClass()).isNotSameAs(proxyFactory.targetClass());
+
+        Proxy proxy = increaseOnly.newInstance(new SimpleService());
+        proxy.setInterceptor(new Interceptor() {
+            @Override
+            public <T, E extends Throwable> T onCall(CallContext context, InterceptionHandler<T> handler) throws E {
+                return handler.invoke();
+            }
+
+            @Override
+            public int onCall(CallContext context, IntInterceptionHandler handler) throws Exception {
+                return handler.invoke() + 1;
+            }
+        });
+        assertThat(((SimpleInterface) proxy).increase(10)).isEqualTo(21);
+        assertThat(((SimpleInterface) proxy).times()).isEqualTo(new SimpleService().times());
+    }
+
+    @Test
+    public void shouldHoldProxyVariantsInOneClassLoader() throws BadValueException {
+        ProxyClassLoader variantsClassLoader = new ProxyClassLoader(ProxyBuilderTest.class.getClassLoader());
+        Predicate<Method> onlyIncrease = m -> m.getName().equals("increase");
+
+        ProxyClass<SimpleService> all = ProxyBuilder.build(variantsClassLoader, SimpleService.class,
+                new Class[] { SimpleInterface.class });
+        ProxyClass<SimpleService> increaseOnly = ProxyBuilder.build(variantsClassLoader, SimpleService.class,
+                new Class[] { SimpleInterface.class }, onlyIncrease);
+        ProxyClass<SimpleService> constant = ProxyBuilder.build(variantsClassLoader, SimpleService.class,
+                new Class[] { SimpleInterface.class }, onlyIncrease, InterceptorBinding.CONSTANT);
+        assertThat(increaseOnly.targetClass()).isNotSameAs(all.targetClass());
+        assertThat(constant.targetClass()).isNotSameAs(increaseOnly.targetClass());
+
+        // same configuration, whatever the predicate instance
+        assertThat(ProxyBuilder.build(variantsClassLoader, SimpleService.class, new Class[] { SimpleInterface.class },
+                m -> m.getName().equals("increase")).targetClass()).isSameAs(increaseOnly.targetClass());
+
+        Interceptor plusOne = new Interceptor() {
+            @Override
+            public <T, E extends Throwable> T onCall(CallContext context, InterceptionHandler<T> handler) throws E {
+                return handler.invoke();
+            }
+
+            @Override
+            public int onCall(CallContext context, IntInterceptionHandler handler) throws Exception {
+                return handler.invoke() + 1;
+            }
+        };
+        Proxy allProxy = all.newInstance(new SimpleService());
+        allProxy.setInterceptor(plusOne);
+        Proxy increaseOnlyProxy = increaseOnly.newInstance(new SimpleService());
+        increaseOnlyProxy.setInterceptor(plusOne);
+
+        int times = new SimpleService().times();
+        assertThat(((SimpleInterface) allProxy).increase(10)).isEqualTo(21);
+        assertThat(((SimpleInterface) allProxy).times()).isEqualTo(times + 1);
+        assertThat(((SimpleInterface) increaseOnlyProxy).increase(10)).isEqualTo(21);
+        assertThat(((SimpleInterface) increaseOnlyProxy).times()).isEqualTo(times);
+    }
+
+    @Test
+    public void shouldGenerateProxyClassesEagerly() throws BadValueException {
+        ProxyClassLoader eagerClassLoader = new ProxyClassLoader(ProxyBuilderTest.class.getClassLoader());
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<GenerationReport> reports = new ArrayList<>();
+            ProxyClass<SimpleService> proxyFactory = ProxyBuilder.build(eagerClassLoader, SimpleService.class,
+                    new Class[] { SimpleInterface.class }, m -> true, InterceptorBinding.FIELD,
+                    InterceptorDispatch.TRAMPOLINE, pool, reports::add);
+
+            // args, updater, handler and trampoline per method, then the proxy class and its factory
+            int methodCount = ProxyBuilder.getMethods(SimpleService.class).length;
+            assertThat(reports).hasSize(1);
+            GenerationReport report = reports.get(0);
+            assertThat(report.classCount).isEqualTo(4 * methodCount + 2);
+            assertThat(report.generationNanos).isGreaterThan(0L);
+            assertThat(report.definitionNanos).isGreaterThan(0L);
+
+            Proxy proxy = proxyFactory.newInstance(new SimpleService());
+            proxy.setInterceptor(Interceptors.stack(Interceptor.DEFAULT, Interceptor.DEFAULT));
+            assertThat(((SimpleInterface) proxy).increase(10)).isEqualTo(20);
+
+            ProxyBuilder.build(eagerClassLoader, SimpleService.class, new Class[] { SimpleInterface.class },
+                    m -> true, InterceptorBinding.FIELD, InterceptorDispatch.TRAMPOLINE, pool, reports::add);
+            assertThat(reports.get(1).classCount).isEqualTo(0);
+            assertThat(reports.get(1).variant).isEqualTo(report.variant);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
     @Test
     public void shouldProxyAbstractedSimplestClass() {
         AbstractedSimplestService simplestService = new AbstractedSimplestService();
@@ -224,6 +357,275 @@ public final class ProxyBuilderTest {
                 .isEqualTo(extractFromPrintStream(ps -> simpleService.sayHello(ps)));
     }
 
+    @Test
+    public void shouldDelegateDirectlyWithDefaultInterceptor() throws BadValueException {
+        SimpleService simpleService = new SimpleService();
+
+        ProxyClass<SimpleService> proxyFactory = ProxyBuilder.build(proxyClassLoader, SimpleService.class,
+                new Class[] { SimpleInterface.class });
+        Proxy proxyService = proxyFactory.newInstance(simpleService);
+        SimpleInterface proxyItf = (SimpleInterface) proxyService;
+
+        assertThat(proxyItf.increase(10)).isEqualTo(20);
+        assertThat(proxyItf.reduce(new int[] { 1, 2, 3 })).isEqualTo(6);
+        assertThatThrownBy(() -> proxyItf.increase(-1)).isInstanceOf(BadValueException.class);
+
+        proxyService.setInterceptor(new Interceptor() {
+
+            @Override
+            public <T, E extends Throwable> T onCall(CallContext callContext, InterceptionHandler<T> handler)
+                    throws E {
+                return handler.invoke();
+            }
+
+            @Override
+            public int onCall(CallContext callContext, IntInterceptionHandler handler) throws Exception {
+                return handler.invoke() + 1;
+            }
+        });
+        assertThat(proxyItf.increase(10)).isEqualTo(21);
+        assertThat(proxyItf.times()).isEqualTo(5);
+
+        proxyService.setInterceptor(Interceptor.DEFAULT);
+        assertThat(proxyItf.increase(10)).isEqualTo(20);
+        assertThat(proxyItf.times()).isEqualTo(4);
+    }
+
+    @Test
+    public void shouldBindInterceptorsPerMethod() throws Exception {
+        ProxyClass<SimpleService> proxyFactory = ProxyBuilder.build(proxyClassLoader, SimpleService.class,
+                new Class[] { SimpleInterface.class });
+        Proxy proxyService = proxyFactory.newInstance(new SimpleService());
+        SimpleInterface proxyItf = (SimpleInterface) proxyService;
+        Interceptor plusOne = new Interceptor() {
+
+            @Override
+            public <T, E extends Throwable> T onCall(CallContext callContext, InterceptionHandler<T> handler)
+                    throws E {
+                return handler.invoke();
+            }
+
+            @Override
+            public int onCall(CallContext callContext, IntInterceptionHandler handler) throws Exception {
+                return handler.invoke() + 1;
+            }
+        };
+
+        proxyService.setInterceptor(SimpleInterface.class.getMethod("increase", int.class), plusOne);
+        assertThat(proxyItf.increase(10)).isEqualTo(21);
+        assertThat(proxyItf.times()).isEqualTo(4);
+
+        proxyService.setInterceptors(InterceptorTable.EMPTY.with(SimpleService.class.getMethod("times"), plusOne));
+        assertThat(proxyItf.increase(10)).isEqualTo(20);
+        assertThat(proxyItf.times()).isEqualTo(5);
+
+        proxyService.setInterceptor(plusOne);
+        assertThat(proxyItf.increase(10)).isEqualTo(21);
+        assertThat(proxyItf.reduce(new int[] { 1, 2 })).isEqualTo(4);
+
+        Method toString = Object.class.getMethod("toString");
+        assertThatThrownBy(() -> proxyService.setInterceptor(toString, plusOne))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void shouldSpecializeInterceptorPerMethod() throws BadValueException {
+        ProxyClass<SimpleService> proxyFactory = ProxyBuilder.build(proxyClassLoader, SimpleService.class,
+                new Class[] { SimpleInterface.class });
+        Proxy proxyService = proxyFactory.newInstance(new SimpleService());
+        SimpleInterface proxyItf = (SimpleInterface) proxyService;
+        List<String> specializedMethods = new ArrayList<>();
+
+        proxyService.setInterceptor(new Interceptor() {
+
+            @Override
+            public Interceptor specialize(CallContext context) {
+                String methodName = context.method.getName();
+                specializedMethods.add(methodName);
+                if (context.method.getReturnType() != int.class) {
+                    return null;
+                }
+                return new Interceptor() {
+
+                    @Override
+                    public <T, E extends Throwable> T onCall(CallContext callContext,
+                            InterceptionHandler<T> handler) throws E {
+                        throw new AssertionError();
+                    }
+
+                    @Override
+                    public int onCall(CallContext callContext, IntInterceptionHandler handler) throws Exception {
+                        return methodName.equals("times") ? handler.invoke() * 10 : handler.invoke();
+                    }
+                };
+            }
+
+            @Override
+            public <T, E extends Throwable> T onCall(CallContext callContext, InterceptionHandler<T> handler)
+                    throws E {
+                throw new AssertionError();
+            }
+        });
+        assertThat(specializedMethods).containsOnly("sayHello", "hello", "times", "increase", "reduce");
+
+        assertThat(proxyItf.times()).isEqualTo(40);
+        assertThat(proxyItf.increase(10)).isEqualTo(20);
+        assertThat(proxyItf.hello()).isEqualTo("hello!");
+        assertThat(specializedMethods).hasSize(5);
+    }
+
+    @Test
+    public void shouldCallAdviceAroundDelegate() throws Exception {
+        ProxyClass<SimpleService> proxyFactory = ProxyBuilder.build(proxyClassLoader, SimpleService.class,
+                new Class[] { SimpleInterface.class });
+        Proxy proxyService = proxyFactory.newInstance(new SimpleService());
+        SimpleInterface proxyItf = (SimpleInterface) proxyService;
+        List<String> events = new ArrayList<>();
+
+        proxyService.setInterceptor(new Advice() {
+
+            @Override
+            public void before(CallContext context) {
+                // called from the proxy method itself, not from a handler.
+                StackTraceElement caller = new Throwable().getStackTrace()[1];
+                assertThat(caller.getClassName()).isEqualTo(proxyFactory.targetClass().getName());
+                events.add("before " + context.method.getName());
+            }
+
+            @Override
+            public void afterReturning(CallContext context) {
+                events.add("void " + context.method.getName());
+            }
+
+            @Override
+            public void afterReturning(CallContext context, int result) {
+                events.add("int " + context.method.getName() + " " + result);
+            }
+
+            @Override
+            public void afterReturning(CallContext context, Object result) {
+                events.add("object " + context.method.getName() + " " + result);
+            }
+
+            @Override
+            public void afterThrowing(CallContext context, Throwable exception) {
+                events.add("throwing " + context.method.getName() + " " + exception.getClass().getSimpleName());
+            }
+        });
+
+        assertThat(proxyItf.increase(10)).isEqualTo(20);
+        assertThat(proxyItf.hello()).isEqualTo("hello!");
+        assertThatThrownBy(() -> proxyItf.increase(-1)).isInstanceOf(BadValueException.class);
+        proxyItf.sayHello(new PrintStream(new ByteArrayOutputStream()));
+
+        assertThat(events).containsExactly("before increase", "int increase 20", "before hello",
+                "object hello hello!", "before increase", "throwing increase BadValueException", "before sayHello",
+                "void sayHello");
+    }
+
+    @Test
+    public void shouldBindInterceptorAsConstant() throws Exception {
+        // Separate loader: the shared one already proxies SimpleService with the field binding.
+        ProxyClassLoader constantClassLoader = new ProxyClassLoader(ProxyBuilderTest.class.getClassLoader());
+        ProxyClass<SimpleService> proxyFactory = ProxyBuilder.build(constantClassLoader, SimpleService.class,
+                new Class[] { SimpleInterface.class }, m -> true, InterceptorBinding.CONSTANT);
+        Proxy proxyService = proxyFactory.newInstance(new SimpleService());
+        SimpleInterface proxyItf = (SimpleInterface) proxyService;
+
+        assertThat(proxyItf.increase(10)).isEqualTo(20);
+
+        Interceptor plusOne = new Interceptor() {
+
+            @Override
+            public <T, E extends Throwable> T onCall(CallContext callContext, InterceptionHandler<T> handler)
+                    throws E {
+                return handler.invoke();
+            }
+
+            @Override
+            public int onCall(CallContext callContext, IntInterceptionHandler handler) throws Exception {
+                return handler.invoke() + 1;
+            }
+        };
+        proxyService.setInterceptor(plusOne);
+        assertThat(proxyItf.increase(10)).isEqualTo(21);
+        assertThat(proxyItf.times()).isEqualTo(5);
+        assertThat(proxyItf.hello()).isEqualTo("hello!");
+
+        // The binding is class-wide.
+        SimpleInterface otherProxyItf = (SimpleInterface) proxyFactory.newInstance(new SimpleService());
+        assertThat(otherProxyItf.times()).isEqualTo(5);
+
+        proxyService.setInterceptor(Interceptor.DEFAULT);
+        assertThat(proxyItf.increase(10)).isEqualTo(20);
+        assertThat(otherProxyItf.times()).isEqualTo(4);
+        assertThatThrownBy(() -> proxyItf.increase(-1)).isInstanceOf(BadValueException.class);
+
+        Method times = SimpleInterface.class.getMethod("times");
+        ((Proxy) otherProxyItf).setInterceptor(times, plusOne);
+        assertThat(proxyItf.times()).isEqualTo(5);
+        assertThat(proxyItf.increase(10)).isEqualTo(20);
+    }
+
+    @Test
+    public void shouldDispatchStacksThroughTrampolines() throws Exception {
+        // Separate loader: the shared one already proxies SimpleService with direct dispatch.
+        ProxyClassLoader trampolineClassLoader = new ProxyClassLoader(ProxyBuilderTest.class.getClassLoader());
+        ProxyClass<SimpleService> proxyFactory = ProxyBuilder.build(trampolineClassLoader, SimpleService.class,
+                new Class[] { SimpleInterface.class }, m -> true, InterceptorBinding.FIELD,
+                InterceptorDispatch.TRAMPOLINE);
+        Proxy proxyService = proxyFactory.newInstance(new SimpleService());
+        SimpleInterface proxyItf = (SimpleInterface) proxyService;
+        List<String> callers = new ArrayList<>();
+
+        Interceptor plusOne = new Interceptor() {
+
+            @Override
+            public <T, E extends Throwable> T onCall(CallContext callContext, InterceptionHandler<T> handler)
+                    throws E {
+                return handler.invoke();
+            }
+
+            @Override
+            public int onCall(CallContext callContext, IntInterceptionHandler handler) throws Exception {
+                callers.add(new Throwable().getStackTrace()[1].getClassName());
+                return handler.invoke() + 1;
+            }
+        };
+        Interceptor absoluteArguments = new Interceptor() {
+
+            @Override
+            public <T, E extends Throwable> T onCall(CallContext callContext, InterceptionHandler<T> handler)
+                    throws E {
+                if (callContext.parameters.size() == 1 && callContext.parameters.get(0).getType() == int.class) {
+                    Arguments arguments = handler.getArguments();
+                    return handler.invoke(arguments.updater().setIntArg(0, Math.abs(arguments.intArg(0))).update());
+                }
+                return handler.invoke();
+            }
+        };
+
+        proxyService.setInterceptor(Interceptors.stack(plusOne, absoluteArguments, plusOne));
+        assertThat(proxyItf.increase(-10)).isEqualTo(22);
+        assertThat(proxyItf.times()).isEqualTo(6);
+        assertThat(proxyItf.hello()).isEqualTo("hello!");
+        // Each level calls its interceptor from the trampoline of the method.
+        assertThat(callers).hasSize(4);
+        assertThat(callers.get(0)).contains(TrampolineGenerator.SUFFIX_START + "increase");
+        assertThat(callers.get(1)).isEqualTo(callers.get(0));
+        assertThat(callers.get(2)).contains(TrampolineGenerator.SUFFIX_START + "times");
+
+        // Deeper than the levels with their own call site.
+        Interceptor[] deepStack = new Interceptor[12];
+        Arrays.fill(deepStack, plusOne);
+        proxyService.setInterceptor(Interceptors.stack(deepStack));
+        assertThat(proxyItf.increase(10)).isEqualTo(32);
+
+        proxyService.setInterceptor(plusOne);
+        assertThat(proxyItf.increase(10)).isEqualTo(21);
+        assertThat(callers.get(callers.size() - 1)).isEqualTo(proxyFactory.targetClass().getName());
+    }
+
     private String extractFromPrintStream(Consumer<PrintStream> psConsumer)
             throws UnsupportedEncodingException, IOException {
         try (ByteArrayOutputStream baos = new ByteArrayOutputStream(); PrintStream ps = new PrintStream(baos)) {
@@ -0,0 +1,405 @@
+package io.primeval.reflex.proxy.bytecode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import io.primeval.reflex.proxy.CallContext;
+import io.primeval.reflex.proxy.Interceptor;
+import io.primeval.reflex.proxy.Interceptors;
+import io.primeval.reflex.proxy.bytecode.gen.ProxyClassGenerator;
+import io.primeval.reflex.proxy.bytecode.gen.ProxyFactoryGenerator;
+import io.primeval.reflex.proxy.handler.IntInterceptionHandler;
+import io.primeval.reflex.proxy.handler.InterceptionHandler;
+import io.primeval.reflex.proxy.testset.api.BadValueException;
+import io.primeval.reflex.proxy.testset.api.SimpleInterface;
+import io.primeval.reflex.proxy.testset.overloads.OverloadedService;
+import io.primeval.reflex.proxy.testset.simpleservice.SimpleService;
+
+public final class ProxyClassLoaderTest {
+
+    private static final int THREADS = 32;
+    private static final int CLASS_LOADERS = 8;
+
+    private static final Class<?>[][] INTERFACES = { { SimpleInterface.class },
+            { SimpleInterface.class, Serializable.class } };
+
+    private static final Interceptor PLUS_ONE = new Interceptor() {
+        @Override
+        public <T, E extends Throwable> T onCall(CallContext context, InterceptionHandler<T> handler) throws E {
+            return handler.invoke();
+        }
+
+        @Override
+        public int onCall(CallContext context, IntInterceptionHandler handler) throws Exception {
+            return handler.invoke() + 1;
+        }
+    };
+
+    @Test
+    public void shouldBuildProxyVariantsConcurrently() throws Exception {
+        List<Method> methods = Arrays.asList(ProxyBuilder.getMethods(SimpleService.class));
+        int masks = 1 << methods.size();
+        InterceptorBinding[] bindings = InterceptorBinding.values();
+        InterceptorDispatch[] dispatches = InterceptorDispatch.values();
+        int configurations = INTERFACES.length * masks * bindings.length * dispatches.length;
+
+        ProxyClassLoader[] classLoaders = new ProxyClassLoader[CLASS_LOADERS];
+        for (int i = 0; i < classLoaders.length; i++) {
+            classLoaders[i] = new ProxyClassLoader(ProxyClassLoaderTest.class.getClassLoader());
+        }
+        int variants = CLASS_LOADERS * configurations;
+        ConcurrentMap<Integer, Class<?>> proxyClasses = new ConcurrentHashMap<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                long seed = t;
+                futures.add(executor.submit(() -> {
+                    List<Integer> order = new ArrayList<>();
+                    for (int v = 0; v < variants; v++) {
+                        order.add(v);
+                    }
+                    Collections.shuffle(order, new Random(seed));
+                    start.await();
+                    for (int v : order) {
+                        int configuration = v % configurations;
+                        int mask = configuration % masks;
+                        int rest = configuration / masks;
+                        Predicate<Method> shouldIntercept = m -> (mask & (1 << methods.indexOf(m))) != 0;
+
+                        ProxyClass<SimpleService> proxyClass = ProxyBuilder.build(classLoaders[v / configurations],
+                                SimpleService.class, INTERFACES[rest % INTERFACES.length], shouldIntercept,
+                                bindings[rest / INTERFACES.length % bindings.length],
+                                dispatches[rest / INTERFACES.length / bindings.length]);
+                        Proxy proxy = proxyClass.newInstance(new SimpleService());
+                        assertThat(((SimpleInterface) proxy).increase(10)).isEqualTo(20);
+
+                        Class<?> known = proxyClasses.putIfAbsent(v, proxy.getClass());
+                        if (known != null) {
+                            assertThat(proxy.getClass()).isSameAs(known);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(proxyClasses.size()).isEqualTo(variants);
+        assertThat(proxyClasses.values().stream().distinct().count()).isEqualTo((long) variants);
+    }
+
+    @Test
+    public void shouldNameVariantsAfterTheirConfigurationOnly() {
+        Method[] methods = ProxyBuilder.getMethods(SimpleService.class);
+        ProxyClassLoader first = new ProxyClassLoader(ProxyClassLoaderTest.class.getClassLoader());
+        String firstAll = first.declareClassToProxy(SimpleService.class, INTERFACES[0], methods, m -> true);
+        String firstSome = first.declareClassToProxy(SimpleService.class, INTERFACES[0], methods,
+                m -> m.getName().startsWith("increase"));
+
+        // declared in the other order
+        ProxyClassLoader second = new ProxyClassLoader(ProxyClassLoaderTest.class.getClassLoader());
+        String secondSome = second.declareClassToProxy(SimpleService.class, INTERFACES[0], methods,
+                m -> m.getName().startsWith("increase"));
+        String secondAll = second.declareClassToProxy(SimpleService.class, INTERFACES[0], methods, m -> true);
+
+        assertThat(firstAll).isNotEqualTo(firstSome);
+        assertThat(secondAll).isEqualTo(firstAll);
+        assertThat(secondSome).isEqualTo(firstSome);
+    }
+
+    @Test
+    public void shouldNotDeclareVariantsWithConflictingMethodClasses() throws Exception {
+        Method increaseInt = OverloadedService.class.getMethod("increase", int.class);
+        Method increaseLong = OverloadedService.class.getMethod("increase", long.class);
+        ProxyClassLoader classLoader = new ProxyClassLoader(ProxyClassLoaderTest.class.getClassLoader());
+        // the classes of method 1 are declared for increase(long)
+        classLoader.declareClassToProxy(OverloadedService.class, new Class[0],
+                new Method[] { increaseInt, increaseLong }, increaseLong::equals);
+
+        // declares the classes of method 0 for increase(long), then fails on method 1
+        Method[] reordered = { increaseLong, increaseInt };
+        assertThatThrownBy(() -> classLoader.declareClassToProxy(OverloadedService.class, new Class[0], reordered,
+                m -> true)).isInstanceOf(IllegalArgumentException.class);
+        // fails the same way again, its variant name is not taken
+        assertThatThrownBy(() -> classLoader.declareClassToProxy(OverloadedService.class, new Class[0], reordered,
+                m -> true)).isInstanceOf(IllegalArgumentException.class);
+
+        // the classes of method 0 were not left declared for increase(long)
+        String variant = classLoader.declareClassToProxy(OverloadedService.class, new Class[0],
+                new Method[] { increaseInt, increaseLong }, increaseInt::equals);
+        assertThat(classLoader.loadClass(ProxyClassGenerator.getName(OverloadedService.class, variant))).isNotNull();
+    }
+
+    @Test
+    public void shouldDefineClassesFromBytecodeCache() throws Exception {
+        Path directory = Files.createTempDirectory("reflex-cache");
+        try {
+            BytecodeCache bytecodeCache = new BytecodeCache(directory);
+            String proxyName = build(
+                    new ProxyClassLoader(ProxyClassLoaderTest.class.getClassLoader(), bytecodeCache));
+            Path proxyFile = directory.resolve(proxyName + ".class");
+            byte[] stored = Files.readAllBytes(proxyFile);
+
+            // every class of the proxy class, generated eagerly, none of them rewritten on a later run
+            Map<Path, FileTime> files = new HashMap<>();
+            try (Stream<Path> list = Files.list(directory)) {
+                list.forEach(f -> files.put(f, lastModified(f)));
+            }
+            int methodCount = ProxyBuilder.getMethods(SimpleService.class).length;
+            assertThat(files.size()).isEqualTo(3 * methodCount + 2);
+            Thread.sleep(10);
+            build(new ProxyClassLoader(ProxyClassLoaderTest.class.getClassLoader(), bytecodeCache));
+            for (Map.Entry<Path, FileTime> file : files.entrySet()) {
+                assertThat(lastModified(file.getKey())).isEqualTo(file.getValue());
+            }
+
+            // stale entries are detected by their hash, and replaced
+            byte[] stale = stored.clone();
+            stale[0]++;
+            Files.write(proxyFile, stale);
+            build(new ProxyClassLoader(ProxyClassLoaderTest.class.getClassLoader(), bytecodeCache));
+            assertThat(Files.readAllBytes(proxyFile)).isEqualTo(stored);
+        } finally {
+            try (Stream<Path> list = Files.list(directory)) {
+                list.forEach(f -> f.toFile().delete());
+            }
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void shouldDefineClassesGeneratedAtBuildTime() throws Exception {
+        Path output = Files.createTempDirectory("reflex-output");
+        Path directory = Files.createTempDirectory("reflex-cache");
+        try {
+            // as the Maven plugin does, into the output directory of the target classes
+            Path resources = output.resolve(BytecodeCache.RESOURCE_DIRECTORY);
+            String proxyName = build(new ProxyClassLoader(ProxyClassLoaderTest.class.getClassLoader(),
+                    new BytecodeCache(resources)));
+
+            BytecodeCache bytecodeCache = new BytecodeCache(directory);
+            try (URLClassLoader parent = new URLClassLoader(new URL[] { output.toUri().toURL() },
+                    ProxyClassLoaderTest.class.getClassLoader())) {
+                build(new ProxyClassLoader(parent, bytecodeCache));
+                try (Stream<Path> list = Files.list(directory)) {
+                    assertThat(list.count()).isEqualTo(0L);
+                }
+
+                // stale classes are generated again
+                Path proxyFile = resources.resolve(proxyName + ".class");
+                byte[] stale = Files.readAllBytes(proxyFile);
+                stale[0]++;
+                Files.write(proxyFile, stale);
+                build(new ProxyClassLoader(parent, bytecodeCache));
+                try (Stream<Path> list = Files.list(directory)) {
+                    assertThat(list.map(f -> f.getFileName().toString()).toArray())
+                            .containsExactly(proxyName + ".class");
+                }
+            }
+        } finally {
+            delete(output);
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void shouldLookUpCallContextsOncePerProxyClass() throws Exception {
+        ProxyClass<SimpleService> proxyClass = ProxyBuilder.build(
+                new ProxyClassLoader(ProxyClassLoaderTest.class.getClassLoader()), SimpleService.class,
+                new Class[] { SimpleInterface.class });
+        List<CallContext> specialized = new CopyOnWriteArrayList<>();
+        Interceptor interceptor = new Interceptor() {
+            @Override
+            public Interceptor specialize(CallContext context) {
+                specialized.add(context);
+                return PLUS_ONE;
+            }
+
+            @Override
+            public <T, E extends Throwable> T onCall(CallContext context, InterceptionHandler<T> handler) throws E {
+                return handler.invoke();
+            }
+        };
+        int methodCount = ProxyBuilder.getMethods(SimpleService.class).length;
+
+        // specialized for each method when set
+        Proxy proxy = proxyClass.newInstance(new SimpleService());
+        proxy.setInterceptor(interceptor);
+        assertThat(specialized).hasSize(methodCount);
+        assertThat(((SimpleInterface) proxy).increase(10)).isEqualTo(21);
+        assertThat(specialized).hasSize(methodCount);
+
+        // with the call contexts of the proxy class
+        Proxy other = proxyClass.newInstance(new SimpleService());
+        other.setInterceptor(interceptor);
+        assertThat(specialized).hasSize(2 * methodCount);
+        for (int i = 0; i < methodCount; i++) {
+            assertThat(specialized.get(methodCount + i)).isSameAs(specialized.get(i));
+        }
+
+        proxy.setInterceptor(Interceptor.DEFAULT);
+        assertThat(((SimpleInterface) proxy).increase(10)).isEqualTo(20);
+        assertThat(specialized).hasSize(2 * methodCount);
+    }
+
+    @Test
+    public void shouldReplayRecordedProxyClasses() throws Exception {
+        Path profile = Files.createTempFile("reflex", ".profile");
+        Path directory = Files.createTempDirectory("reflex-cache");
+        try {
+            ProxyClassLoader training = new ProxyClassLoader(ProxyClassLoaderTest.class.getClassLoader());
+            training.startRecording();
+            ProxyClass<SimpleService> proxyClass = ProxyBuilder.build(training, SimpleService.class,
+                    new Class[] { SimpleInterface.class }, m -> m.getName().startsWith("increase"));
+            Proxy proxy = proxyClass.newInstance(new SimpleService());
+            proxy.setInterceptor(PLUS_ONE);
+            assertThat(((SimpleInterface) proxy).increase(10)).isEqualTo(21);
+            training.writeProfile(profile);
+
+            // the classes used during the training run, and only them, are generated right away
+            ProxyClassLoader classLoader = new ProxyClassLoader(ProxyClassLoaderTest.class.getClassLoader(),
+                    new BytecodeCache(directory));
+            List<String> variants = classLoader.replayProfile(profile, ForkJoinPool.commonPool()).get();
+            assertThat(variants).hasSize(1);
+            List<String> generated;
+            try (Stream<Path> list = Files.list(directory)) {
+                generated = list.map(f -> f.getFileName().toString()).sorted().collect(Collectors.toList());
+            }
+            String prefix = SimpleService.class.getName();
+            assertThat(generated).contains(prefix + "$Proxy$" + variants.get(0) + ".class",
+                    prefix + ProxyFactoryGenerator.SUFFIX + variants.get(0) + ".class");
+            assertThat(generated.stream().anyMatch(f -> f.contains("$handlerFor$increase"))).isTrue();
+            assertThat(generated.stream().anyMatch(f -> f.contains("For$times"))).isFalse();
+
+            // the same configuration gives the replayed proxy class
+            ProxyClass<SimpleService> replayed = ProxyBuilder.build(classLoader, SimpleService.class,
+                    new Class[] { SimpleInterface.class }, m -> m.getName().startsWith("increase"));
+            Proxy replayedProxy = replayed.newInstance(new SimpleService());
+            assertThat(replayedProxy.getClass().getName()).isEqualTo(prefix + "$Proxy$" + variants.get(0));
+            replayedProxy.setInterceptor(PLUS_ONE);
+            assertThat(((SimpleInterface) replayedProxy).increase(10)).isEqualTo(21);
+        } finally {
+            Files.delete(profile);
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void shouldUnloadHiddenProxyClasses() throws Exception {
+        Assume.assumeTrue(HiddenClasses.isSupported());
+        ProxyClassLoader classLoader = new ProxyClassLoader(ProxyClassLoaderTest.class.getClassLoader(), null,
+                ClassDefinition.HIDDEN);
+
+        WeakReference<Class<?>> hiddenClass = buildHidden(classLoader);
+        for (int i = 0; i < 100 && hiddenClass.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertThat(hiddenClass.get()).isNull();
+
+        // defined again
+        assertThat(buildHidden(classLoader).get()).isNotNull();
+    }
+
+    @Test
+    public void shouldReuseHiddenProxyClassesOfReachableProxies() throws Exception {
+        Assume.assumeTrue(HiddenClasses.isSupported());
+        ProxyClassLoader classLoader = new ProxyClassLoader(ProxyClassLoaderTest.class.getClassLoader(), null,
+                ClassDefinition.HIDDEN);
+
+        // only the proxy keeps its class reachable
+        Proxy proxy = ProxyBuilder.build(classLoader, SimpleService.class, new Class[] { SimpleInterface.class })
+                .newInstance(new SimpleService());
+        WeakReference<Object> collected = new WeakReference<>(new Object());
+        for (int i = 0; i < 100 && collected.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertThat(collected.get()).isNull();
+
+        assertThat(ProxyBuilder.build(classLoader, SimpleService.class, new Class[] { SimpleInterface.class })
+                .targetClass()).isSameAs(proxy.getClass());
+    }
+
+    private static WeakReference<Class<?>> buildHidden(ProxyClassLoader classLoader) throws BadValueException {
+        ProxyClass<SimpleService> proxyClass = ProxyBuilder.build(classLoader, SimpleService.class,
+                new Class[] { SimpleInterface.class }, m -> true);
+        Proxy proxy = proxyClass.newInstance(new SimpleService());
+        proxy.setInterceptor(PLUS_ONE);
+        assertThat(((SimpleInterface) proxy).increase(10)).isEqualTo(21);
+
+        // hidden classes have no binary name, and are reused while reachable
+        assertThat(proxy.getClass().getName()).contains(SimpleService.class.getName() + "$Proxy$")
+                .contains("/");
+        assertThat(ProxyBuilder.build(classLoader, SimpleService.class, new Class[] { SimpleInterface.class },
+                m -> true).targetClass()).isSameAs(proxy.getClass());
+        return new WeakReference<>(proxy.getClass());
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> walk = Files.walk(directory)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(f -> f.toFile().delete());
+        }
+    }
+
+    private static String build(ProxyClassLoader classLoader) throws BadValueException {
+        ProxyClass<SimpleService> proxyClass = ProxyBuilder.build(classLoader, SimpleService.class,
+                new Class[] { SimpleInterface.class }, m -> true, InterceptorBinding.FIELD, InterceptorDispatch.DIRECT,
+                ForkJoinPool.commonPool(), report -> {
+                });
+        Proxy proxy = proxyClass.newInstance(new SimpleService());
+        proxy.setInterceptor(Interceptors.stack(Interceptor.DEFAULT, Interceptor.DEFAULT));
+        assertThat(((SimpleInterface) proxy).increase(10)).isEqualTo(20);
+        return proxy.getClass().getName();
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,235 @@
+package io.primeval.reflex.proxy.bytecode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Assume;
+import org.junit.Test;
+import org.objectweb.asm.ClassWriter;
+import org.slf4j.LoggerFactory;
+
+import io.primeval.reflex.proxy.CallContext;
+import io.primeval.reflex.proxy.Interceptor;
+import io.primeval.reflex.proxy.Interceptors;
+import io.primeval.reflex.proxy.handler.IntInterceptionHandler;
+import io.primeval.reflex.proxy.handler.InterceptionHandler;
+import io.primeval.reflex.proxy.testset.api.SimpleInterface;
+import io.primeval.reflex.proxy.testset.simpleservice.SimpleService;
+
+/**
+ * Archives the classes of a jar written by {@link BytecodeCache#writeJar(Path)} with class data sharing, in other
+ * JVMs. Requires a JDK with dynamic archives (13 or later).
+ */
+public final class SharedArchiveTest {
+
+    @Test
+    public void shouldArchiveSharedProxyClasses() throws Exception {
+        String version = System.getProperty("java.specification.version");
+        Assume.assumeTrue(!version.startsWith("1.") && Integer.parseInt(version) >= 13);
+
+        Path directory = Files.createTempDirectory("reflex-cds");
+        try {
+            // class data sharing only archives classes loaded from jars
+            List<String> classPath = new ArrayList<>();
+            for (Path location : codeSources(Main.class, ProxyBuilder.class, ClassWriter.class,
+                    LoggerFactory.class)) {
+                if (Files.isDirectory(location)) {
+                    Path jar = directory.resolve("classpath" + classPath.size() + ".jar");
+                    jar(location, jar);
+                    location = jar;
+                }
+                classPath.add(location.toString());
+            }
+
+            Path cache = directory.resolve("cache");
+            assertThat(run(classPath, Arrays.asList("eager", "intercept", cache.toString())))
+                    .contains("21", "generated");
+
+            Path proxies = directory.resolve("proxies.jar");
+            new BytecodeCache(cache).writeJar(proxies);
+            Path again = directory.resolve("again.jar");
+            new BytecodeCache(cache).writeJar(again);
+            assertThat(Files.readAllBytes(again)).isEqualTo(Files.readAllBytes(proxies));
+
+            classPath.add(proxies.toString());
+            Path archive = directory.resolve("proxies.jsa");
+            assertThat(run(classPath, Arrays.asList("eager", "intercept"), "-XX:ArchiveClassesAtExit=" + archive))
+                    .contains("21", "shared");
+
+            String output = run(classPath, Arrays.asList("eager", "intercept"), "-XX:SharedArchiveFile=" + archive,
+                    "-Xlog:class+load=info");
+            assertThat(Stream.of(output.split("\\R"))
+                    .anyMatch(line -> line.contains(SimpleService.class.getName() + "$Proxy$")
+                            && line.contains("shared objects file"))).isTrue();
+
+            if (Boolean.getBoolean("reflex.cds.compare")) {
+                // Opt in, as it starts a dozen more JVMs: -Dreflex.cds.compare=true
+                String archived = "-XX:SharedArchiveFile=" + archive;
+                long sharedWithout = sharedClasses(run(classPath, Arrays.asList("eager", "intercept"),
+                        "-Xlog:class+load=info"));
+                long sharedWith = sharedClasses(output);
+                assertThat(sharedWith).isGreaterThan(sharedWithout);
+                System.out.printf("Classes loaded from archives: %d without the proxy archive, %d with it%n",
+                        sharedWithout, sharedWith);
+                System.out.printf("Startup: %d ms without the proxy archive, %d ms with it%n",
+                        startup(classPath), startup(classPath, archived));
+            }
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void shouldGenerateVariantsNotEntirelyShared() throws Exception {
+        Path directory = Files.createTempDirectory("reflex-shared");
+        try {
+            List<String> classPath = new ArrayList<>();
+            for (Path location : codeSources(Main.class, ProxyBuilder.class, ClassWriter.class,
+                    LoggerFactory.class)) {
+                classPath.add(location.toString());
+            }
+
+            // a training run that only loads the classes it needs: no interceptor, no handler
+            Path cache = directory.resolve("cache");
+            assertThat(run(classPath, Arrays.asList("lazy", "default", cache.toString()))).contains("20", "generated");
+            Path proxies = directory.resolve("proxies.jar");
+            new BytecodeCache(cache).writeJar(proxies);
+            try (JarFile jar = new JarFile(proxies.toFile())) {
+                assertThat(jar.stream().map(JarEntry::getName).anyMatch(n -> n.contains("$handlerFor$increase")))
+                        .isFalse();
+            }
+
+            classPath.add(proxies.toString());
+            assertThat(run(classPath, Arrays.asList("lazy", "intercept"))).contains("21", "generated");
+        } finally {
+            delete(directory);
+        }
+    }
+
+    /**
+     * Builds a proxy class in another JVM: {@code eager|lazy default|intercept [cache directory]}.
+     */
+    public static final class Main {
+        public static void main(String[] args) throws Exception {
+            BytecodeCache bytecodeCache = args.length > 2 ? new BytecodeCache(Paths.get(args[2])) : null;
+            ProxyClassLoader classLoader = new ProxyClassLoader(Main.class.getClassLoader(), bytecodeCache);
+            Class<?>[] interfaces = { SimpleInterface.class };
+            ProxyClass<SimpleService> proxyClass = args[0].equals("eager")
+                    ? ProxyBuilder.build(classLoader, SimpleService.class, interfaces, m -> true,
+                            InterceptorBinding.FIELD, InterceptorDispatch.DIRECT, ForkJoinPool.commonPool(),
+                            report -> {
+                            })
+                    : ProxyBuilder.build(classLoader, SimpleService.class, interfaces);
+            Proxy proxy = proxyClass.newInstance(new SimpleService());
+            if (args[1].equals("intercept")) {
+                proxy.setInterceptor(Interceptors.stack(Interceptor.DEFAULT, PLUS_ONE));
+            }
+            System.out.println(((SimpleInterface) proxy).increase(10));
+            System.out.println(proxy.getClass().getClassLoader() == ClassLoader.getSystemClassLoader() ? "shared"
+                    : "generated");
+        }
+    }
+
+    private static final Interceptor PLUS_ONE = new Interceptor() {
+        @Override
+        public <T, E extends Throwable> T onCall(CallContext context, InterceptionHandler<T> handler) throws E {
+            return handler.invoke();
+        }
+
+        @Override
+        public int onCall(CallContext context, IntInterceptionHandler handler) throws Exception {
+            return handler.invoke() + 1;
+        }
+    };
+
+    private static String run(List<String> classPath, List<String> args, String... jvmOptions)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(Arrays.asList(jvmOptions));
+        command.add("-cp");
+        command.add(String.join(File.pathSeparator, classPath));
+        command.add(Main.class.getName());
+        command.addAll(args);
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (InputStream in = process.getInputStream()) {
+            copy(in, output);
+        }
+        String result = output.toString("UTF-8");
+        assertThat(process.waitFor()).as(result).isEqualTo(0);
+        return result;
+    }
+
+    private static long sharedClasses(String classLoadLog) {
+        return Stream.of(classLoadLog.split("\\R")).filter(line -> line.contains("shared objects file")).count();
+    }
+
+    // The fastest of a few runs, in milliseconds.
+    private static long startup(List<String> classPath, String... jvmOptions)
+            throws IOException, InterruptedException {
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            run(classPath, Arrays.asList("eager", "intercept"), jvmOptions);
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+        return fastest / 1_000_000;
+    }
+
+    private static Set<Path> codeSources(Class<?>... classes) throws Exception {
+        Set<Path> locations = new LinkedHashSet<>();
+        for (Class<?> clazz : classes) {
+            locations.add(Paths.get(clazz.getProtectionDomain().getCodeSource().getLocation().toURI()));
+        }
+        return locations;
+    }
+
+    private static void jar(Path directory, Path jar) throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(directory)) {
+            files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            for (Path file : files) {
+                out.putNextEntry(new JarEntry(directory.relativize(file).toString().replace(File.separatorChar, '/')));
+                Files.copy(file, out);
+                out.closeEntry();
+            }
+        }
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> walk = Files.walk(directory)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(f -> f.toFile().delete());
+        }
+    }
+
+    private static void copy(InputStream in, OutputStream out) throws IOException {
+        byte[] buf = new byte[8192];
+        for (int n; (n = in.read(buf)) != -1;) {
+            out.write(buf, 0, n);
+        }
+    }
+
+}
@@ -0,0 +1,47 @@
+package io.primeval.reflex.proxy.bytecode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+
+import io.primeval.reflex.proxy.testset.annotated.AnnotatedService;
+import io.primeval.reflex.proxy.testset.simpleservice.SimpleService;
+
+public final class StructuresTest {
+
+    private static final String ANNOTATIONS = "io.primeval.reflex.proxy.testset.api.annotation.";
+
+    @Test
+    public void shouldEncodeAnnotationValues() throws Exception {
+        Method method = AnnotatedService.class.getMethod("someMethod");
+
+        assertThat(Structures.of(method)).isEqualTo(AnnotatedService.class.getName()
+                + ".someMethod()Ljava/lang/String;;;;"
+                + "[@" + ANNOTATIONS + "RuntimeMethodAnn(path=\"5:/test,)"
+                + "@" + ANNOTATIONS + "WebTags(value={@" + ANNOTATIONS + "WebTag(name=\"3:foo,),@" + ANNOTATIONS
+                + "WebTag(name=\"3:bar,),},)]");
+    }
+
+    @Test
+    public void shouldEncodeParameterNamesAndExceptions() throws Exception {
+        Method method = SimpleService.class.getMethod("increase", int.class);
+
+        assertThat(Structures.of(method)).isEqualTo(SimpleService.class.getName() + ".increase(I)I;;"
+                + "io.primeval.reflex.proxy.testset.api.BadValueException,;" + method.getParameters()[0].getName()
+                + ",[][]");
+    }
+
+    @Test
+    public void shouldEncodeTypeAnnotations() {
+        String structure = Structures.of(AnnotatedService.class);
+
+        assertThat(structure).contains("@" + ANNOTATIONS + "RuntimeTypeEnumAnn(value=" + ANNOTATIONS
+                + "MyChoices.THAT,)");
+        assertThat(structure).contains("@" + ANNOTATIONS + "NestingAnn(value={@" + ANNOTATIONS
+                + "NestedAnn(required=true,value=\"1:A,),@" + ANNOTATIONS
+                + "NestedAnn(required=true,value=\"1:B,),},)");
+    }
+
+}
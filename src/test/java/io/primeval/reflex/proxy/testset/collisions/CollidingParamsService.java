@@ -0,0 +1,10 @@
+package io.primeval.reflex.proxy.testset.collisions;
+
+public final class CollidingParamsService {
+
+    // "Aa" and "BB" have the same hash code, so have "AaAa", "AaBB" and "BBBB".
+    public String concat(String Aa, String BB, int AaAa, int AaBB, int BBBB) {
+        return Aa + BB + AaAa + AaBB + BBBB;
+    }
+
+}
@@ -0,0 +1,13 @@
+package io.primeval.reflex.proxy.testset.overloads;
+
+public class OverloadedService {
+
+    public int increase(int a) {
+        return a + 1;
+    }
+
+    public long increase(long a) {
+        return a + 1;
+    }
+
+}
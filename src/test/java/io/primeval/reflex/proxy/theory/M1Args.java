@@ -8,7 +8,7 @@ import java.util.Objects;
 import io.primeval.reflex.arguments.Arguments;
 import io.primeval.reflex.arguments.ArgumentsUpdater;
 
-public final class M1Args implements Arguments {
+public class M1Args implements Arguments {
 
     public final List<Parameter> parameters;
 
@@ -48,7 +48,7 @@ public final class M1Args implements Arguments {
         if (obj == null) {
             return false;
         }
-        if (getClass() != obj.getClass()) {
+        if (!(obj instanceof M1Args)) {
             return false;
         }
         M1Args other = (M1Args) obj;
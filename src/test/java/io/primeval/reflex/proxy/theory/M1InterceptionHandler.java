@@ -1,21 +1,25 @@
 package io.primeval.reflex.proxy.theory;
 
+import java.io.PrintStream;
+import java.lang.reflect.Parameter;
+import java.util.List;
+
 import io.primeval.reflex.arguments.Arguments;
 import io.primeval.reflex.proxy.handler.VoidInterceptionHandler;
 
-public final class M1InterceptionHandler implements VoidInterceptionHandler {
+public final class M1InterceptionHandler extends M1Args implements VoidInterceptionHandler {
 
     private final TheoreticalDelegate delegate;
-    private final M1Args arguments;
 
-    public M1InterceptionHandler(TheoreticalDelegate delegate, M1Args arguments) {
+    public M1InterceptionHandler(TheoreticalDelegate delegate, List<Parameter> parameters, PrintStream ps, int i,
+            byte b, String s) {
+        super(parameters, ps, i, b, s);
         this.delegate = delegate;
-        this.arguments = arguments;
     }
 
     @Override
     public Arguments getArguments() {
-        return arguments;
+        return this;
     }
 
     @Override
@@ -29,4 +33,9 @@ public final class M1InterceptionHandler implements VoidInterceptionHandler {
         }
     }
 
+    @Override
+    public <E extends Throwable> void invoke() throws E {
+        delegate.test(ps, i, b, s);
+    }
+
 }
@@ -7,7 +7,7 @@ import java.util.Objects;
 import io.primeval.reflex.arguments.Arguments;
 import io.primeval.reflex.arguments.ArgumentsUpdater;
 
-public final class M2Args implements Arguments {
+public class M2Args implements Arguments {
 
     public final List<Parameter> parameters;
 
@@ -39,7 +39,7 @@ public final class M2Args implements Arguments {
         if (obj == null) {
             return false;
         }
-        if (getClass() != obj.getClass()) {
+        if (!(obj instanceof M2Args)) {
             return false;
         }
         M2Args other = (M2Args) obj;
@@ -1,21 +1,23 @@
 package io.primeval.reflex.proxy.theory;
 
+import java.lang.reflect.Parameter;
+import java.util.List;
+
 import io.primeval.reflex.arguments.Arguments;
 import io.primeval.reflex.proxy.handler.DoubleInterceptionHandler;
 
-public final class M2InterceptionHandler implements DoubleInterceptionHandler {
+public final class M2InterceptionHandler extends M2Args implements DoubleInterceptionHandler {
 
     private final TheoreticalDelegate delegate;
-    private final M2Args arguments;
 
-    public M2InterceptionHandler(TheoreticalDelegate delegate, M2Args arguments) {
+    public M2InterceptionHandler(TheoreticalDelegate delegate, List<Parameter> parameters, double a, int[] b) {
+        super(parameters, a, b);
         this.delegate = delegate;
-        this.arguments = arguments;
     }
 
     @Override
     public Arguments getArguments() {
-        return arguments;
+        return this;
     }
 
     @Override
@@ -29,8 +31,7 @@ public final class M2InterceptionHandler implements DoubleInterceptionHandler {
     
     @Override
     public <E extends Throwable> double invoke() throws E {
-        M2Args m2Args = arguments;
-        return delegate.foo(m2Args.a, m2Args.b);
+        return delegate.foo(a, b);
     }
 
 }
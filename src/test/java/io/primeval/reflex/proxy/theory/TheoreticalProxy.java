@@ -5,6 +5,7 @@ import java.lang.reflect.Method;
 import java.util.Arrays;
 
 import io.primeval.reflex.proxy.CallContext;
+import io.primeval.reflex.proxy.Interceptor;
 import io.primeval.reflex.proxy.bytecode.Proxy;
 import io.primeval.reflex.proxy.shared.SharedProxyUtils;
 
@@ -26,27 +27,44 @@ public final class TheoreticalProxy extends Proxy implements Hello, Goodbye, Stu
     private final static CallContext cc2 = new CallContext(TheoreticalDelegate.class, meth2,
             Arrays.asList(meth2.getParameters()));
 
+    // goodbye() is not intercepted
+    private final static CallContext[] callContexts = { cc0, cc1, cc2, null };
+
     private final TheoreticalDelegate delegate;
     private final M0InterceptionHandler handler0;
 
     public TheoreticalProxy(TheoreticalDelegate delegate) {
+        super(callContexts);
         this.delegate = delegate;
         this.handler0 = new M0InterceptionHandler(delegate);
     }
 
     @Override
     public String hello() {
+        Interceptor interceptor = this.interceptors[0];
+        if (interceptor == Interceptor.DEFAULT) {
+            return delegate.hello();
+        }
         return interceptor.onCall(cc0, handler0);
     }
 
     @Override
     public void test(PrintStream ps, int i, byte b, String s) {
-        interceptor.onCall(cc1, new M1InterceptionHandler(delegate, new M1Args(cc1.parameters, ps, i, b, s)));
+        Interceptor interceptor = this.interceptors[1];
+        if (interceptor == Interceptor.DEFAULT) {
+            delegate.test(ps, i, b, s);
+            return;
+        }
+        interceptor.onCall(cc1, new M1InterceptionHandler(delegate, cc1.parameters, ps, i, b, s));
     }
 
     @Override
     public double foo(double a, int[] b) {
-        return interceptor.onCall(cc2, new M2InterceptionHandler(delegate, new M2Args(cc2.parameters, a, b)));
+        Interceptor interceptor = this.interceptors[2];
+        if (interceptor == Interceptor.DEFAULT) {
+            return delegate.foo(a, b);
+        }
+        return interceptor.onCall(cc2, new M2InterceptionHandler(delegate, cc2.parameters, a, b));
     }
 
     @Override